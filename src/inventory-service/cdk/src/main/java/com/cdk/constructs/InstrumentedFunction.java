@@ -30,7 +30,6 @@ public class InstrumentedFunction extends Construct {
 
         Map<String, String> lambdaEnvironment = new HashMap<>();
         lambdaEnvironment.put("MAIN_CLASS", String.format("%s.FunctionConfiguration", props.packageName()));
-        lambdaEnvironment.put("AWS_LAMBDA_EXEC_WRAPPER", "/opt/datadog_wrapper");
         lambdaEnvironment.put("DD_SITE", System.getenv("DD_SITE") == null ? "datadoghq.com" : System.getenv("DD_SITE"));
         lambdaEnvironment.put("DD_SERVICE", props.sharedProps().service());
         lambdaEnvironment.put("DD_ENV", props.sharedProps().env());
@@ -46,14 +45,20 @@ public class InstrumentedFunction extends Construct {
         lambdaEnvironment.put("DOMAIN", "inventory");
         lambdaEnvironment.put("spring_cloud_function_definition", props.routingExpression());
         lambdaEnvironment.put("QUARKUS_LAMBDA_HANDLER", props.routingExpression());
-        lambdaEnvironment.put("JAVA_TOOL_OPTIONS", "-javaagent:\"/opt/java/lib/dd-java-agent.jar\" -XX:+TieredCompilation -XX:TieredStopAtLevel=1");
         lambdaEnvironment.put("DD_TRACE_OTEL_ENABLED", "true");
+        if (!props.nativeImage()) {
+            // A native executable cannot load the Java agent, so only the JVM functions are wrapped and traced by it.
+            lambdaEnvironment.put("AWS_LAMBDA_EXEC_WRAPPER", "/opt/datadog_wrapper");
+            lambdaEnvironment.put("JAVA_TOOL_OPTIONS", "-javaagent:\"/opt/java/lib/dd-java-agent.jar\" -XX:+TieredCompilation -XX:TieredStopAtLevel=1");
+        }
 
         // Add custom environment variables to the default set.
         lambdaEnvironment.putAll(props.environmentVariables());
 
         List<ILayerVersion> layers = new ArrayList<>(2);
-        layers.add(LayerVersion.fromLayerVersionArn(this, "DatadogJavaLayer", String.format("arn:aws:lambda:%s:464622532012:layer:dd-trace-java:25",System.getenv("AWS_REGION"))));
+        if (!props.nativeImage()) {
+            layers.add(LayerVersion.fromLayerVersionArn(this, "DatadogJavaLayer", String.format("arn:aws:lambda:%s:464622532012:layer:dd-trace-java:25",System.getenv("AWS_REGION"))));
+        }
         layers.add(LayerVersion.fromLayerVersionArn(this, "DatadogLambdaExtension", String.format("arn:aws:lambda:%s:464622532012:layer:Datadog-Extension:93", System.getenv("AWS_REGION"))));
 
 
@@ -63,20 +68,26 @@ public class InstrumentedFunction extends Construct {
         
         var builder = Function.Builder.create(this, props.routingExpression())
                 .functionName(String.format("%s-%s-%s", props.packageName().replace(".", ""), props.routingExpression(), props.sharedProps().env()))
-                .runtime(Runtime.JAVA_21)
-                .memorySize(2048)
+                .runtime(props.nativeImage() ? Runtime.PROVIDED_AL2023 : Runtime.JAVA_21)
+                .memorySize(props.nativeImage() ? 512 : 2048)
                 .environment(lambdaEnvironment)
                 .timeout(Duration.seconds(30))
                 .code(Code.fromBucket(bucket, fileAsset.getS3ObjectKey()))
                 .layers(layers);
 
-        if (props.useQuarkus()) {
+        if (props.nativeImage()) {
+            // The bootstrap executable in function.zip is the handler; the runtime ignores this value.
+            builder.handler("not.used.in.provided.runtime");
+        } else if (props.handler() != null) {
+            builder.handler(props.handler());
+        } else if (props.useQuarkus()) {
             builder.handler("io.quarkus.amazon.lambda.runtime.QuarkusStreamHandler::handleRequest");
         } else {
             builder.handler("org.springframework.cloud.function.adapter.aws.FunctionInvoker::handleRequest");
         }
         
-        if (props.sharedProps().env().equals("prod") || props.sharedProps().env().equals("test")) {
+        // SnapStart is only available on the Java runtimes, and a native executable has no JVM start-up to snapshot.
+        if (!props.nativeImage() && (props.sharedProps().env().equals("prod") || props.sharedProps().env().equals("test"))) {
             builder.snapStart(SnapStartConf.ON_PUBLISHED_VERSIONS);
         }
 
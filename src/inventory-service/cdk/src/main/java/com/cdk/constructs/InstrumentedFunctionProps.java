@@ -9,10 +9,22 @@ package com.cdk.constructs;
 import java.util.HashMap;
 
 public record InstrumentedFunctionProps(SharedProps sharedProps, String packageName, String jarFile,
-                                        String routingExpression, HashMap<String, String> environmentVariables, boolean useQuarkus) {
+                                        String routingExpression, HashMap<String, String> environmentVariables, boolean useQuarkus,
+                                        boolean nativeImage, String handler) {
 
     public InstrumentedFunctionProps(SharedProps sharedProps, String packageName, String jarFile,
                                      String routingExpression, HashMap<String, String> environmentVariables) {
         this(sharedProps, packageName, jarFile, routingExpression, environmentVariables, false); // Default value for useQuarkus
     }
+
+    public InstrumentedFunctionProps(SharedProps sharedProps, String packageName, String jarFile,
+                                     String routingExpression, HashMap<String, String> environmentVariables, boolean useQuarkus) {
+        this(sharedProps, packageName, jarFile, routingExpression, environmentVariables, useQuarkus, false); // Default value for nativeImage
+    }
+
+    public InstrumentedFunctionProps(SharedProps sharedProps, String packageName, String jarFile,
+                                     String routingExpression, HashMap<String, String> environmentVariables, boolean useQuarkus,
+                                     boolean nativeImage) {
+        this(sharedProps, packageName, jarFile, routingExpression, environmentVariables, useQuarkus, nativeImage, null); // Default handler for the runtime
+    }
 }
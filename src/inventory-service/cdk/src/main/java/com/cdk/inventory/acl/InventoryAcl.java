@@ -23,7 +23,12 @@ import software.amazon.awscdk.services.iam.Effect;
 import software.amazon.awscdk.services.iam.Policy;
 import software.amazon.awscdk.services.iam.PolicyDocument;
 import software.amazon.awscdk.services.iam.PolicyStatement;
+import software.amazon.awscdk.services.lambda.FilterCriteria;
+import software.amazon.awscdk.services.lambda.FilterRule;
 import software.amazon.awscdk.services.lambda.IFunction;
+import software.amazon.awscdk.services.lambda.StartingPosition;
+import software.amazon.awscdk.services.lambda.eventsources.DynamoEventSource;
+import software.amazon.awscdk.services.lambda.eventsources.DynamoEventSourceProps;
 import software.amazon.awscdk.services.lambda.eventsources.SqsEventSource;
 import software.amazon.awscdk.services.lambda.eventsources.SqsEventSourceProps;
 import software.amazon.awscdk.services.sns.ITopic;
@@ -33,6 +38,8 @@ import software.constructs.Construct;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class InventoryAcl extends Construct {
     private ITopic newProductAddedTopic;
@@ -53,9 +60,11 @@ public class InventoryAcl extends Construct {
         productCreatedFunctionEnvVars.put("DD_TRACE_PROPAGATION_STYLE_EXTRACT", "none");
 
         String compiledJarFilePath = "../inventory-acl/target/function.zip";
+        // Set ACL_NATIVE_IMAGE=Y after building function.zip with the native profile (make build-acl-native).
+        boolean nativeImage = Objects.equals(System.getenv("ACL_NATIVE_IMAGE"), "Y");
 
         IFunction productCreatedEventHandlerFunction = new InstrumentedFunction(this, "InventoryAclFunction",
-                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleProductCreated", productCreatedFunctionEnvVars, true)).getFunction();
+                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleProductCreated", productCreatedFunctionEnvVars, true, nativeImage)).getFunction();
         newProductAddedTopic.grantPublish(productCreatedEventHandlerFunction);
         productCreatedEventHandlerFunction.addToRolePolicy(PolicyStatement.Builder.create()
                 .effect(Effect.ALLOW)
@@ -74,7 +83,7 @@ public class InventoryAcl extends Construct {
 
         ResilientQueue orderCreatedQueue = new ResilientQueue(this, "OrderCreatedEventQueue", new ResilientQueueProps("InventoryOrderCreatedEventQueue", props.sharedProps()));
 
-        IFunction orderCreatedFunction = createOrderCreatedFunction(props, compiledJarFilePath);
+        IFunction orderCreatedFunction = createOrderCreatedFunction(props, compiledJarFilePath, nativeImage);
 
         orderCreatedFunction.addEventSource(new SqsEventSource(orderCreatedQueue.getQueue(), SqsEventSourceProps.builder()
                 .reportBatchItemFailures(true)
@@ -102,7 +111,7 @@ public class InventoryAcl extends Construct {
         orderCompletedFunctionEnvVars.put("DD_TRACE_PROPAGATION_STYLE_EXTRACT", "none");
 
         IFunction orderCompletedFunction = new InstrumentedFunction(this, "OrderCompletedACLFunction",
-                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleOrderCompleted", orderCompletedFunctionEnvVars, true)).getFunction();
+                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleOrderCompleted", orderCompletedFunctionEnvVars, true, nativeImage)).getFunction();
 
         orderCompletedFunction.addEventSource(new SqsEventSource(orderCompletedQueue.getQueue(), SqsEventSourceProps.builder()
                 .reportBatchItemFailures(true)
@@ -120,10 +129,36 @@ public class InventoryAcl extends Construct {
         Rule orderCompletedRule = new OrderCompletedEvent(this, "InventoryOrderCompletedRule", props.sharedProps(),props.subscriberBus());
         orderCompletedRule.addTarget(new SqsQueue(orderCompletedQueue.getQueue()));
 
-        IFunction productCatalogueRefreshFunction = getProductCatalogueRefreshFunction(props, newProductAddedTopic, compiledJarFilePath);
+        HashMap<String, String> outboxRelayFunctionEnvVars = new HashMap<>(3);
+        outboxRelayFunctionEnvVars.put("EVENT_BUS_NAME", props.publisherBus().getEventBusName());
+        outboxRelayFunctionEnvVars.put("TABLE_NAME", props.inventoryTable().getTableName());
+        outboxRelayFunctionEnvVars.put("DD_TRACE_OTEL_ENABLED","true");
+
+        IFunction outboxRelayFunction = new InstrumentedFunction(this, "OutboxRelayFunction",
+                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleOutboxStream", outboxRelayFunctionEnvVars, true, nativeImage)).getFunction();
+
+        // Only new outbox items are relayed, every other change to the table is filtered out before the function is invoked.
+        outboxRelayFunction.addEventSource(new DynamoEventSource(props.inventoryTable(), DynamoEventSourceProps.builder()
+                .startingPosition(StartingPosition.TRIM_HORIZON)
+                .batchSize(100)
+                .maxBatchingWindow(Duration.seconds(1))
+                .reportBatchItemFailures(true)
+                .filters(List.of(FilterCriteria.filter(Map.of(
+                        "eventName", FilterRule.isEqual("INSERT"),
+                        "dynamodb", Map.of("NewImage", Map.of("Type", Map.of("S", FilterRule.isEqual("OutboxEvent"))))))))
+                .build()));
+        props.publisherBus().grantPutEventsTo(outboxRelayFunction);
+        outboxRelayFunction.addToRolePolicy(PolicyStatement.Builder.create()
+                .effect(Effect.ALLOW)
+                .resources(List.of("*"))
+                .actions(List.of("events:ListEventBuses"))
+                .build());
+        props.inventoryTable().grantReadWriteData(outboxRelayFunction);
+
+        IFunction productCatalogueRefreshFunction = getProductCatalogueRefreshFunction(props, newProductAddedTopic, compiledJarFilePath, nativeImage);
     }
 
-    private IFunction createOrderCreatedFunction(@NotNull InventoryAclProps props, String compiledJarFilePath) {
+    private IFunction createOrderCreatedFunction(@NotNull InventoryAclProps props, String compiledJarFilePath, boolean nativeImage) {
         HashMap<String, String> orderCreatedFunctionEnvVars = new HashMap<>(2);
         orderCreatedFunctionEnvVars.put("EVENT_BUS_NAME", props.publisherBus().getEventBusName());
         orderCreatedFunctionEnvVars.put("TABLE_NAME", props.inventoryTable().getTableName());
@@ -132,10 +167,10 @@ public class InventoryAcl extends Construct {
         orderCreatedFunctionEnvVars.put("DD_TRACE_PROPAGATION_STYLE_EXTRACT", "none");
 
         return new InstrumentedFunction(this, "OrderCreatedACLFunction",
-                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleOrderCreated", orderCreatedFunctionEnvVars, true)).getFunction();
+                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleOrderCreated", orderCreatedFunctionEnvVars, true, nativeImage)).getFunction();
     }
 
-    private IFunction getProductCatalogueRefreshFunction(@NotNull InventoryAclProps props, ITopic newProductAddedTopic, String compiledJarFilePath) {
+    private IFunction getProductCatalogueRefreshFunction(@NotNull InventoryAclProps props, ITopic newProductAddedTopic, String compiledJarFilePath, boolean nativeImage) {
         var productApiEndpointParameterName = String.format("/%s/ProductService/api-endpoint", props.sharedProps().env());
 
         HashMap<String, String> productCatalogueRefreshFunctionEnvVars = new HashMap<>(4);
@@ -148,11 +183,11 @@ public class InventoryAcl extends Construct {
         productCatalogueRefreshFunctionEnvVars.put("DD_TRACE_PROPAGATION_STYLE_EXTRACT", "none");
 
         IFunction productCatalogueRefreshFunction = new InstrumentedFunction(this, "ProductRefreshFunction",
-                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleProductCatalogueRefresh", productCatalogueRefreshFunctionEnvVars, true)).getFunction();
+                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.acl", compiledJarFilePath, "handleProductCatalogueRefresh", productCatalogueRefreshFunctionEnvVars, true, nativeImage)).getFunction();
         var everyOneMinuteScheduleRule = Rule.Builder.create(this, "EveryFiveMinutesScheduleRule")
                 .schedule(software.amazon.awscdk.services.events.Schedule.rate(Duration.minutes(5)))
                 .build();
-        props.inventoryTable().grantReadData(productCatalogueRefreshFunction);
+        props.inventoryTable().grantReadWriteData(productCatalogueRefreshFunction);
         newProductAddedTopic.grantPublish(productCatalogueRefreshFunction);
 
         everyOneMinuteScheduleRule.addTarget(new LambdaFunction(productCatalogueRefreshFunction));
@@ -27,6 +27,7 @@ import software.constructs.Construct;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class InventoryApiContainer extends Construct {
     private final ITable table;
@@ -48,6 +49,8 @@ public class InventoryApiContainer extends Construct {
                         .name("PK")
                         .type(AttributeType.STRING)
                         .build())
+                // Outbox events are relayed to EventBridge from the table's stream.
+                .stream(StreamViewType.NEW_IMAGE)
                 .removalPolicy(RemovalPolicy.DESTROY)
                 .build());
 
@@ -84,6 +87,11 @@ public class InventoryApiContainer extends Construct {
         dockerLabels.put("com.datadoghq.tags.service", props.serviceProps().getSharedProps().service());
         dockerLabels.put("com.datadoghq.tags.version", props.serviceProps().getSharedProps().version());
 
+        // Set API_NATIVE_IMAGE=Y to run the native image, once it has been pushed with the same tag and a -native suffix.
+        String imageTag = Objects.equals(System.getenv("API_NATIVE_IMAGE"), "Y")
+                ? String.format("%s-native", props.serviceProps().getSharedProps().version())
+                : props.serviceProps().getSharedProps().version();
+
         ApplicationLoadBalancedFargateService application = ApplicationLoadBalancedFargateService.Builder.create(this, "InventoryApiService")
                 .cluster(cluster)
                 .desiredCount(2)
@@ -93,7 +101,7 @@ public class InventoryApiContainer extends Construct {
                         .build())
                 .taskImageOptions(ApplicationLoadBalancedTaskImageOptions.builder()
                         .image(ContainerImage.fromRegistry(String.format(
-                                                        "public.ecr.aws/k4y9x2e7/dd-serverless-sample-app-inventory-java:%s", props.serviceProps().getSharedProps().version())))
+                                                        "public.ecr.aws/k4y9x2e7/dd-serverless-sample-app-inventory-java:%s", imageTag)))
                         .executionRole(executionRole)
                         .taskRole(taskRole)
                         .environment(environmentVariables)
@@ -159,8 +167,9 @@ public class InventoryApiContainer extends Construct {
                 .port("8080")
                 .path("/health")
                 .healthyHttpCodes("200-499")
-                .timeout(Duration.seconds(30))
-                .interval(Duration.seconds(60))
+                // Checked often enough that a task is put into service soon after /health reports its warm-up is done.
+                .timeout(Duration.seconds(5))
+                .interval(Duration.seconds(10))
                 .unhealthyThresholdCount(5)
                 .healthyThresholdCount(2)
                 .build());
@@ -8,14 +8,21 @@ package com.cdk.inventory.ordering;
 
 import com.cdk.constructs.InstrumentedFunction;
 import com.cdk.constructs.InstrumentedFunctionProps;
+import com.cdk.constructs.ResilientQueue;
+import com.cdk.constructs.ResilientQueueProps;
 import org.jetbrains.annotations.NotNull;
+import software.amazon.awscdk.Duration;
 import software.amazon.awscdk.RemovalPolicy;
 import software.amazon.awscdk.Tags;
 import software.amazon.awscdk.services.lambda.IFunction;
 import software.amazon.awscdk.services.lambda.eventsources.SnsEventSource;
 import software.amazon.awscdk.services.lambda.eventsources.SnsEventSourceProps;
+import software.amazon.awscdk.services.lambda.eventsources.SqsEventSource;
+import software.amazon.awscdk.services.lambda.eventsources.SqsEventSourceProps;
 import software.amazon.awscdk.services.logs.LogGroup;
 import software.amazon.awscdk.services.logs.LogGroupProps;
+import software.amazon.awscdk.services.sns.subscriptions.SqsSubscription;
+import software.amazon.awscdk.services.sns.subscriptions.SqsSubscriptionProps;
 import software.amazon.awscdk.services.sqs.Queue;
 import software.amazon.awscdk.services.sqs.QueueProps;
 import software.amazon.awscdk.services.ssm.StringParameter;
@@ -28,6 +35,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.Objects;
 
 public class InventoryOrderingService extends Construct {
     public InventoryOrderingService(@NotNull Construct scope, @NotNull String id, @NotNull InventoryOrderingServiceProps props) {
@@ -62,16 +70,36 @@ public class InventoryOrderingService extends Construct {
         functionEnvVars.put("ORDERING_SERVICE_WORKFLOW_ARN", workflow.getStateMachineArn());
         functionEnvVars.put("DD_TRACE_OTEL_ENABLED", "true");
 
+        // With ORDERING_AGGREGATION=Y new products are buffered in SQS and ordered in batches. SNS invokes the function
+        // with a single event, so the queue's batching window is what collects the products added over a few seconds.
+        boolean aggregate = Objects.equals(System.getenv("ORDERING_AGGREGATION"), "Y");
+
         String compiledJarFilePath = "../inventory-ordering-service/target/com.inventory.ordering-1.0.0-SNAPSHOT-aws.jar";
         IFunction handleProductAddedFunction = new InstrumentedFunction(this, "ProductAddedFunction",
-                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.ordering", compiledJarFilePath, "handleNewProductAdded", functionEnvVars)).getFunction();
+                new InstrumentedFunctionProps(props.sharedProps(), "com.inventory.ordering", compiledJarFilePath, "handleNewProductAdded", functionEnvVars,
+                        false, false, aggregate
+                                ? "com.inventory.ordering.NewProductAddedQueueHandler::handleRequest"
+                                : "com.inventory.ordering.NewProductAddedHandler::handleRequest")).getFunction();
         workflow.grantStartExecution(handleProductAddedFunction);
 
-        handleProductAddedFunction.addEventSource(new SnsEventSource(props.newProductAddedTopic(), SnsEventSourceProps.builder()
-                .deadLetterQueue(new Queue(this, "NewProductAddedEventSourceDLQ", QueueProps.builder()
-                        .queueName(String.format("NewProductAddedEventSourceDLQ-%s", props.sharedProps().env()))
-                        .build()))
-                .build()));
+        if (aggregate) {
+            ResilientQueue queue = new ResilientQueue(this, "NewProductAddedQueue", new ResilientQueueProps("InventoryNewProductAddedQueue", props.sharedProps()));
+            props.newProductAddedTopic().addSubscription(new SqsSubscription(queue.getQueue(), SqsSubscriptionProps.builder()
+                    .rawMessageDelivery(true)
+                    .build()));
+
+            handleProductAddedFunction.addEventSource(new SqsEventSource(queue.getQueue(), SqsEventSourceProps.builder()
+                    .reportBatchItemFailures(true)
+                    .maxBatchingWindow(Duration.seconds(10))
+                    .batchSize(100)
+                    .build()));
+        } else {
+            handleProductAddedFunction.addEventSource(new SnsEventSource(props.newProductAddedTopic(), SnsEventSourceProps.builder()
+                    .deadLetterQueue(new Queue(this, "NewProductAddedEventSourceDLQ", QueueProps.builder()
+                            .queueName(String.format("NewProductAddedEventSourceDLQ-%s", props.sharedProps().env()))
+                            .build()))
+                    .build()));
+        }
         
     }
 }
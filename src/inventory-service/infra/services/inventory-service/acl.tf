@@ -197,6 +197,50 @@ resource "aws_cloudwatch_event_target" "order_completed_sqs_target" {
   event_bus_name = aws_cloudwatch_event_bus.inventory_service_bus.name
 }
 
+module "outbox_relay_function" {
+  service_name   = "InventoryService"
+  package_name = "com.inventory.acl"
+  source         = "../../modules/lambda-function"
+  jar_file       = "../inventory-acl/target/function.zip"
+  function_name  = "InventoryOutboxRelay"
+  lambda_handler = "io.quarkus.amazon.lambda.runtime.QuarkusStreamHandler::handleRequest"
+  routing_expression = "handleOutboxStream"
+  environment_variables = {
+    TABLE_NAME : aws_dynamodb_table.inventory_api.name
+    EVENT_BUS_NAME: var.env == "dev" || var.env == "prod" ?  data.aws_ssm_parameter.shared_eb_name[0].value : aws_cloudwatch_event_bus.inventory_service_bus.name
+    DD_TRACE_OTEL_ENABLED: true
+  }
+  dd_api_key = var.dd_api_key
+  dd_site = var.dd_site
+  env = var.env
+  app_version = var.app_version
+  s3_bucket_name = aws_s3_bucket.lambda_code_storage_bucket.id
+  additional_policy_attachments = [
+    aws_iam_policy.dynamo_db_stream_read.arn,
+    aws_iam_policy.dynamo_db_read.arn,
+    aws_iam_policy.dynamo_db_write.arn,
+    aws_iam_policy.eb_publish.arn
+  ]
+}
+
+resource "aws_lambda_event_source_mapping" "outbox_stream_esm" {
+  event_source_arn                   = aws_dynamodb_table.inventory_api.stream_arn
+  function_name                      = module.outbox_relay_function.function_arn
+  starting_position                  = "TRIM_HORIZON"
+  batch_size                         = 100
+  maximum_batching_window_in_seconds = 1
+  function_response_types            = ["ReportBatchItemFailures"]
+
+  filter_criteria {
+    filter {
+      pattern = jsonencode({
+        eventName = ["INSERT"]
+        dynamodb  = { NewImage = { Type = { S = ["OutboxEvent"] } } }
+      })
+    }
+  }
+}
+
 module "product_cache_refresh_function" {
   service_name   = "InventoryService"
   package_name = "com.inventory.acl"
@@ -219,6 +263,7 @@ module "product_cache_refresh_function" {
   additional_policy_attachments = [
     aws_iam_policy.sns_publish.arn,
     aws_iam_policy.dynamo_db_read.arn,
+    aws_iam_policy.dynamo_db_write.arn,
     aws_iam_policy.allow_product_api_endpoint_read.arn,
   ]
 }
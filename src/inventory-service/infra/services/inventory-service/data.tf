@@ -25,6 +25,13 @@ data "aws_iam_policy_document" "dynamo_db_write" {
   }
 }
 
+data "aws_iam_policy_document" "dynamo_db_stream_read" {
+  statement {
+    actions   = ["dynamodb:DescribeStream", "dynamodb:GetRecords", "dynamodb:GetShardIterator", "dynamodb:ListStreams"]
+    resources = [aws_dynamodb_table.inventory_api.stream_arn]
+  }
+}
+
 data "aws_iam_policy_document" "eb_publish" {
   statement {
     actions   = ["events:PutEvents"]
@@ -9,6 +9,9 @@ resource "aws_dynamodb_table" "inventory_api" {
   name           = "InventoryOrdering-Inventory-${var.env}"
   billing_mode   = "PAY_PER_REQUEST"
   hash_key       = "PK"
+  # Outbox events are relayed to EventBridge from the table's stream.
+  stream_enabled   = true
+  stream_view_type = "NEW_IMAGE"
 
   attribute {
     name = "PK"
@@ -18,6 +18,12 @@ resource "aws_iam_policy" "dynamo_db_write" {
   policy = data.aws_iam_policy_document.dynamo_db_write.json
 }
 
+resource "aws_iam_policy" "dynamo_db_stream_read" {
+  name   = "TF_Inventory-ddb-stream-read-${var.env}"
+  path   = "/"
+  policy = data.aws_iam_policy_document.dynamo_db_stream_read.json
+}
+
 resource "aws_iam_policy" "eb_publish" {
   name   = "TF_Inventory-publish-${var.env}"
   path   = "/"
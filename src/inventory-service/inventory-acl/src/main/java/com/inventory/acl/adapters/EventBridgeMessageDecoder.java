@@ -0,0 +1,155 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl.adapters;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.inventory.core.adapters.CloudEventWrapper;
+import com.inventory.core.adapters.DatadogTelemetry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Decodes EventBridge messages in two steps. {@link #readHeader} streams over the message once, stopping as soon as
+ * it sees a detail type nobody handles, and keeps the CloudEvent's envelope and a buffer of the tokens of its data.
+ * {@link #bind} then binds the buffered data to its class without parsing the message text again, so messages that
+ * are skipped never pay for binding.
+ */
+@ApplicationScoped
+public class EventBridgeMessageDecoder {
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final ObjectReader datadogReader;
+    private final Map<Class<?>, ObjectReader> dataReaders = new ConcurrentHashMap<>();
+
+    @Inject
+    public EventBridgeMessageDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        this.datadogReader = objectMapper.readerFor(DatadogTelemetry.class);
+    }
+
+    /**
+     * @param accepts whether messages of a detail type are handled
+     * @return the header, or null if the message's detail type is not accepted
+     */
+    public EventBridgeMessageHeader readHeader(String body, Predicate<String> accepts) throws IOException {
+        String detailType = null;
+        String source = null;
+        Detail detail = new Detail();
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected an EventBridge message object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "detail-type" -> {
+                        detailType = parser.getValueAsString();
+                        if (!accepts.test(detailType)) {
+                            return null;
+                        }
+                    }
+                    case "source" -> source = parser.getValueAsString();
+                    case "detail" -> {
+                        if (value == JsonToken.START_OBJECT) {
+                            readDetail(parser, detail);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        if (detailType == null && !accepts.test(null)) {
+            return null;
+        }
+
+        return new EventBridgeMessageHeader(detailType, source, detail.id, detail.source, detail.type, detail.time,
+                detail.conversationId, detail.traceparent, detail.datadog, detail.data);
+    }
+
+    /**
+     * Binds the data of a message whose header has been read, and rebuilds the envelope around it with the
+     * CloudEvent fields the message carried.
+     */
+    public <T> EventBridgeMessageWrapper<T> bind(EventBridgeMessageHeader header, Class<T> dataType) throws IOException {
+        T data = null;
+        if (header.data() != null) {
+            ObjectReader reader = dataReaders.computeIfAbsent(dataType, objectMapper::readerFor);
+            try (JsonParser parser = header.data().asParser()) {
+                data = reader.readValue(parser);
+            }
+        }
+
+        CloudEventWrapper<T> detail = new CloudEventWrapper<>();
+        detail.setId(header.id());
+        detail.setSource(header.eventSource());
+        detail.setType(header.eventType());
+        detail.setTime(header.time());
+        detail.setConversationId(header.conversationId());
+        detail.setTraceparent(header.traceparent());
+        detail.setDatadog(header.datadog());
+        detail.setData(data);
+
+        return new EventBridgeMessageWrapper<>(header.source(), header.detailType(), detail);
+    }
+
+    private void readDetail(JsonParser parser, Detail detail) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> detail.id = parser.getValueAsString();
+                case "source" -> detail.source = parser.getValueAsString();
+                case "type" -> detail.type = parser.getValueAsString();
+                case "time" -> detail.time = parser.getValueAsString();
+                case "conversationId" -> detail.conversationId = parser.getValueAsString();
+                case "traceparent" -> detail.traceparent = parser.getValueAsString();
+                case "_datadog" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        detail.datadog = datadogReader.readValue(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "data" -> {
+                    if (value != JsonToken.VALUE_NULL) {
+                        // Copying the tokens as they are parsed means bind() never has to parse the text again.
+                        detail.data = TokenBuffer.asCopyOfValue(parser);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static final class Detail {
+        private String id;
+        private String source;
+        private String type;
+        private String time;
+        private String conversationId;
+        private String traceparent;
+        private DatadogTelemetry datadog;
+        private TokenBuffer data;
+    }
+}
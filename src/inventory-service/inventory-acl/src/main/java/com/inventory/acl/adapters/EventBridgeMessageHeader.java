@@ -0,0 +1,29 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl.adapters;
+
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.inventory.core.adapters.DatadogTelemetry;
+
+/**
+ * The parts of an EventBridge message needed to route it and set up tracing, read without binding the event data.
+ *
+ * @param detailType the EventBridge detail type, used to route the message
+ * @param source the EventBridge source
+ * @param id the ID of the CloudEvent in the detail
+ * @param eventSource the source of the CloudEvent
+ * @param eventType the type of the CloudEvent
+ * @param time when the CloudEvent occurred
+ * @param conversationId the conversation the CloudEvent belongs to
+ * @param traceparent the W3C traceparent of the CloudEvent
+ * @param datadog the Datadog trace and data streams context of the CloudEvent
+ * @param data the tokens of the CloudEvent's data, or null if the event has no data
+ */
+public record EventBridgeMessageHeader(String detailType, String source, String id, String eventSource,
+                                       String eventType, String time, String conversationId, String traceparent,
+                                       DatadogTelemetry datadog, TokenBuffer data) {
+}
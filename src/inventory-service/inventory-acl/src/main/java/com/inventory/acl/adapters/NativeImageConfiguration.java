@@ -0,0 +1,53 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl.adapters;
+
+import com.inventory.acl.core.events.external.OrderCompletedEventV1;
+import com.inventory.acl.core.events.external.OrderCreatedEventV1;
+import com.inventory.acl.core.events.external.ProductCreatedEventV1;
+import com.inventory.core.HandlerResponse;
+import com.inventory.core.InventoryStockUpdatedEvent;
+import com.inventory.core.NewProductAddedEvent;
+import com.inventory.core.ProductOutOfStockEventV1;
+import com.inventory.core.StockReservationFailedEventV1;
+import com.inventory.core.StockReservedEventV1;
+import com.inventory.core.adapters.CloudEventWrapper;
+import com.inventory.core.adapters.DatadogTelemetry;
+import com.inventory.core.adapters.ProductCatalogueItem;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registers the classes the ACL functions bind with Jackson for reflection in the native image. They live in other
+ * modules, or are only reached through a {@code Class} or type reference, so the native build cannot find them by
+ * itself. Logback configures its appender, layout and formatter from logback.xml by class name, so those are
+ * registered as well.
+ */
+@RegisterForReflection(
+        targets = {
+                EventBridgeMessageWrapper.class,
+                CloudEventWrapper.class,
+                DatadogTelemetry.class,
+                OrderCreatedEventV1.class,
+                OrderCompletedEventV1.class,
+                ProductCreatedEventV1.class,
+                InventoryStockUpdatedEvent.class,
+                NewProductAddedEvent.class,
+                ProductOutOfStockEventV1.class,
+                StockReservationFailedEventV1.class,
+                StockReservedEventV1.class,
+                ProductCatalogueItem.class,
+                HandlerResponse.class
+        },
+        classNames = {
+                "ch.qos.logback.core.ConsoleAppender",
+                "ch.qos.logback.contrib.json.classic.JsonLayout",
+                "ch.qos.logback.contrib.jackson.JacksonJsonFormatter"
+        })
+public final class NativeImageConfiguration {
+    private NativeImageConfiguration() {
+    }
+}
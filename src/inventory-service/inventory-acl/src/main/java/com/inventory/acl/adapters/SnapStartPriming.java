@@ -0,0 +1,342 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl.adapters;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.inventory.acl.core.events.external.OrderCompletedEventV1;
+import com.inventory.acl.core.events.external.OrderCreatedEventV1;
+import com.inventory.acl.core.events.external.ProductCreatedEventV1;
+import com.inventory.core.InventoryStockUpdatedEvent;
+import com.inventory.core.NewProductAddedEvent;
+import com.inventory.core.ParameterCache;
+import com.inventory.core.ProductOutOfStockEventV1;
+import com.inventory.core.StockReservationFailedEventV1;
+import com.inventory.core.StockReservedEventV1;
+import com.inventory.core.adapters.CloudEventFactory;
+import com.inventory.core.adapters.CloudEventSerializer;
+import com.inventory.core.adapters.CloudEventWrapper;
+import com.inventory.core.config.AppConfig;
+import com.inventory.core.utils.TraceUtils;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.awscore.client.builder.AwsSyncClientBuilder;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParametersRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primes the ACL functions for SnapStart. Before the snapshot is taken it runs the hot paths once, so the classes,
+ * Jackson serializers and SDK marshallers they need are already loaded in every environment restored from it:
+ * <ul>
+ *     <li>every event the functions receive is read from an SQS payload, routed and bound;</li>
+ *     <li>every event they publish is serialised;</li>
+ *     <li>each SDK request they send is built, marshalled and signed by a throwaway client, which stops it before it
+ *     is transmitted.</li>
+ * </ul>
+ * After a restore it resolves credentials again, fetches the cached SSM parameters again, since the ones preloaded at
+ * startup are in the snapshot and may be out of date, and opens a connection to DynamoDB. Handlers that write their
+ * own response call {@link #responseWritten} once it is written, and the first call after a restore is reported as a
+ * {@code snapstart.restore} span running from the restore to that response, tagged with
+ * {@code snapstart.restore_to_first_response_ms}.
+ */
+@ApplicationScoped
+public class SnapStartPriming implements Resource {
+    private static final URI STUB_ENDPOINT = URI.create("http://localhost");
+    private static final String STUB_ARN = "arn:aws:sns:us-east-1:000000000000:priming";
+
+    private final ObjectMapper objectMapper;
+    private final SqsEventReader sqsEventReader;
+    private final EventBridgeMessageDecoder decoder;
+    private final DynamoDbClient dynamoDbClient;
+    private final ParameterCache parameterCache;
+    private final AppConfig appConfig;
+    private final Logger logger = LoggerFactory.getLogger(SnapStartPriming.class);
+    private volatile long restoredAtMillis = -1;
+    private volatile long lastRestoreToFirstResponseMillis = -1;
+
+    @Inject
+    public SnapStartPriming(ObjectMapper objectMapper, SqsEventReader sqsEventReader, EventBridgeMessageDecoder decoder,
+                            DynamoDbClient dynamoDbClient, ParameterCache parameterCache, AppConfig appConfig) {
+        this.objectMapper = objectMapper;
+        this.sqsEventReader = sqsEventReader;
+        this.decoder = decoder;
+        this.dynamoDbClient = dynamoDbClient;
+        this.parameterCache = parameterCache;
+        this.appConfig = appConfig;
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (appConfig.isSnapStartPrimingEnabled()) {
+            Core.getGlobalContext().register(this);
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        long start = System.currentTimeMillis();
+        int failed = prime();
+        logger.info("Primed for the snapshot in {}ms, {} steps failed", System.currentTimeMillis() - start, failed);
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        restoredAtMillis = System.currentTimeMillis();
+        // Every environment restored from this snapshot starts with the same event ID generators.
+        CloudEventFactory.reseedAfterRestore();
+
+        try {
+            DefaultCredentialsProvider.create().resolveCredentials();
+        } catch (Exception e) {
+            logger.warn("Could not resolve credentials after restore", e);
+        }
+
+        // Parameters are preloaded through the real SSM client at startup, before the snapshot is taken.
+        parameterCache.refresh();
+
+        if (appConfig.isSnapStartRestoreWarmConnections()) {
+            try {
+                dynamoDbClient.describeTable(request -> request.tableName(appConfig.getTableName()));
+            } catch (Exception e) {
+                // Even a failed request leaves a connection in the pool, which is all this is for.
+                logger.debug("Connection warm-up request failed", e);
+            }
+        }
+
+        logger.info("Restored in {}ms", System.currentTimeMillis() - restoredAtMillis);
+    }
+
+    /**
+     * @return how many priming steps failed; a failed step is logged and does not stop the others
+     */
+    int prime() {
+        int failed = 0;
+        failed += step("event decoding", this::primeEventDecoding);
+        failed += step("event serialisation", this::primeEventSerialization);
+        failed += step("DynamoDB requests", this::primeDynamoDbRequests);
+        failed += step("EventBridge requests", this::primeEventBridgeRequests);
+        failed += step("SNS requests", this::primeSnsRequests);
+        failed += step("SSM requests", this::primeSsmRequests);
+        return failed;
+    }
+
+    /**
+     * Called by a handler once it has written its response.
+     */
+    public void responseWritten() {
+        long restoredAt = restoredAtMillis;
+        if (restoredAt >= 0) {
+            restoredAtMillis = -1;
+            long elapsed = System.currentTimeMillis() - restoredAt;
+            lastRestoreToFirstResponseMillis = elapsed;
+            GlobalOpenTelemetry.getTracer("com.inventory.acl.adapters.SnapStartPriming")
+                    .spanBuilder("snapstart.restore")
+                    .setStartTimestamp(restoredAt, TimeUnit.MILLISECONDS)
+                    .setAttribute("snapstart.restore_to_first_response_ms", elapsed)
+                    .startSpan()
+                    .end();
+            logger.info("First response {}ms after restore", elapsed);
+        }
+    }
+
+    long getLastRestoreToFirstResponseMillis() {
+        return lastRestoreToFirstResponseMillis;
+    }
+
+    private int step(String name, PrimingStep step) {
+        try {
+            step.run();
+            return 0;
+        } catch (Exception | LinkageError e) {
+            logger.warn("Could not prime {}", name, e);
+            return 1;
+        }
+    }
+
+    private void primeEventDecoding() throws Exception {
+        OrderCreatedEventV1 orderCreated = new OrderCreatedEventV1();
+        orderCreated.setOrderNumber("priming");
+        orderCreated.setProducts(List.of("priming"));
+        OrderCompletedEventV1 orderCompleted = new OrderCompletedEventV1();
+        orderCompleted.setOrderNumber("priming");
+        Map<String, Object> receivedEvents = Map.of(
+                "orders.orderCreated.v1", orderCreated,
+                "orders.orderCompleted.v1", orderCompleted,
+                "product.productCreated.v1", new ProductCreatedEventV1("priming"));
+
+        for (Map.Entry<String, Object> received : receivedEvents.entrySet()) {
+            String detailType = received.getKey();
+            CloudEventWrapper<Object> event = CloudEventFactory.shared().create(detailType, received.getValue());
+            String body = objectMapper.writeValueAsString(new EventBridgeMessageWrapper<>("priming", detailType, event));
+
+            ObjectNode sqsEvent = objectMapper.createObjectNode();
+            sqsEvent.putArray("Records").addObject()
+                    .put("messageId", "priming")
+                    .put("body", body);
+
+            for (SqsEventReader.SqsMessage message : sqsEventReader.read(new ByteArrayInputStream(objectMapper.writeValueAsBytes(sqsEvent)))) {
+                EventBridgeMessageHeader header = decoder.readHeader(message.body(), detailType::equals);
+                EventBridgeMessageWrapper<?> evtWrapper = decoder.bind(header, received.getValue().getClass());
+                TraceUtils.extractSpanContextFromMessage(evtWrapper.getDetail(), logger);
+            }
+        }
+
+        sqsEventReader.writeResponse(new ByteArrayOutputStream(),
+                List.of(SQSBatchResponse.BatchItemFailure.builder().withItemIdentifier("priming").build()));
+    }
+
+    private void primeEventSerialization() throws Exception {
+        CloudEventSerializer serializer = new CloudEventSerializer(objectMapper);
+        CloudEventFactory cloudEvents = CloudEventFactory.shared();
+
+        serializer.serialize(cloudEvents.create("inventory.stockUpdated.v1", new InventoryStockUpdatedEvent("priming", 1.0, 0.0)));
+        serializer.serialize(cloudEvents.create("inventory.stockReserved.v1", new StockReservedEventV1("priming", "priming")));
+        serializer.serialize(cloudEvents.create("inventory.stockReservationFailed.v1", new StockReservationFailedEventV1("priming", "priming")));
+        serializer.serialize(cloudEvents.create("inventory.outOfStock.v1", new ProductOutOfStockEventV1("priming")));
+        objectMapper.writeValueAsString(new NewProductAddedEvent("priming"));
+    }
+
+    private void primeDynamoDbRequests() {
+        Map<String, AttributeValue> key = Map.of("PK", AttributeValue.fromS("priming"));
+        Map<String, AttributeValue> item = Map.of(
+                "PK", AttributeValue.fromS("priming"),
+                "stockLevel", AttributeValue.fromN("0"),
+                "version", AttributeValue.fromN("1"));
+
+        try (DynamoDbClient client = stubbedClient(DynamoDbClient.builder())) {
+            sendStubbed(() -> client.getItem(request -> request.tableName("priming").key(key)));
+            sendStubbed(() -> client.putItem(request -> request.tableName("priming").item(item)
+                    .conditionExpression("attribute_not_exists(PK)")));
+            sendStubbed(() -> client.transactWriteItems(request -> request.transactItems(TransactWriteItem.builder()
+                    .put(Put.builder().tableName("priming").item(item).build())
+                    .build())));
+            sendStubbed(() -> client.batchGetItem(request -> request.requestItems(Map.of("priming",
+                    KeysAndAttributes.builder().keys(List.of(key)).build()))));
+            sendStubbed(() -> client.batchWriteItem(request -> request.requestItems(Map.of("priming",
+                    List.of(WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build())))));
+        }
+    }
+
+    private void primeEventBridgeRequests() {
+        try (EventBridgeClient client = stubbedClient(EventBridgeClient.builder())) {
+            sendStubbed(() -> client.putEvents(PutEventsRequest.builder()
+                    .entries(PutEventsRequestEntry.builder()
+                            .eventBusName("priming")
+                            .source("priming")
+                            .detailType("priming")
+                            .detail("{}")
+                            .build())
+                    .build()));
+        }
+    }
+
+    private void primeSnsRequests() {
+        try (SnsClient client = stubbedClient(SnsClient.builder())) {
+            sendStubbed(() -> client.publish(request -> request.topicArn(STUB_ARN).message("{}")));
+            sendStubbed(() -> client.publishBatch(request -> request.topicArn(STUB_ARN)
+                    .publishBatchRequestEntries(PublishBatchRequestEntry.builder().id("priming").message("{}").build())));
+        }
+    }
+
+    private void primeSsmRequests() {
+        try (SsmClient client = stubbedClient(SsmClient.builder())) {
+            sendStubbed(() -> client.getParameters(GetParametersRequest.builder().names("priming").withDecryption(true).build()));
+        }
+    }
+
+    /**
+     * Builds a client like the ones the functions use, except that it has fixed credentials and stops every request
+     * after it has been signed, so nothing leaves the process.
+     */
+    static <B extends AwsClientBuilder<B, C> & AwsSyncClientBuilder<B, C>, C extends SdkClient> C stubbedClient(B builder) {
+        return builder
+                .region(Region.US_EAST_1)
+                .endpointOverride(STUB_ENDPOINT)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("priming", "priming")))
+                .httpClientBuilder(AwsCrtHttpClient.builder().connectionTimeout(Duration.ofSeconds(1)))
+                .overrideConfiguration(configuration -> configuration
+                        .retryStrategy(AwsRetryStrategy.doNotRetry())
+                        .addExecutionInterceptor(new StopBeforeTransmission()))
+                .build();
+    }
+
+    /**
+     * Runs a request on a {@link #stubbedClient}.
+     *
+     * @return true if the request got as far as being transmitted
+     */
+    static boolean sendStubbed(Runnable request) {
+        try {
+            request.run();
+            return false;
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof PrimingComplete) {
+                    return true;
+                }
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PrimingStep {
+        void run() throws Exception;
+    }
+
+    private static final class StopBeforeTransmission implements ExecutionInterceptor {
+        @Override
+        public void beforeTransmission(software.amazon.awssdk.core.interceptor.Context.BeforeTransmission context,
+                                       ExecutionAttributes executionAttributes) {
+            throw new PrimingComplete();
+        }
+    }
+
+    private static final class PrimingComplete extends RuntimeException {
+        PrimingComplete() {
+            super("Request stopped before transmission", null, false, false);
+        }
+    }
+}
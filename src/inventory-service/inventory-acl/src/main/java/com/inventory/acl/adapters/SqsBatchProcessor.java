@@ -0,0 +1,221 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl.adapters;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.inventory.core.adapters.Carrier;
+import com.inventory.core.adapters.CloudEventWrapper;
+import com.inventory.core.adapters.DatadogTelemetry;
+import com.inventory.core.config.AppConfig;
+import com.inventory.core.utils.TraceUtils;
+import datadog.trace.api.experimental.DataStreamsCheckpointer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.InjectableContext;
+import io.quarkus.arc.ManagedContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processes a batch of EventBridge events delivered through SQS. Messages are grouped by a key, such as the order
+ * number, and each group runs on its own virtual thread, so messages for the same key are handled one after another in
+ * the order they arrived while unrelated messages run in parallel. The virtual threads share the invocation's request
+ * context, so what they publish is flushed with the invocation. Once one message in a group fails, the rest of that
+ * group is reported as failed without being processed so the retry sees them in order. When the invocation is close to
+ * timing out, messages that have not started are reported as failed and left for the retry.
+ * <p>
+ * Each message is routed on its detail type before its data is bound. Messages of a type the {@link SqsEventRoutes}
+ * do not handle are skipped and not retried, but each one is logged as a warning, added to the batch span as an
+ * event and counted in its {@code messaging.batch.unrouted_count} tag.
+ */
+@ApplicationScoped
+public class SqsBatchProcessor {
+    /**
+     * Handles one decoded message, inside its process span.
+     */
+    @FunctionalInterface
+    public interface MessageHandler<T> {
+        /**
+         * @return false if the message should be retried
+         */
+        boolean handle(CloudEventWrapper<T> event, Span processSpan) throws Exception;
+    }
+
+    private record Decoded<T>(SqsEventReader.SqsMessage message, SqsEventRoutes.Route<T> route,
+                              EventBridgeMessageWrapper<T> evtWrapper) {
+        String key() {
+            T data = evtWrapper.getDetail().getData();
+            return data == null ? null : route.keyOf().apply(data);
+        }
+    }
+
+    private static final AttributeKey<String> MESSAGING_ID = AttributeKey.stringKey("messaging.id");
+
+    private final EventBridgeMessageDecoder decoder;
+    private final AppConfig appConfig;
+    private final Logger logger = LoggerFactory.getLogger(SqsBatchProcessor.class);
+
+    @Inject
+    public SqsBatchProcessor(EventBridgeMessageDecoder decoder, AppConfig appConfig) {
+        this.decoder = decoder;
+        this.appConfig = appConfig;
+    }
+
+    /**
+     * @return a failure for every message that was not processed successfully, in the order they were received
+     */
+    public List<SQSBatchResponse.BatchItemFailure> process(List<SqsEventReader.SqsMessage> messages, Context context, Tracer tracer,
+                                                           Span batchSpan, SqsEventRoutes routes) {
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        Map<String, List<Decoded<?>>> groups = new LinkedHashMap<>();
+        int unrouted = 0;
+
+        for (SqsEventReader.SqsMessage message : messages) {
+            try {
+                EventBridgeMessageHeader header = decoder.readHeader(message.body(), routes::accepts);
+                if (header == null) {
+                    // The queue's subscription should only deliver routed types, so this points at a misconfiguration.
+                    logger.warn("No route for message {}, skipping it", message.messageId());
+                    batchSpan.addEvent("unrouted message", Attributes.of(MESSAGING_ID, message.messageId()));
+                    unrouted++;
+                    continue;
+                }
+                Decoded<?> decoded = bind(message, header, routes.get(header.detailType()));
+                String key = decoded.key();
+                groups.computeIfAbsent(key == null ? "message#" + message.messageId() : key, k -> new ArrayList<>())
+                        .add(decoded);
+            } catch (Exception exception) {
+                failed.add(message.messageId());
+                logger.error("An exception occurred!", exception);
+                batchSpan.recordException(exception);
+            }
+        }
+
+        var parentContext = io.opentelemetry.context.Context.current().with(Span.wrap(batchSpan.getSpanContext()));
+        long minRemainingMillis = appConfig.getSqsBatchMinRemainingMs();
+        AtomicInteger skipped = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<Decoded<?>> group : groups.values()) {
+                executor.execute(withInvocationContext(() -> {
+                    boolean blocked = false;
+                    for (Decoded<?> decoded : group) {
+                        if (!blocked && remainingTimeMillis(context) < minRemainingMillis) {
+                            skipped.incrementAndGet();
+                            blocked = true;
+                        }
+                        if (blocked || !processMessage(tracer, parentContext, batchSpan, decoded)) {
+                            failed.add(decoded.message().messageId());
+                            blocked = true;
+                        }
+                    }
+                }));
+            }
+        }
+
+        if (skipped.get() > 0) {
+            logger.warn("Invocation is close to timing out, left {} message groups for retry", skipped.get());
+        }
+        batchSpan.setAttribute("messaging.batch.key_count", groups.size());
+        batchSpan.setAttribute("messaging.batch.unrouted_count", unrouted);
+        batchSpan.setAttribute("messaging.batch.failed_count", failed.size());
+
+        List<SQSBatchResponse.BatchItemFailure> batchItemFailures = new ArrayList<>();
+        for (SqsEventReader.SqsMessage message : messages) {
+            if (failed.contains(message.messageId())) {
+                batchItemFailures.add(SQSBatchResponse.BatchItemFailure.builder().withItemIdentifier(message.messageId()).build());
+            }
+        }
+        return batchItemFailures;
+    }
+
+    private <T> Decoded<T> bind(SqsEventReader.SqsMessage message, EventBridgeMessageHeader header,
+                                SqsEventRoutes.Route<T> route) throws IOException {
+        return new Decoded<>(message, route, decoder.bind(header, route.dataType()));
+    }
+
+    private <T> boolean processMessage(Tracer tracer, io.opentelemetry.context.Context parentContext, Span batchSpan,
+                                       Decoded<T> decoded) {
+        EventBridgeMessageWrapper<T> evtWrapper = decoded.evtWrapper();
+        var processSpanBuilder = tracer.spanBuilder(String.format("process %s", evtWrapper.getDetailType()))
+                .setParent(parentContext);
+
+        var upstreamContext = TraceUtils.extractSpanContextFromMessage(evtWrapper.getDetail(), logger);
+
+        if (upstreamContext != null) {
+            logger.info("Adding link to upstream context: TraceId: '{}'. SpanId: '{}'", upstreamContext.getTraceId(), upstreamContext.getSpanId());
+            processSpanBuilder.addLink(upstreamContext);
+        }
+
+        Span processSpan = processSpanBuilder.startSpan();
+
+        try (Scope scope = processSpan.makeCurrent()) {
+            DatadogTelemetry datadog = evtWrapper.getDetail().getDatadog() != null
+                    ? evtWrapper.getDetail().getDatadog() : new DatadogTelemetry();
+            DataStreamsCheckpointer.get().setConsumeCheckpoint("eventbridge", evtWrapper.getDetailType(), new Carrier(datadog));
+            processSpan.setAttribute("messaging.id", decoded.message().messageId());
+            processSpan.setAttribute("messaging.operation.type", "process");
+            processSpan.setAttribute("messaging.system", "aws_sqs");
+
+            return decoded.route().handler().handle(evtWrapper.getDetail(), processSpan);
+        } catch (Exception | Error exception) {
+            logger.error("An exception occurred!", exception);
+            processSpan.recordException(exception);
+            processSpan.setStatus(StatusCode.ERROR);
+            batchSpan.recordException(exception);
+            return false;
+        } finally {
+            processSpan.end();
+        }
+    }
+
+    /**
+     * Runs the work in the invocation's request context, if there is one, so the events a worker publishes are
+     * buffered with the invocation's own and sent by the flush at the end of the invocation.
+     */
+    private static Runnable withInvocationContext(Runnable work) {
+        ArcContainer container = Arc.container();
+        ManagedContext requestContext = container == null ? null : container.requestContext();
+        InjectableContext.ContextState state = requestContext == null ? null : requestContext.getStateIfActive();
+        if (state == null) {
+            return work;
+        }
+        return () -> {
+            requestContext.activate(state);
+            try {
+                work.run();
+            } finally {
+                // Only detaches the context from this thread; the invocation still ends it.
+                requestContext.deactivate();
+            }
+        };
+    }
+
+    private static long remainingTimeMillis(Context context) {
+        return context == null ? Long.MAX_VALUE : context.getRemainingTimeInMillis();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl.adapters;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an SQS invocation payload for a {@code RequestStreamHandler} in a single streaming pass. Only each record's
+ * message ID and body are kept; everything else SQS sends (attributes, receipt handle, MD5) is skipped rather than
+ * bound to {@code SQSEvent} objects that are never read.
+ */
+@ApplicationScoped
+public class SqsEventReader {
+    /**
+     * One SQS record, reduced to the parts the handlers use.
+     */
+    public record SqsMessage(String messageId, String body) {
+    }
+
+    private final JsonFactory jsonFactory;
+
+    @Inject
+    public SqsEventReader(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public List<SqsMessage> read(InputStream inputStream) throws IOException {
+        List<SqsMessage> messages = new ArrayList<>();
+
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected an SQS event object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("Records".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        messages.add(readMessage(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return messages;
+    }
+
+    public void writeResponse(OutputStream outputStream, List<SQSBatchResponse.BatchItemFailure> batchItemFailures) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            // The runtime owns the stream; closing the generator should only flush it.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("batchItemFailures");
+            for (SQSBatchResponse.BatchItemFailure failure : batchItemFailures) {
+                generator.writeStartObject();
+                generator.writeStringField("itemIdentifier", failure.getItemIdentifier());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static SqsMessage readMessage(JsonParser parser) throws IOException {
+        String messageId = null;
+        String body = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "messageId" -> messageId = parser.getValueAsString();
+                case "body" -> body = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new SqsMessage(messageId, body);
+    }
+}
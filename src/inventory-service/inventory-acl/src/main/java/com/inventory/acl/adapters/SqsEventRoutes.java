@@ -0,0 +1,40 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl.adapters;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Maps EventBridge detail types to the class their data binds to, the key messages are ordered by, and the handler
+ * that processes them. One consumer can register several detail types; messages of any other type are skipped.
+ * Routes are registered once, when the consumer is created, and only read after that.
+ */
+public final class SqsEventRoutes {
+    record Route<T>(Class<T> dataType, Function<T, String> keyOf, SqsBatchProcessor.MessageHandler<T> handler) {
+    }
+
+    private final Map<String, Route<?>> routes = new HashMap<>();
+
+    /**
+     * @param keyOf the key messages are ordered by; messages without one are processed independently
+     */
+    public <T> SqsEventRoutes on(String detailType, Class<T> dataType, Function<T, String> keyOf,
+                                 SqsBatchProcessor.MessageHandler<T> handler) {
+        routes.put(detailType, new Route<>(dataType, keyOf, handler));
+        return this;
+    }
+
+    boolean accepts(String detailType) {
+        return routes.containsKey(detailType);
+    }
+
+    Route<?> get(String detailType) {
+        return routes.get(detailType);
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventory.acl.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.inventory.core.FlushCoordinator;
+import com.inventory.core.OutboxEvent;
+import com.inventory.core.OutboxRelay;
+import com.inventory.core.adapters.OutboxItems;
+import com.inventory.core.utils.TraceUtils;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relays outbox events written alongside inventory changes, triggered by the inventory table's DynamoDB stream.
+ */
+@Named("handleOutboxStream")
+public class handleOutboxStreamLambda implements RequestHandler<DynamodbEvent, StreamsEventResponse> {
+    @Inject
+    OutboxRelay outboxRelay;
+    @Inject
+    FlushCoordinator flushCoordinator;
+    Logger logger = LoggerFactory.getLogger(handleOutboxStreamLambda.class);
+
+    @Override
+    public StreamsEventResponse handleRequest(DynamodbEvent dynamodbEvent, Context context) {
+        Tracer tracer = GlobalOpenTelemetry
+                .getTracer("com.inventory.acl.lambda.handleOutboxStreamLambda");
+        Span span = TraceUtils.startChildSpanFromLambdaInvoke(tracer);
+        List<StreamsEventResponse.BatchItemFailure> batchItemFailures = new ArrayList<>();
+
+        try {
+            span.setAttribute("messaging.batch.message_count", dynamodbEvent.getRecords().size());
+            span.setAttribute("messaging.operation.type", "receive");
+            span.setAttribute("messaging.system", "aws_dynamodb_streams");
+
+            // Keyed by event ID, so a failed event can be mapped back to the stream record it came from.
+            Map<String, String> sequenceNumbers = new HashMap<>();
+            List<OutboxEvent> events = new ArrayList<>();
+
+            for (DynamodbEvent.DynamodbStreamRecord record : dynamodbEvent.getRecords()) {
+                if (!"INSERT".equals(record.getEventName())) {
+                    continue;
+                }
+                Map<String, AttributeValue> image = record.getDynamodb().getNewImage();
+                if (image == null || !image.containsKey(OutboxItems.TYPE_KEY) || !OutboxItems.TYPE.equals(image.get(OutboxItems.TYPE_KEY).getS())) {
+                    continue;
+                }
+
+                var event = new OutboxEvent(
+                        image.get(OutboxItems.EVENT_ID_KEY).getS(),
+                        image.get(OutboxItems.DETAIL_TYPE_KEY).getS(),
+                        image.get(OutboxItems.DETAIL_KEY).getS());
+                events.add(event);
+                sequenceNumbers.put(event.id(), record.getDynamodb().getSequenceNumber());
+            }
+
+            if (!events.isEmpty()) {
+                List<OutboxEvent> failed = outboxRelay.relay(events);
+                span.setAttribute("outbox.relayedCount", events.size() - failed.size());
+
+                if (!failed.isEmpty()) {
+                    logger.error("{} of {} outbox events could not be published", failed.size(), events.size());
+                    span.setStatus(StatusCode.ERROR);
+                    failed.forEach(event -> batchItemFailures.add(StreamsEventResponse.BatchItemFailure.builder()
+                            .withItemIdentifier(sequenceNumbers.get(event.id()))
+                            .build()));
+                }
+            }
+        } catch (Exception | Error exception) {
+            logger.error("An exception occurred!", exception);
+            span.recordException(exception);
+            span.setStatus(StatusCode.ERROR);
+            throw exception;
+        } finally {
+            flushCoordinator.flush(context.getRemainingTimeInMillis());
+            span.end();
+        }
+
+        return StreamsEventResponse.builder()
+                .withBatchItemFailures(batchItemFailures)
+                .build();
+    }
+}
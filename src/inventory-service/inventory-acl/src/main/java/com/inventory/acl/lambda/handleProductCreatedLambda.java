@@ -1,21 +1,17 @@
 package com.inventory.acl.lambda;
 
 import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
-import com.amazonaws.services.lambda.runtime.events.SQSEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.inventory.acl.adapters.EventBridgeMessageWrapper;
+import com.inventory.acl.adapters.SnapStartPriming;
+import com.inventory.acl.adapters.SqsBatchProcessor;
+import com.inventory.acl.adapters.SqsEventReader;
+import com.inventory.acl.adapters.SqsEventRoutes;
 import com.inventory.acl.core.ExternalEventHandler;
 import com.inventory.acl.core.events.external.ProductCreatedEventV1;
-import com.inventory.core.DataAccessException;
-import com.inventory.core.InventoryItemNotFoundException;
-import com.inventory.core.adapters.Carrier;
-import com.inventory.core.adapters.DatadogTelemetry;
+import com.inventory.core.FlushCoordinator;
+import com.inventory.core.adapters.CloudEventWrapper;
 import com.inventory.core.utils.TraceUtils;
-import datadog.trace.api.experimental.DataStreamsCheckpointer;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.trace.*;
 import jakarta.inject.Inject;
@@ -23,72 +19,61 @@ import jakarta.inject.Named;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 @Named("handleProductCreated")
-public class handleProductCreatedLambda implements RequestHandler<SQSEvent, SQSBatchResponse> {
-    @Inject
-    ObjectMapper objectMapper;
+public class handleProductCreatedLambda implements RequestStreamHandler {
     Logger logger = LoggerFactory.getLogger(handleProductCreatedLambda.class);
     @Inject
     ExternalEventHandler eventHandler;
+    @Inject
+    SqsEventReader eventReader;
+    @Inject
+    SqsBatchProcessor batchProcessor;
+    @Inject
+    FlushCoordinator flushCoordinator;
+    @Inject
+    SnapStartPriming snapStartPriming;
+
+    private final SqsEventRoutes routes = new SqsEventRoutes()
+            .on("product.productCreated.v1", ProductCreatedEventV1.class, ProductCreatedEventV1::getProductId, this::handleProductCreated);
 
     @Override
-    public SQSBatchResponse handleRequest(SQSEvent sqsEvent, Context context) {
+    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) throws IOException {
         Tracer tracer = GlobalOpenTelemetry
                 .getTracer("com.inventory.acl.lambda.handleProductCreatedLambda");
         Span span = TraceUtils.startChildSpanFromLambdaInvoke(tracer);
-        span.setAttribute("messaging.batch.message_count", sqsEvent.getRecords().size());
-        span.setAttribute("messaging.operation.type", "receive");
-        span.setAttribute("messaging.system", "aws_sqs");
-
-        List<SQSBatchResponse.BatchItemFailure> batchItemFailures = new ArrayList<>();
-
-        for (SQSEvent.SQSMessage message : sqsEvent.getRecords()) {
-            Span processSpan = null;
-
-            try {
-                TypeReference<EventBridgeMessageWrapper<ProductCreatedEventV1>> typeRef = new TypeReference<EventBridgeMessageWrapper<ProductCreatedEventV1>>() {};
-                EventBridgeMessageWrapper<ProductCreatedEventV1> evtWrapper = objectMapper.readValue(message.getBody(), typeRef);
-
-                var processSpanBuilder = tracer.spanBuilder(String.format("process %s", evtWrapper.getDetailType()))
-                        .setParent(io.opentelemetry.context.Context.current().with(Span.wrap(span.getSpanContext())));
-
-                var upstreamContext = TraceUtils.extractSpanContextFromMessage(evtWrapper.getDetail(), logger);
-
-                if (upstreamContext != null) {
-                    logger.info("Adding link to upstream context: TraceId: '{}'. SpanId: '{}'", upstreamContext.getTraceId(), upstreamContext.getSpanId());
-                    processSpanBuilder.addLink(upstreamContext);
-                }
-
-                processSpan = processSpanBuilder.startSpan();
-
-                DatadogTelemetry datadog = evtWrapper.getDetail().getDatadog() != null
-                        ? evtWrapper.getDetail().getDatadog() : new DatadogTelemetry();
-                DataStreamsCheckpointer.get().setConsumeCheckpoint("eventbridge", evtWrapper.getDetailType(), new Carrier(datadog));
-                processSpan.setAttribute("messaging.id", message.getMessageId());
-                processSpan.setAttribute("messaging.operation.type", "process");
-                processSpan.setAttribute("messaging.system", "aws_sqs");
-                processSpan.setAttribute("product.id", evtWrapper.getDetail().getData().getProductId());
-
-                this.eventHandler.handleProductCreatedV1Event(evtWrapper.getDetail().getData());
-
-            } catch (JsonProcessingException | DataAccessException | InventoryItemNotFoundException | Error exception) {
-                batchItemFailures.add(SQSBatchResponse.BatchItemFailure.builder().withItemIdentifier(message.getMessageId()).build());
-                logger.error("An exception occurred!", exception);
-                span.recordException(exception);
-            } finally {
-                if (processSpan != null) {
-                    processSpan.end();
-                }
-            }
+        List<SQSBatchResponse.BatchItemFailure> batchItemFailures;
+
+        try {
+            List<SqsEventReader.SqsMessage> messages = eventReader.read(inputStream);
+            span.setAttribute("messaging.batch.message_count", messages.size());
+            span.setAttribute("messaging.operation.type", "receive");
+            span.setAttribute("messaging.system", "aws_sqs");
+
+            batchItemFailures = batchProcessor.process(messages, context, tracer, span, routes);
+        } catch (Exception | Error exception) {
+            logger.error("An exception occurred!", exception);
+            span.recordException(exception);
+            span.setStatus(StatusCode.ERROR);
+            throw exception;
+        } finally {
+            // Send any buffered work before the execution environment is frozen.
+            flushCoordinator.flush(context.getRemainingTimeInMillis());
+            span.end();
         }
 
-        span.end();
+        eventReader.writeResponse(outputStream, batchItemFailures);
+        snapStartPriming.responseWritten();
+    }
+
+    private boolean handleProductCreated(CloudEventWrapper<ProductCreatedEventV1> event, Span processSpan) {
+        processSpan.setAttribute("product.id", event.getData().getProductId());
 
-        return SQSBatchResponse.builder()
-                .withBatchItemFailures(batchItemFailures)
-                .build();
+        this.eventHandler.handleProductCreatedV1Event(event.getData());
+        return true;
     }
 }
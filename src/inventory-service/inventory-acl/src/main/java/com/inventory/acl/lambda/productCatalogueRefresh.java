@@ -3,6 +3,8 @@ package com.inventory.acl.lambda;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.acl.adapters.SnapStartPriming;
+import com.inventory.core.FlushCoordinator;
 import com.inventory.core.InventoryItemService;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -17,10 +19,19 @@ public class productCatalogueRefresh implements RequestStreamHandler {
     ObjectMapper objectMapper;
     @Inject
     InventoryItemService inventoryService;
+    @Inject
+    FlushCoordinator flushCoordinator;
+    @Inject
+    SnapStartPriming snapStartPriming;
 
     @Override
     public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) throws IOException {
-        var products = inventoryService.refreshProductCache();
-        outputStream.write(objectMapper.writeValueAsBytes(products));
+        try {
+            var products = inventoryService.refreshProductCache();
+            outputStream.write(objectMapper.writeValueAsBytes(products));
+        } finally {
+            flushCoordinator.flush(context.getRemainingTimeInMillis());
+        }
+        snapStartPriming.responseWritten();
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke test for the packaged function, run by {@code mvn -P native verify} against the native executable, once for
+ * each SQS handler by the subclasses. Canned SQS payloads are posted to the Lambda mock event server, so the stream
+ * handler, SQS reader, EventBridge decoder, batch processor and batch response all run in the image. The batch has
+ * one valid message of each routed type, one with a detail type no handler subscribes to and one that is not an
+ * EventBridge event at all.
+ * <p>
+ * No AWS services are available, so a processed message may still fail in its handler. What is checked is that the
+ * handler's own message reaches it, which the batch processor logs with the trace ID of the message's traceparent,
+ * and that every other type is skipped.
+ */
+abstract class NativeHandlerIT {
+    // Quarkus writes the output of the function under test here.
+    private static final Path FUNCTION_LOG = Path.of("target/quarkus.log");
+    private static final long LOG_TIMEOUT_MS = 10_000;
+
+    // The trace ID in the traceparent of each routed message in sqs-smoke-batch.json.
+    static final Map<String, String> ROUTED_MESSAGE_TRACE_IDS = Map.of(
+            "message-3", "0af7651916cd43dd8448eb211c80319c",
+            "message-4", "5c1e6f3a9b2d4e7f8a0b1c2d3e4f5a6b",
+            "message-5", "7d2f8a4b0c3e4f5a9b1c2d3e4f5a6b7c");
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @return the ID of the message in sqs-smoke-batch.json of the type the handler under test subscribes to
+     */
+    abstract String handledMessageId();
+
+    @Test
+    void the_handled_type_is_processed_and_other_types_are_skipped() throws IOException, InterruptedException {
+        HttpResponse<String> response = invoke(Files.readString(Path.of("src/test/data/sqs-smoke-batch.json")));
+
+        assertEquals(200, response.statusCode());
+        Set<String> failures = itemIdentifiers(response.body());
+        assertTrue(failures.contains("message-2"), "a message that cannot be decoded is retried");
+        assertFalse(failures.contains("message-1"), "an unsubscribed type is not retried");
+
+        String log = awaitLog(ROUTED_MESSAGE_TRACE_IDS.get(handledMessageId()));
+        ROUTED_MESSAGE_TRACE_IDS.forEach((messageId, traceId) -> {
+            if (!messageId.equals(handledMessageId())) {
+                assertFalse(failures.contains(messageId), messageId + " is another handler's type and is not retried");
+                assertFalse(log.contains(traceId), messageId + " is another handler's type and is not processed");
+            }
+        });
+    }
+
+    @Test
+    void an_empty_batch_reports_no_failures() throws IOException, InterruptedException {
+        HttpResponse<String> response = invoke("{\"Records\":[]}");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"batchItemFailures\":[]}", response.body());
+    }
+
+    private Set<String> itemIdentifiers(String batchResponse) throws IOException {
+        Set<String> identifiers = new HashSet<>();
+        for (JsonNode failure : objectMapper.readTree(batchResponse).get("batchItemFailures")) {
+            identifiers.add(failure.get("itemIdentifier").asText());
+        }
+        return identifiers;
+    }
+
+    /**
+     * @return the function's log once it contains the expected text
+     */
+    private static String awaitLog(String expected) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + LOG_TIMEOUT_MS;
+        String log = Files.exists(FUNCTION_LOG) ? Files.readString(FUNCTION_LOG) : "";
+        while (!log.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            log = Files.exists(FUNCTION_LOG) ? Files.readString(FUNCTION_LOG) : "";
+        }
+        assertTrue(log.contains(expected), "the function did not log processing a message with trace ID " + expected);
+        return log;
+    }
+
+    private HttpResponse<String> invoke(String payload) throws IOException, InterruptedException {
+        int port = ConfigProvider.getConfig()
+                .getOptionalValue("quarkus.lambda.mock-event-server.test-port", Integer.class)
+                .orElse(8081);
+
+        return httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(payload))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,69 @@
+package com.inventory.acl.adapters;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.acl.core.events.external.OrderCreatedEventV1;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBridgeMessageDecoderTest {
+    private static final String ORDER_CREATED = "orders.orderCreated.v1";
+
+    private final EventBridgeMessageDecoder decoder = new EventBridgeMessageDecoder(
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+    @Test
+    void reads_the_header_and_binds_the_data_on_request() throws IOException {
+        String body = """
+                {"version":"0","id":"5b7c0a2e","detail-type":"orders.orderCreated.v1","source":"dev.orders",
+                 "resources":[],"detail":{"specversion":"1.0","id":"event-1","source":"dev.orders.api","type":"orders.orderCreated",
+                 "conversationId":"conversation-1","traceparent":"00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+                 "_datadog":{"dd-pathway-ctx-base64":"AAAA"},
+                 "data":{"orderNumber":"ORD-1", "products":["product-1","product-2"]},"time":"2024-11-20T10:15:30Z"}}
+                """;
+
+        EventBridgeMessageHeader header = decoder.readHeader(body, ORDER_CREATED::equals);
+
+        assertEquals(ORDER_CREATED, header.detailType());
+        assertEquals("dev.orders", header.source());
+        assertEquals("event-1", header.id());
+        assertEquals("conversation-1", header.conversationId());
+        assertEquals("AAAA", header.datadog().getContext().get("dd-pathway-ctx-base64"));
+        assertNotNull(header.data());
+
+        EventBridgeMessageWrapper<OrderCreatedEventV1> evtWrapper = decoder.bind(header, OrderCreatedEventV1.class);
+
+        assertEquals(ORDER_CREATED, evtWrapper.getDetailType());
+        assertEquals("dev.orders", evtWrapper.getSource());
+        assertEquals("event-1", evtWrapper.getDetail().getId());
+        assertEquals("dev.orders.api", evtWrapper.getDetail().getSource());
+        assertEquals("orders.orderCreated", evtWrapper.getDetail().getType());
+        assertEquals("2024-11-20T10:15:30Z", evtWrapper.getDetail().getTime());
+        assertEquals("conversation-1", evtWrapper.getDetail().getConversationId());
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", evtWrapper.getDetail().getTraceparent());
+        assertEquals("ORD-1", evtWrapper.getDetail().getData().getOrderNumber());
+        assertEquals(List.of("product-1", "product-2"), evtWrapper.getDetail().getData().getProducts());
+    }
+
+    @Test
+    void stops_at_a_detail_type_that_is_not_accepted() throws IOException {
+        // The body is cut off after the detail type, so this only passes if the rest is never read.
+        String body = "{\"detail-type\":\"product.productUpdated.v1\",\"detail\":{\"data\":";
+
+        assertNull(decoder.readHeader(body, ORDER_CREATED::equals));
+    }
+
+    @Test
+    void binds_null_data_when_the_event_has_none() throws IOException {
+        String body = "{\"detail\":{\"id\":\"event-1\",\"data\":null},\"detail-type\":\"orders.orderCreated.v1\"}";
+
+        EventBridgeMessageHeader header = decoder.readHeader(body, ORDER_CREATED::equals);
+
+        assertNull(header.data());
+        assertNull(decoder.bind(header, OrderCreatedEventV1.class).getDetail().getData());
+    }
+}
@@ -0,0 +1,76 @@
+package com.inventory.acl.adapters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.core.ParameterCache;
+import com.inventory.core.config.TestAppConfig;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapStartPrimingTest {
+    @Test
+    void stubbed_requests_are_built_and_signed_but_never_sent() {
+        try (DynamoDbClient client = SnapStartPriming.stubbedClient(DynamoDbClient.builder())) {
+            assertTrue(SnapStartPriming.sendStubbed(() -> client.getItem(request -> request
+                    .tableName("priming")
+                    .key(Map.of("PK", AttributeValue.fromS("priming"))))));
+        }
+    }
+
+    @Test
+    void the_first_response_after_a_restore_is_measured_once() {
+        var objectMapper = new ObjectMapper();
+        var parameterCache = new RecordingParameterCache();
+        var priming = new SnapStartPriming(objectMapper, new SqsEventReader(objectMapper),
+                new EventBridgeMessageDecoder(objectMapper), null, parameterCache, new TestAppConfig().with("snapstart.restore.warm.connections", false));
+
+        priming.responseWritten();
+        assertEquals(-1, priming.getLastRestoreToFirstResponseMillis());
+
+        priming.afterRestore(null);
+        priming.responseWritten();
+        long measured = priming.getLastRestoreToFirstResponseMillis();
+        assertTrue(measured >= 0);
+
+        priming.afterRestore(null);
+        priming.responseWritten();
+        priming.responseWritten();
+        assertTrue(priming.getLastRestoreToFirstResponseMillis() >= 0);
+    }
+
+    @Test
+    void parameters_in_the_snapshot_are_fetched_again_after_a_restore() {
+        var objectMapper = new ObjectMapper();
+        var parameterCache = new RecordingParameterCache();
+        var priming = new SnapStartPriming(objectMapper, new SqsEventReader(objectMapper),
+                new EventBridgeMessageDecoder(objectMapper), null, parameterCache, new TestAppConfig().with("snapstart.restore.warm.connections", false));
+
+        priming.afterRestore(null);
+
+        assertEquals(1, parameterCache.refreshes);
+    }
+
+    static class RecordingParameterCache implements ParameterCache {
+        private int refreshes;
+
+        @Override
+        public Optional<String> get(String name) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void preload(Collection<String> names) {
+        }
+
+        @Override
+        public void refresh() {
+            refreshes++;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.inventory.acl.adapters;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.acl.core.events.external.ProductCreatedEventV1;
+import com.inventory.core.InventoryStockUpdatedEvent;
+import com.inventory.core.adapters.FlushCoordinatorImpl;
+import com.inventory.core.adapters.PendingEvents;
+import com.inventory.core.adapters.TestEventPublisher;
+import com.inventory.core.config.TestAppConfig;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqsBatchProcessorTest {
+    private static final String PRODUCT_CREATED = "product.productCreated.v1";
+
+    private final SqsBatchProcessor processor = new SqsBatchProcessor(new EventBridgeMessageDecoder(
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)), new TestAppConfig().with("sqs.batch.min.remaining.ms", 3_000));
+    private final Tracer tracer = GlobalOpenTelemetry.getTracer("test");
+    private final Span batchSpan = Span.getInvalid();
+
+    @Test
+    void unrelated_keys_run_in_parallel_and_each_key_keeps_its_order() {
+        var event = event(message("1", "product-a"), message("2", "product-b"), message("3", "product-a"));
+        var bothStarted = new CountDownLatch(2);
+        Map<String, List<String>> processed = new ConcurrentHashMap<>();
+
+        var failures = processor.process(event, context(60_000), tracer, batchSpan, routes(
+                (evt, processSpan) -> {
+                    String productId = evt.getData().getProductId();
+                    bothStarted.countDown();
+                    // Only returns true if the other key's first message is running at the same time.
+                    boolean concurrent = bothStarted.await(5, TimeUnit.SECONDS);
+                    processed.computeIfAbsent(productId, k -> new CopyOnWriteArrayList<>()).add(evt.getId());
+                    return concurrent;
+                }));
+
+        assertTrue(failures.isEmpty());
+        assertEquals(List.of("event-1", "event-3"), processed.get("product-a"));
+    }
+
+    @Test
+    void a_failure_holds_back_the_rest_of_its_key_and_failures_keep_batch_order() {
+        var event = event(message("1", "product-a"), message("2", "product-b"), "not json", message("4", "product-a"));
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        var failures = processor.process(event, context(60_000), tracer, batchSpan, routes(
+                (evt, processSpan) -> {
+                    processed.add(evt.getId());
+                    if (evt.getId().equals("event-1")) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return true;
+                }));
+
+        assertEquals(List.of("message-1", "message-3", "message-4"), ids(failures));
+        assertFalse(processed.contains("event-4"));
+        assertTrue(processed.contains("event-2"));
+    }
+
+    @Test
+    void no_new_work_is_started_when_the_invocation_is_nearly_out_of_time() {
+        var event = event(message("1", "product-a"), message("2", "product-b"));
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        var failures = processor.process(event, context(1_000), tracer, batchSpan, routes(
+                (evt, processSpan) -> processed.add(evt.getId())));
+
+        assertEquals(List.of("message-1", "message-2"), ids(failures));
+        assertTrue(processed.isEmpty());
+    }
+
+    @Test
+    void messages_without_a_route_are_skipped_without_being_bound_or_retried() {
+        var event = event(message("1", "product-a"), message("2", "product-b", "product.productUpdated.v1"));
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        var failures = processor.process(event, context(60_000), tracer, batchSpan, routes(
+                (evt, processSpan) -> processed.add(evt.getId())));
+
+        assertTrue(failures.isEmpty());
+        assertEquals(List.of("event-1"), processed);
+    }
+
+    @Test
+    void events_published_by_the_workers_are_sent_when_the_invocation_flushes() {
+        var invocationEvents = new PendingEvents();
+        Thread invocationThread = Thread.currentThread();
+        // Stock updates are held for a minute, so only the flush can have sent them.
+        var publisher = new TestEventPublisher(new TestAppConfig()
+                .with("event.bus.name", "inventory-bus")
+                .with("events.coalesce.stock.updates", true)
+                .with("events.coalesce.window.ms", 60_000),
+                () -> Thread.currentThread() == invocationThread ? invocationEvents : null);
+        var flushCoordinator = new FlushCoordinatorImpl(publisher, (transactionId, checkpoint) -> { }, new TestAppConfig());
+
+        try {
+            var failures = processor.process(event(message("1", "product-a"), message("2", "product-b")), context(60_000),
+                    tracer, batchSpan, routes((evt, processSpan) -> {
+                        publisher.publishInventoryStockUpdatedEvent(
+                                new InventoryStockUpdatedEvent(evt.getData().getProductId(), 10.0, 9.0));
+                        return true;
+                    }));
+
+            assertTrue(failures.isEmpty());
+            assertTrue(flushCoordinator.flush(60_000));
+            assertEquals(2, publisher.sent().size());
+        } finally {
+            publisher.shutDown();
+        }
+    }
+
+    private static SqsEventRoutes routes(SqsBatchProcessor.MessageHandler<ProductCreatedEventV1> handler) {
+        return new SqsEventRoutes().on(PRODUCT_CREATED, ProductCreatedEventV1.class, ProductCreatedEventV1::getProductId, handler);
+    }
+
+    private static String message(String id, String productId) {
+        return message(id, productId, PRODUCT_CREATED);
+    }
+
+    private static String message(String id, String productId, String detailType) {
+        return "{\"detail-type\":\"" + detailType + "\",\"source\":\"test.products\",\"detail\":{\"id\":\"event-" + id
+                + "\",\"type\":\"" + detailType + "\",\"data\":{\"productId\":\"" + productId + "\"}}}";
+    }
+
+    private static List<SqsEventReader.SqsMessage> event(String... bodies) {
+        var messages = new ArrayList<SqsEventReader.SqsMessage>();
+        for (int i = 0; i < bodies.length; i++) {
+            messages.add(new SqsEventReader.SqsMessage("message-" + (i + 1), bodies[i]));
+        }
+        return messages;
+    }
+
+    private static List<String> ids(List<SQSBatchResponse.BatchItemFailure> failures) {
+        return failures.stream().map(SQSBatchResponse.BatchItemFailure::getItemIdentifier).toList();
+    }
+
+    private static Context context(int remainingTimeMillis) {
+        return (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[]{Context.class},
+                (proxy, method, args) -> method.getName().equals("getRemainingTimeInMillis") ? remainingTimeMillis : null);
+    }
+}
@@ -0,0 +1,70 @@
+package com.inventory.acl.adapters;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqsEventReaderTest {
+    private final SqsEventReader reader = new SqsEventReader(new ObjectMapper());
+
+    @Test
+    void reads_message_ids_and_bodies_and_skips_everything_else() throws IOException {
+        String payload = """
+                {
+                  "Records": [
+                    {
+                      "messageId": "message-1",
+                      "receiptHandle": "AQEBwJnKyrHigUMZj6rYigCgxlaS3SLy0a",
+                      "body": "{\\"detail\\":{\\"data\\":{\\"productId\\":\\"caf\\u00e9\\"}}}",
+                      "attributes": {
+                        "ApproximateReceiveCount": "1",
+                        "SentTimestamp": "1545082649183"
+                      },
+                      "messageAttributes": {},
+                      "md5OfBody": "e4e68fb7bd0e697a0ae8f1bb342846b3",
+                      "eventSource": "aws:sqs",
+                      "eventSourceARN": "arn:aws:sqs:us-east-1:123456789012:inventory-queue",
+                      "awsRegion": "us-east-1"
+                    },
+                    {
+                      "body": "second",
+                      "messageId": "message-2"
+                    }
+                  ]
+                }
+                """;
+
+        List<SqsEventReader.SqsMessage> messages = reader.read(
+                new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(
+                new SqsEventReader.SqsMessage("message-1", "{\"detail\":{\"data\":{\"productId\":\"café\"}}}"),
+                new SqsEventReader.SqsMessage("message-2", "second")), messages);
+    }
+
+    @Test
+    void writes_the_partial_batch_response_without_closing_the_stream() throws IOException {
+        var output = new ByteArrayOutputStream() {
+            boolean closed;
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+
+        reader.writeResponse(output, List.of(
+                SQSBatchResponse.BatchItemFailure.builder().withItemIdentifier("message-2").build()));
+
+        assertEquals("{\"batchItemFailures\":[{\"itemIdentifier\":\"message-2\"}]}", output.toString(StandardCharsets.UTF_8));
+        assertFalse(output.closed);
+    }
+}
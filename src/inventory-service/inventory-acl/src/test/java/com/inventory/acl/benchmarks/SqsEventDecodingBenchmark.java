@@ -0,0 +1,129 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.acl.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.inventory.acl.adapters.EventBridgeMessageDecoder;
+import com.inventory.acl.adapters.EventBridgeMessageHeader;
+import com.inventory.acl.adapters.EventBridgeMessageWrapper;
+import com.inventory.acl.adapters.SqsEventReader;
+import com.inventory.acl.core.events.external.OrderCreatedEventV1;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding an SQS invocation payload into order events: binding the whole {@link SQSEvent} the way the Quarkus
+ * request handler did and reading each body with a new {@link TypeReference}, against the streaming
+ * {@link SqsEventReader} and a reader resolved once, and against reading a routing header first and binding only
+ * the data of messages that are handled. Allocation is the interesting number, so run with
+ * {@code mvn -P benchmark test-compile exec:exec -Djmh.args="SqsEventDecoding -prof gc"} and compare
+ * {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqsEventDecodingBenchmark {
+    @Param({"1", "10"})
+    public int batchSize;
+
+    private final ObjectMapper sqsEventMapper = JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final SqsEventReader sqsEventReader = new SqsEventReader(objectMapper);
+    private final ObjectReader orderCreatedReader =
+            objectMapper.readerFor(new TypeReference<EventBridgeMessageWrapper<OrderCreatedEventV1>>() {});
+    private final EventBridgeMessageDecoder decoder = new EventBridgeMessageDecoder(objectMapper);
+    private byte[] payload;
+
+    @Setup
+    public void createPayload() throws IOException {
+        String body = objectMapper.writeValueAsString(objectMapper.readTree("""
+                {"version":"0","id":"5b7c0a2e-1f1e-4c38-a1a4-8f3c6a3c2d10","detail-type":"orders.orderCreated.v1",
+                 "source":"dev.orders","account":"123456789012","time":"2024-11-20T10:15:30Z","region":"us-east-1",
+                 "resources":[],"detail":{"specversion":"1.0","id":"0193a0c2-7f3e-7b1a-9c4d-2e5f6a7b8c9d",
+                 "source":"https://dev.orders","type":"orders.orderCreated.v1","time":"2024-11-20T10:15:30Z",
+                 "traceparent":"00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+                 "_datadog":{"x-datadog-trace-id":"5208512171318403364","x-datadog-parent-id":"67667974448284343"},
+                 "data":{"orderNumber":"ORD-1001","products":["product-1","product-2","product-3"]}}}
+                """));
+
+        StringBuilder records = new StringBuilder();
+        for (int i = 0; i < batchSize; i++) {
+            if (i > 0) {
+                records.append(',');
+            }
+            records.append("{\"messageId\":\"message-").append(i)
+                    .append("\",\"receiptHandle\":\"AQEBwJnKyrHigUMZj6rYigCgxlaS3SLy0a\",\"body\":")
+                    .append(objectMapper.writeValueAsString(body))
+                    .append(",\"attributes\":{\"ApproximateReceiveCount\":\"1\",\"SentTimestamp\":\"1732097730000\",")
+                    .append("\"SenderId\":\"AIDAIENQZJOLO23YVJ4VO\",\"ApproximateFirstReceiveTimestamp\":\"1732097730010\"},")
+                    .append("\"messageAttributes\":{},\"md5OfBody\":\"e4e68fb7bd0e697a0ae8f1bb342846b3\",")
+                    .append("\"eventSource\":\"aws:sqs\",")
+                    .append("\"eventSourceARN\":\"arn:aws:sqs:us-east-1:123456789012:inventory-order-created\",")
+                    .append("\"awsRegion\":\"us-east-1\"}");
+        }
+        payload = ("{\"Records\":[" + records + "]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void bindSqsEventAndReadEachBody(Blackhole blackhole) throws IOException {
+        SQSEvent sqsEvent = sqsEventMapper.readValue(new ByteArrayInputStream(payload), SQSEvent.class);
+        for (SQSEvent.SQSMessage message : sqsEvent.getRecords()) {
+            blackhole.consume(objectMapper.readValue(message.getBody(),
+                    new TypeReference<EventBridgeMessageWrapper<OrderCreatedEventV1>>() {}));
+        }
+    }
+
+    @Benchmark
+    public void streamRecordsWithCachedReader(Blackhole blackhole) throws IOException {
+        for (SqsEventReader.SqsMessage message : sqsEventReader.read(new ByteArrayInputStream(payload))) {
+            blackhole.consume(orderCreatedReader.readValue(message.body()));
+        }
+    }
+
+    @Benchmark
+    public void streamRecordsAndBindRoutedData(Blackhole blackhole) throws IOException {
+        for (SqsEventReader.SqsMessage message : sqsEventReader.read(new ByteArrayInputStream(payload))) {
+            EventBridgeMessageHeader header = decoder.readHeader(message.body(), "orders.orderCreated.v1"::equals);
+            blackhole.consume(decoder.bind(header, OrderCreatedEventV1.class));
+        }
+    }
+
+    @Benchmark
+    public void streamRecordsAndSkipUnroutedType(Blackhole blackhole) throws IOException {
+        for (SqsEventReader.SqsMessage message : sqsEventReader.read(new ByteArrayInputStream(payload))) {
+            blackhole.consume(decoder.readHeader(message.body(), "orders.orderCompleted.v1"::equals));
+        }
+    }
+}
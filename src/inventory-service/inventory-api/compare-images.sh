@@ -0,0 +1,75 @@
+#!/bin/bash
+
+# Compares start-up, memory and throughput of the JVM and native inventory-api images on this machine.
+#
+#   ./compare-images.sh [jvm-image] [native-image]
+#
+# Build the images first (make build-api-image build-api-native-image in the parent directory). Each image is started
+# on its own with the same memory limit as the Fargate task. The script reports the time until /health first answers,
+# the memory in use once it has, and requests per second for the health check and a stock lookup, followed by the
+# memory in use after the load. It needs curl and hey (https://github.com/rakyll/hey).
+#
+# With ENV=local the stock lookups go to LocalStack on localhost:4566. The containers share the host network, so start
+# LocalStack first to measure real lookups. Without it the lookups measure the error path.
+
+set -euo pipefail
+
+JVM_IMAGE=${1:-dd-serverless-sample-app-inventory-java}
+NATIVE_IMAGE=${2:-dd-serverless-sample-app-inventory-java-native}
+MEMORY_LIMIT=${MEMORY_LIMIT:-512m}
+LOAD_DURATION=${LOAD_DURATION:-30s}
+LOAD_CONCURRENCY=${LOAD_CONCURRENCY:-16}
+BASE_URL=http://localhost:8080
+
+for tool in docker curl hey; do
+    if ! command -v "$tool" >/dev/null; then
+        echo "$tool is required" >&2
+        exit 1
+    fi
+done
+
+memory_in_use() {
+    docker stats --no-stream --format '{{.MemUsage}}' "$1" | cut -d/ -f1 | tr -d ' '
+}
+
+requests_per_second() {
+    hey -z "$LOAD_DURATION" -c "$LOAD_CONCURRENCY" "$1" | awk '/Requests\/sec/ { print $2 }'
+}
+
+measure() {
+    local name=$1
+    local image=$2
+    local container="inventory-api-compare-$name"
+
+    docker rm -f "$container" >/dev/null 2>&1 || true
+
+    local started
+    started=$(date +%s%N)
+    docker run -d --rm --name "$container" --network host --memory "$MEMORY_LIMIT" \
+        -e ENV=local -e AWS_REGION=us-east-1 -e AWS_ACCESS_KEY_ID=test -e AWS_SECRET_ACCESS_KEY=test \
+        -e TABLE_NAME=InventoryTable -e DD_TRACE_ENABLED=false "$image" >/dev/null
+
+    until curl -sf "$BASE_URL/health" >/dev/null; do
+        if ! docker inspect "$container" >/dev/null 2>&1; then
+            echo "$name: container exited before it became healthy" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    local ready_ms=$(( ($(date +%s%N) - started) / 1000000 ))
+    local memory_ready
+    memory_ready=$(memory_in_use "$container")
+
+    local health_rps lookup_rps memory_loaded
+    health_rps=$(requests_per_second "$BASE_URL/health")
+    lookup_rps=$(requests_per_second "$BASE_URL/inventory/compare-images-product")
+    memory_loaded=$(memory_in_use "$container")
+
+    docker rm -f "$container" >/dev/null
+
+    printf '%-8s %10s %14s %12s %12s %14s\n' "$name" "$ready_ms" "$memory_ready" "$health_rps" "$lookup_rps" "$memory_loaded"
+}
+
+printf '%-8s %10s %14s %12s %12s %14s\n' "image" "ready ms" "memory ready" "health rps" "lookup rps" "memory loaded"
+measure jvm "$JVM_IMAGE"
+measure native "$NATIVE_IMAGE"
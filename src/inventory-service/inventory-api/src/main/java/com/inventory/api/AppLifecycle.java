@@ -6,6 +6,7 @@
 
 package com.inventory.api;
 
+import com.inventory.core.EventPublisher;
 import io.quarkus.runtime.ShutdownEvent;
 import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -16,7 +17,7 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
 import software.amazon.awssdk.services.eventbridge.model.ListEventBusesRequest;
 
-import java.util.concurrent.CompletableFuture;
+import java.time.Duration;
 
 @ApplicationScoped
 public class AppLifecycle {
@@ -24,30 +25,40 @@ public class AppLifecycle {
     DynamoDbClient dynamoDbClient;
     @Inject
     EventBridgeClient eventBridgeClient;
+    @Inject
+    EventPublisher eventPublisher;
+    @Inject
+    WarmUp warmUp;
 
     private static final Logger LOGGER = Logger.getLogger("Listener");
+    private static final Duration SHUTDOWN_DRAIN_TIMEOUT = Duration.ofSeconds(10);
 
     void onStart(@Observes StartupEvent ev) {
         LOGGER.info("The application is starting...");
-        if (!"local".equalsIgnoreCase(System.getenv("ENV"))) {
-            LOGGER.info("Priming AWS SDKs asynchronously...");
-            CompletableFuture.runAsync(() -> {
-                try {
-                    dynamoDbClient.describeTable(r -> r.tableName(System.getenv("TABLE_NAME")));
-                    eventBridgeClient.listEventBuses(ListEventBusesRequest.builder().build());
-                    LOGGER.info("AWS SDK priming completed successfully.");
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to prime AWS SDKs. This may be expected if the resources do not exist yet.");
-                    LOGGER.warn(e);
-                }
-            });
-        }
-
-        LOGGER.info("The application has started.");
+        warmUp.start(this::primeAwsSdks);
+        LOGGER.info("The application has started, warming up before reporting healthy.");
     }
 
     void onStop(@Observes ShutdownEvent ev) {
         LOGGER.info("The application is stopping...");
+        if (!eventPublisher.drain(SHUTDOWN_DRAIN_TIMEOUT)) {
+            LOGGER.warn("Shutting down with events still in flight");
+        }
     }
 
+    private void primeAwsSdks() {
+        if ("local".equalsIgnoreCase(System.getenv("ENV"))) {
+            return;
+        }
+
+        LOGGER.info("Priming AWS SDKs...");
+        try {
+            dynamoDbClient.describeTable(r -> r.tableName(System.getenv("TABLE_NAME")));
+            eventBridgeClient.listEventBuses(ListEventBusesRequest.builder().build());
+            LOGGER.info("AWS SDK priming completed successfully.");
+        } catch (Exception e) {
+            LOGGER.warn("Failed to prime AWS SDKs. This may be expected if the resources do not exist yet.");
+            LOGGER.warn(e);
+        }
+    }
 }
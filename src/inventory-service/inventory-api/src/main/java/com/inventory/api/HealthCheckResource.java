@@ -7,17 +7,31 @@
 package com.inventory.api;
 
 import com.inventory.api.filters.PublicEndpoint;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 
 @Path("/health")
 @PublicEndpoint
 public class HealthCheckResource {
+    @Inject
+    WarmUp warmUp;
+
+    /**
+     * Fails until {@link WarmUp} has finished, so the load balancer only sends traffic to a warmed up task.
+     */
     @GET
     @Produces(MediaType.TEXT_PLAIN)
-    public String hello() {
-        return "Healthy!";
+    public Response hello() {
+        if (!warmUp.isReady()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("Warming up")
+                    .build();
+        }
+
+        return Response.ok("Healthy!").build();
     }
 }
@@ -14,14 +14,18 @@ public class InventoryItemResource {
     @Inject
     InventoryItemService service;
 
+    @Inject
+    WarmUp warmUp;
+
     private static final Logger LOG = Logger.getLogger(InventoryItemResource.class);
 
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response updateStockLevel(@NotNull UpdateInventoryStockRequest request) {
+    public Response updateStockLevel(@HeaderParam(WarmUp.SYNTHETIC_REQUEST_HEADER) String warmUpKey,
+                                     @NotNull UpdateInventoryStockRequest request) {
         LOG.info("Received update product stock request");
-        var result = service.updateStock(request);
+        var result = serviceFor(warmUpKey).updateStock(request);
 
         if (!result.isSuccess()) {
             return Response.status(Response.Status.BAD_REQUEST)
@@ -38,9 +42,10 @@ public class InventoryItemResource {
     @Path("/{productId}")
     @Produces(MediaType.APPLICATION_JSON)
     @PublicEndpoint
-    public Response getProduct(@PathParam("productId")String productId) {
+    public Response getProduct(@HeaderParam(WarmUp.SYNTHETIC_REQUEST_HEADER) String warmUpKey,
+                               @PathParam("productId")String productId) {
         LOG.info("Received get inventory item request");
-        var result = service.withProductId(productId);
+        var result = serviceFor(warmUpKey).withProductId(productId);
 
         if (!result.isSuccess()) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -52,4 +57,9 @@ public class InventoryItemResource {
                 .entity(result)
                 .build();
     }
+
+    // Warm-up traffic runs the same request handling, against a stubbed service so nothing real is touched.
+    private InventoryItemService serviceFor(String warmUpKey) {
+        return warmUp.isSyntheticRequest(warmUpKey) ? warmUp.syntheticService() : service;
+    }
 }
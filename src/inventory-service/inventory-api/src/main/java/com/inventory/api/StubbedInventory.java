@@ -0,0 +1,165 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2025 Datadog, Inc.
+ */
+
+package com.inventory.api;
+
+import com.inventory.core.*;
+import com.inventory.core.adapters.ProductCatalogueItem;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory stand-ins for the dependencies of {@link InventoryItemService}, so warm-up traffic runs the real request
+ * handling code without reading or writing the table or publishing events.
+ */
+final class StubbedInventory {
+    private StubbedInventory() {
+    }
+
+    static InventoryItemService service() {
+        return new InventoryItemService(new Repository(), new Orders(), new Publisher(), new Products(), new Checkpoint());
+    }
+
+    private static final class Repository implements InventoryItemRepository {
+        private final Map<String, InventoryItem> items = new ConcurrentHashMap<>();
+
+        @Override
+        public InventoryItem withProductId(String productId) {
+            InventoryItem item = items.get(productId);
+            if (item == null) {
+                throw new InventoryItemNotFoundException(productId);
+            }
+            return new InventoryItem(item.getProductId(), item.getCurrentStockLevel(), item.getReservedStockLevel(),
+                    new ArrayList<>(item.getReservedStockOrders()), item.getVersion());
+        }
+
+        @Override
+        public Set<String> existingProductIds(Collection<String> productIds) {
+            Set<String> existing = new HashSet<>();
+            for (String productId : productIds) {
+                if (items.containsKey(productId)) {
+                    existing.add(productId);
+                }
+            }
+            return existing;
+        }
+
+        @Override
+        public void update(InventoryItem item) {
+            items.put(item.getProductId(), item);
+        }
+
+        @Override
+        public void update(InventoryItem item, List<OutboxEvent> outboxEvents) {
+            update(item);
+        }
+    }
+
+    private static final class Orders implements OrderCache {
+        private final Map<String, ArrayList<String>> orders = new ConcurrentHashMap<>();
+
+        @Override
+        public ArrayList<String> products(String orderId) {
+            return orders.get(orderId);
+        }
+
+        @Override
+        public void store(String orderId, ArrayList<String> products) {
+            orders.put(orderId, products);
+        }
+    }
+
+    private static final class Publisher implements EventPublisher {
+        @Override
+        public void publishNewProductAddedEvent(NewProductAddedEvent evt) {
+        }
+
+        @Override
+        public void publishNewProductAddedEvents(List<NewProductAddedEvent> evts) {
+        }
+
+        @Override
+        public void publishInventoryStockUpdatedEvent(InventoryStockUpdatedEvent evt) {
+        }
+
+        @Override
+        public void publishStockReservedEvent(StockReservedEventV1 evt) {
+        }
+
+        @Override
+        public void publishProductOutOfStockEvent(ProductOutOfStockEventV1 evt) {
+        }
+
+        @Override
+        public void publishStockReservationFailedEvent(StockReservationFailedEventV1 evt) {
+        }
+
+        @Override
+        public boolean isOutboxEnabled() {
+            return false;
+        }
+
+        @Override
+        public OutboxEvent toOutboxEvent(InventoryStockUpdatedEvent evt) {
+            return outboxEvent("inventory.stockUpdated.v1");
+        }
+
+        @Override
+        public OutboxEvent toOutboxEvent(StockReservedEventV1 evt) {
+            return outboxEvent("inventory.stockReserved.v1");
+        }
+
+        @Override
+        public OutboxEvent toOutboxEvent(ProductOutOfStockEventV1 evt) {
+            return outboxEvent("inventory.outOfStock.v1");
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public boolean drain(Duration timeout) {
+            return true;
+        }
+
+        // The stubbed repository discards outbox events, so they carry no detail.
+        private static OutboxEvent outboxEvent(String detailType) {
+            return new OutboxEvent(UUID.randomUUID().toString(), detailType, "{}");
+        }
+    }
+
+    private static final class Products implements ProductService {
+        @Override
+        public CatalogueFetchResult streamProductCatalogue(boolean allowNotModified, Consumer<ProductCatalogueItem> consumer) {
+            return CatalogueFetchResult.COMPLETE;
+        }
+    }
+
+    private static final class Checkpoint implements CatalogueCheckpoint {
+        private volatile CatalogueSnapshot snapshot = CatalogueSnapshot.empty();
+
+        @Override
+        public CatalogueSnapshot load() {
+            return snapshot;
+        }
+
+        @Override
+        public boolean store(CatalogueSnapshot snapshot) {
+            this.snapshot = snapshot;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2025 Datadog, Inc.
+ */
+
+package com.inventory.api;
+
+import com.inventory.core.InventoryItem;
+import com.inventory.core.InventoryItemNotFoundException;
+import com.inventory.core.InventoryItemRepository;
+import com.inventory.core.InventoryItemService;
+import com.inventory.core.config.AppConfig;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.quarkus.runtime.LaunchMode;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Warms the API up before it reports itself ready, so the load balancer does not send the first real requests to
+ * unloaded classes, interpreted code and an empty cache. Warm-up runs in the background after start-up and
+ * {@link HealthCheckResource} fails until it has finished, or until the timeout passes so a slow step cannot keep the
+ * task out of service. The steps are:
+ * <ul>
+ *     <li>priming the AWS SDK clients,</li>
+ *     <li>synthetic GET and POST requests sent over loopback HTTP to the local port, so the HTTP server, routing,
+ *     filters, JSON binding and JWT verification all run as they do for real traffic. The requests carry a key
+ *     generated for this process in the {@value #SYNTHETIC_REQUEST_HEADER} header, their token is signed with that
+ *     key, and {@link InventoryItemResource} serves them from a {@link StubbedInventory stubbed} service so nothing
+ *     is read, written or published,</li>
+ *     <li>loading the configured hot products into {@code inventory-cache} through the real repository.</li>
+ * </ul>
+ * The key is cleared once warm-up has finished or timed out, so from then on a request carrying it is authorized and
+ * served like any other.
+ */
+@ApplicationScoped
+public class WarmUp {
+    public static final String SYNTHETIC_REQUEST_HEADER = "X-Inventory-Warm-Up";
+
+    private static final Logger LOGGER = Logger.getLogger("Listener");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final long LISTEN_POLL_MS = 50;
+    // Distinct products so the stubbed repository sees both inserts and updates, as real traffic does.
+    private static final int SYNTHETIC_PRODUCTS = 16;
+    // The request handling code logs every request, which would flood the logs during synthetic traffic.
+    private static final List<String> MUTED_LOGGERS = List.of(
+            InventoryItemResource.class.getName(), InventoryItemService.class.getName());
+
+    private final InventoryItemRepository repository;
+    private final AppConfig appConfig;
+    private volatile String syntheticKey = UUID.randomUUID() + "-" + UUID.randomUUID();
+    private final InventoryItemService syntheticService = StubbedInventory.service();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private volatile boolean started;
+    private volatile long deadlineNanos;
+    private volatile boolean timeoutReported;
+
+    @Inject
+    public WarmUp(InventoryItemRepository repository, AppConfig appConfig) {
+        this.repository = repository;
+        this.appConfig = appConfig;
+    }
+
+    /**
+     * Starts warm-up on a background thread.
+     *
+     * @param primeAwsSdks run first, to open connections to the services the API calls
+     * @return completed once every step has finished, whether or not the timeout has passed
+     */
+    public CompletableFuture<Void> start(Runnable primeAwsSdks) {
+        if (!appConfig.isWarmUpEnabled()) {
+            syntheticKey = null;
+            done.complete(null);
+            return done;
+        }
+
+        deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(appConfig.getWarmUpTimeoutMs());
+        started = true;
+
+        Thread.ofPlatform().name("warm-up").daemon().start(() -> {
+            long startedAt = System.nanoTime();
+            int failedSteps = step("AWS SDK priming", primeAwsSdks)
+                    + step("synthetic traffic", this::runSyntheticTraffic)
+                    + step("inventory cache preload", this::preloadInventoryCache);
+            LOGGER.infof("Warm-up finished in %d ms with %d failed steps",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), failedSteps);
+            syntheticKey = null;
+            done.complete(null);
+        });
+        return done;
+    }
+
+    /**
+     * @return true once warm-up has finished or timed out
+     */
+    public boolean isReady() {
+        if (done.isDone()) {
+            return true;
+        }
+        if (!started || !timedOut()) {
+            return false;
+        }
+        if (!timeoutReported) {
+            timeoutReported = true;
+            LOGGER.warnf("Warm-up did not finish within %d ms, reporting ready anyway", appConfig.getWarmUpTimeoutMs());
+        }
+        // Synthetic requests still running past the timeout fail rather than reach the stubbed service afterwards.
+        syntheticKey = null;
+        return true;
+    }
+
+    /**
+     * @param key the value of the {@value #SYNTHETIC_REQUEST_HEADER} header, or null if there is none
+     * @return true if the request is warm-up traffic, which is never the case once warm-up is ready
+     */
+    public boolean isSyntheticRequest(String key) {
+        String current = syntheticKey;
+        if (key == null || current == null || isReady()) {
+            return false;
+        }
+        return MessageDigest.isEqual(key.getBytes(StandardCharsets.UTF_8), current.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the key warm-up requests carry, or null once it has been cleared
+     */
+    String syntheticKey() {
+        return syntheticKey;
+    }
+
+    /**
+     * @return the stubbed service warm-up traffic is served from
+     */
+    public InventoryItemService syntheticService() {
+        return syntheticService;
+    }
+
+    private int step(String name, Runnable step) {
+        try {
+            step.run();
+            return 0;
+        } catch (Exception e) {
+            LOGGER.warnf(e, "Warm-up step '%s' failed", name);
+            return 1;
+        }
+    }
+
+    private void runSyntheticTraffic() {
+        String key = syntheticKey;
+        if (appConfig.getWarmUpIterations() <= 0 || key == null) {
+            return;
+        }
+
+        String token = Jwts.builder()
+                .claim("user_type", "ADMIN")
+                .signWith(Keys.hmacShaKeyFor(key.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        URI baseUri = URI.create("http://localhost:" + localPort());
+
+        var previousLevels = muteRequestLogging();
+        int iterations = 0;
+        try {
+            awaitListening(httpClient, baseUri);
+
+            for (; iterations < appConfig.getWarmUpIterations() && !timedOut(); iterations++) {
+                String productId = "warm-up-product-" + (iterations % SYNTHETIC_PRODUCTS);
+
+                expectOk(httpClient, key, HttpRequest.newBuilder(baseUri.resolve("/inventory"))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + token)
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                String.format("{\"productId\":\"%s\",\"stockLevel\":%d}", productId, iterations % 100 + 1))));
+                expectOk(httpClient, key, HttpRequest.newBuilder(baseUri.resolve("/inventory/" + productId)).GET());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            restoreRequestLogging(previousLevels);
+        }
+
+        LOGGER.infof("Warm-up sent %d synthetic GET and POST requests", iterations);
+    }
+
+    /**
+     * Waits for the HTTP server, which may start listening after warm-up has started.
+     */
+    private void awaitListening(HttpClient httpClient, URI baseUri) throws IOException, InterruptedException {
+        while (true) {
+            try {
+                httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/health")).timeout(REQUEST_TIMEOUT).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (ConnectException e) {
+                if (timedOut()) {
+                    throw e;
+                }
+                Thread.sleep(LISTEN_POLL_MS);
+            }
+        }
+    }
+
+    private static void expectOk(HttpClient httpClient, String key, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        HttpRequest synthetic = request
+                .header(SYNTHETIC_REQUEST_HEADER, key)
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+        HttpResponse<Void> response = httpClient.send(synthetic, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(String.format("Synthetic %s %s returned %d",
+                    synthetic.method(), synthetic.uri().getPath(), response.statusCode()));
+        }
+    }
+
+    private static int localPort() {
+        // Under test the server listens on the test port instead.
+        String property = LaunchMode.current() == LaunchMode.TEST ? "quarkus.http.test-port" : "quarkus.http.port";
+        return ConfigProvider.getConfig()
+                .getOptionalValue(property, Integer.class)
+                .orElse(LaunchMode.current() == LaunchMode.TEST ? 8081 : 8080);
+    }
+
+    private void preloadInventoryCache() {
+        List<String> productIds = appConfig.getWarmUpPreloadProductIds().orElse(List.of());
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        var loaded = new AtomicInteger();
+        var failed = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String productId : productIds) {
+                executor.execute(() -> {
+                    if (timedOut()) {
+                        return;
+                    }
+                    try {
+                        // Goes through the cache interceptor, so the item is stored in inventory-cache.
+                        InventoryItem item = repository.withProductId(productId);
+                        if (item != null) {
+                            loaded.incrementAndGet();
+                        }
+                    } catch (InventoryItemNotFoundException e) {
+                        // Nothing to cache for a product without stock records.
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        LOGGER.warnf("Failed to preload product %s: %s", productId, e.getMessage());
+                    }
+                });
+            }
+        }
+
+        LOGGER.infof("Warm-up loaded %d of %d hot products into the inventory cache", loaded.get(), productIds.size());
+        if (failed.get() > 0) {
+            throw new IllegalStateException(String.format("%d hot products could not be loaded", failed.get()));
+        }
+    }
+
+    private boolean timedOut() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    private static List<Level> muteRequestLogging() {
+        return MUTED_LOGGERS.stream()
+                .map(name -> {
+                    var logger = java.util.logging.Logger.getLogger(name);
+                    Level previous = logger.getLevel();
+                    logger.setLevel(Level.WARNING);
+                    return previous;
+                })
+                .toList();
+    }
+
+    private static void restoreRequestLogging(List<Level> previousLevels) {
+        for (int i = 0; i < MUTED_LOGGERS.size(); i++) {
+            java.util.logging.Logger.getLogger(MUTED_LOGGERS.get(i)).setLevel(previousLevels.get(i));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2025 Datadog, Inc.
+ */
+
+package com.inventory.api.config;
+
+import com.inventory.core.HandlerResponse;
+import com.inventory.core.InventoryItem;
+import com.inventory.core.InventoryItemDTO;
+import com.inventory.core.InventoryStockUpdatedEvent;
+import com.inventory.core.ProductOutOfStockEventV1;
+import com.inventory.core.StockReservationFailedEventV1;
+import com.inventory.core.StockReservedEventV1;
+import com.inventory.core.UpdateInventoryStockRequest;
+import com.inventory.core.adapters.CloudEventWrapper;
+import com.inventory.core.adapters.DatadogTelemetry;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registers the classes the API binds with Jackson for reflection in the native image. The resources return a
+ * {@code Response}, so the request, response and event types behind it cannot be found by the native build itself.
+ * <p>
+ * The JWT library looks up its implementation by class name from {@code Jwts} and {@code Keys}, so those classes are
+ * registered by name, along with the Jackson (de)serializers it loads as services.
+ */
+@RegisterForReflection(
+        targets = {
+                InventoryItem.class,
+                InventoryItemDTO.class,
+                HandlerResponse.class,
+                UpdateInventoryStockRequest.class,
+                CloudEventWrapper.class,
+                DatadogTelemetry.class,
+                InventoryStockUpdatedEvent.class,
+                ProductOutOfStockEventV1.class,
+                StockReservedEventV1.class,
+                StockReservationFailedEventV1.class
+        },
+        classNames = {
+                "com.inventory.core.adapters.DatadogTransactionTracker$Payload",
+                "com.inventory.core.adapters.DatadogTransactionTracker$Transaction",
+                "io.jsonwebtoken.impl.DefaultClaimsBuilder$Supplier",
+                "io.jsonwebtoken.impl.DefaultJwtBuilder$Supplier",
+                "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder$Supplier",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder$Supplier",
+                "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+                "io.jsonwebtoken.impl.security.KeysBridge",
+                "io.jsonwebtoken.impl.security.StandardCurves",
+                "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyOperations",
+                "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer"
+        })
+public final class NativeImageConfiguration {
+    private NativeImageConfiguration() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.inventory.api.filters;
+
+import com.inventory.core.EventPublisher;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Sends any events buffered for batching while handling the request, before the response is returned.
+ */
+@Provider
+public class EventFlushFilter implements ContainerResponseFilter {
+    @Inject
+    EventPublisher eventPublisher;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        eventPublisher.flush();
+    }
+}
@@ -4,17 +4,22 @@ import com.inventory.core.DataAccessException;
 import com.inventory.core.InventoryItem;
 import com.inventory.core.InventoryItemNotFoundException;
 import com.inventory.core.InventoryItemRepository;
+import com.inventory.core.OutboxEvent;
 import com.inventory.core.StaleItemException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public class MockInventoryItemRepository implements InventoryItemRepository {
     private final Map<String, InventoryItem> inventoryItems = new HashMap<>();
     private final Set<String> failUpdateForProducts = new HashSet<>();
+    private final List<OutboxEvent> outbox = new ArrayList<>();
+    private int existenceLookups = 0;
 
     @Override
     public InventoryItem withProductId(String productId) throws DataAccessException, InventoryItemNotFoundException {
@@ -29,6 +34,18 @@ public class MockInventoryItemRepository implements InventoryItemRepository {
                 item.getVersion());
     }
 
+    @Override
+    public Set<String> existingProductIds(Collection<String> productIds) throws DataAccessException {
+        existenceLookups += productIds.size();
+        Set<String> existing = new HashSet<>();
+        for (String productId : productIds) {
+            if (inventoryItems.containsKey(productId)) {
+                existing.add(productId);
+            }
+        }
+        return existing;
+    }
+
     @Override
     public void update(InventoryItem item) {
         if (failUpdateForProducts.contains(item.getProductId())) {
@@ -37,6 +54,17 @@ public class MockInventoryItemRepository implements InventoryItemRepository {
         inventoryItems.put(item.getProductId(), item);
     }
 
+    @Override
+    public void update(InventoryItem item, List<OutboxEvent> outboxEvents) {
+        // Mirrors the transactional write: the outbox events are only stored if the item update succeeds.
+        update(item);
+        outbox.addAll(outboxEvents);
+    }
+
+    public List<OutboxEvent> getOutbox() {
+        return outbox;
+    }
+
     public void failUpdateForProduct(String productId) {
         failUpdateForProducts.add(productId);
     }
@@ -46,6 +74,10 @@ public class MockInventoryItemRepository implements InventoryItemRepository {
         inventoryItems.put(item.getProductId(), item);
     }
 
+    public int getExistenceLookups() {
+        return existenceLookups;
+    }
+
     public void clear() {
         inventoryItems.clear();
     }
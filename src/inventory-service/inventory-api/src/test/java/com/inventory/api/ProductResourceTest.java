@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class ProductResourceTest {
     private MockInventoryItemRepository repository;
     private TestEventPublisher eventPublisher;
+    private StubProductService productService;
     private InventoryItemService service;
 
     @BeforeEach
@@ -25,8 +27,8 @@ class ProductResourceTest {
         repository = new MockInventoryItemRepository();
         eventPublisher = new TestEventPublisher();
         OrderCache orderCache = new InMemoryOrderCache();
-        ProductService productService = new StubProductService();
-        service = new InventoryItemService(repository, orderCache, eventPublisher, productService);
+        productService = new StubProductService();
+        service = new InventoryItemService(repository, orderCache, eventPublisher, productService, new InMemoryCatalogueCheckpoint());
     }
 
     @Test
@@ -143,6 +145,112 @@ class ProductResourceTest {
         assertEquals(0.0, repository.withProductId(productId3).getReservedStockLevel());
     }
 
+    @Test
+    void update_stock_writes_event_to_outbox_in_outbox_mode() {
+        eventPublisher.setOutboxEnabled(true);
+        var productId = UUID.randomUUID().toString();
+        var orders = new ArrayList<String>();
+        orders.add("");
+        repository.addInventoryItem(new InventoryItem(productId, 5.0, 0.0, orders));
+
+        var request = new UpdateInventoryStockRequest();
+        request.setProductId(productId);
+        request.setStockLevel(20.0);
+
+        var result = service.updateStock(request);
+
+        assertTrue(result.isSuccess());
+        assertTrue(eventPublisher.getStockUpdatedEvents().isEmpty());
+        assertEquals(1, repository.getOutbox().size());
+        assertEquals("inventory.stockUpdated.v1", repository.getOutbox().get(0).detailType());
+    }
+
+    @Test
+    void reserve_stock_leaves_no_outbox_event_when_reservation_rolls_back() {
+        eventPublisher.setOutboxEnabled(true);
+        var productId1 = UUID.randomUUID().toString();
+        var productId2 = UUID.randomUUID().toString();
+        var orders = new ArrayList<String>();
+        orders.add("");
+        repository.addInventoryItem(new InventoryItem(productId1, 10.0, 0.0, orders));
+        repository.addInventoryItem(new InventoryItem(productId2, 10.0, 0.0, new ArrayList<>(orders)));
+        repository.failUpdateForProduct(productId2);
+
+        service.reserveStockForOrder(UUID.randomUUID().toString(), List.of(productId1, productId2), "conv-1");
+
+        assertTrue(repository.getOutbox().isEmpty());
+
+        var orderNumber = UUID.randomUUID().toString();
+        var productId3 = UUID.randomUUID().toString();
+        repository.addInventoryItem(new InventoryItem(productId3, 10.0, 0.0, new ArrayList<>(orders)));
+
+        service.reserveStockForOrder(orderNumber, List.of(productId1, productId3), "conv-2");
+
+        assertEquals(1, repository.getOutbox().size());
+        assertEquals("inventory.stockReserved.v1", repository.getOutbox().get(0).detailType());
+    }
+
+    @Test
+    void refresh_product_cache_publishes_only_missing_products() {
+        var existingProductId = UUID.randomUUID().toString();
+        var newProductId = UUID.randomUUID().toString();
+        var orders = new ArrayList<String>();
+        orders.add("");
+        repository.addInventoryItem(new InventoryItem(existingProductId, 10.0, 0.0, orders));
+        productService.setCatalogue(List.of(existingProductId, newProductId));
+
+        var result = service.refreshProductCache();
+
+        assertTrue(result.getData());
+        assertEquals(1, eventPublisher.getNewProductAddedEvents().size());
+        assertEquals(newProductId, eventPublisher.getNewProductAddedEvents().get(0).getProductId());
+    }
+
+    @Test
+    void refresh_product_cache_skips_unchanged_catalogue() {
+        var existingProductId = UUID.randomUUID().toString();
+        var orders = new ArrayList<String>();
+        orders.add("");
+        repository.addInventoryItem(new InventoryItem(existingProductId, 10.0, 0.0, orders));
+        productService.setCatalogue(List.of(existingProductId));
+
+        service.refreshProductCache();
+        service.refreshProductCache();
+
+        assertEquals(1, repository.getExistenceLookups());
+        assertTrue(eventPublisher.getNewProductAddedEvents().isEmpty());
+
+        // Only the newly listed product is checked once the catalogue changes
+        var newProductId = UUID.randomUUID().toString();
+        productService.setCatalogue(List.of(existingProductId, newProductId));
+
+        service.refreshProductCache();
+
+        assertEquals(2, repository.getExistenceLookups());
+        assertEquals(1, eventPublisher.getNewProductAddedEvents().size());
+    }
+
+    @Test
+    void refresh_product_cache_publishes_nothing_when_the_catalogue_fetch_fails_part_way() {
+        var products = new ArrayList<String>();
+        for (int i = 0; i < 250; i++) {
+            products.add(UUID.randomUUID().toString());
+        }
+        productService.setCatalogue(products);
+        productService.setResult(CatalogueFetchResult.FAILED);
+
+        var result = service.refreshProductCache();
+
+        assertFalse(result.getData());
+        assertTrue(eventPublisher.getNewProductAddedEvents().isEmpty());
+
+        productService.setResult(CatalogueFetchResult.COMPLETE);
+
+        service.refreshProductCache();
+
+        assertEquals(250, eventPublisher.getNewProductAddedEvents().size());
+    }
+
     /**
      * Simple in-memory order cache for offline tests.
      */
@@ -161,12 +269,45 @@ class ProductResourceTest {
     }
 
     /**
-     * Stub product service that returns an empty catalogue for offline tests.
+     * Simple in-memory catalogue checkpoint for offline tests.
+     */
+    static class InMemoryCatalogueCheckpoint implements CatalogueCheckpoint {
+        private CatalogueSnapshot snapshot = CatalogueSnapshot.empty();
+
+        @Override
+        public CatalogueSnapshot load() {
+            return snapshot;
+        }
+
+        @Override
+        public boolean store(CatalogueSnapshot snapshot) {
+            this.snapshot = snapshot;
+            return true;
+        }
+    }
+
+    /**
+     * Stub product service that returns a configurable (initially empty) catalogue for offline tests.
      */
     static class StubProductService implements ProductService {
+        private List<String> productIds = List.of();
+        private CatalogueFetchResult result = CatalogueFetchResult.COMPLETE;
+
+        void setCatalogue(List<String> productIds) {
+            this.productIds = productIds;
+        }
+
+        /**
+         * Sets the result reported after the catalogue has been streamed, e.g. FAILED for a fetch that broke on a later page.
+         */
+        void setResult(CatalogueFetchResult result) {
+            this.result = result;
+        }
+
         @Override
-        public ArrayList<ProductCatalogueItem> getProductCatalogue() {
-            return new ArrayList<>();
+        public CatalogueFetchResult streamProductCatalogue(boolean allowNotModified, Consumer<ProductCatalogueItem> consumer) {
+            productIds.forEach(productId -> consumer.accept(new ProductCatalogueItem(productId)));
+            return result;
         }
     }
 }
@@ -0,0 +1,76 @@
+package com.inventory.api;
+
+import io.quarkus.test.junit.QuarkusIntegrationTest;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Training workload for the AOT cache built by {@code mvn -P aot verify}. It drives the packaged application through
+ * the same routes as real traffic, so the classes behind the health check, the public stock lookup, JSON binding and
+ * the JWT filter are loaded and linked while the cache is recorded, along with those the start-up warm-up loads. It
+ * needs no AWS resources: with {@code ENV=local} the AWS calls fail fast, and the SDK and error mapping classes they
+ * load are recorded too.
+ */
+@QuarkusIntegrationTest
+class StartupTrainingIT {
+    private static final int ITERATIONS = 20;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void health_check_reports_healthy_once_warmed_up() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (send(HttpRequest.newBuilder(uri("/health")).GET()).statusCode() == 503 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(200, send(HttpRequest.newBuilder(uri("/health")).GET()).statusCode());
+        }
+    }
+
+    @Test
+    void stock_lookups_are_answered() throws IOException, InterruptedException {
+        for (int i = 0; i < ITERATIONS; i++) {
+            var response = send(HttpRequest.newBuilder(uri("/inventory/" + UUID.randomUUID())).GET());
+
+            // Without a table behind it the lookup fails, but it must still be answered rather than rejected.
+            assertTrue(response.statusCode() != 401 && response.statusCode() != 405);
+        }
+    }
+
+    @Test
+    void stock_updates_without_an_admin_token_are_rejected() throws IOException, InterruptedException {
+        for (int i = 0; i < ITERATIONS; i++) {
+            var response = send(HttpRequest.newBuilder(uri("/inventory"))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer not-a-valid-token")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"productId\":\"" + UUID.randomUUID() + "\",\"stockLevel\":10.0}")));
+
+            assertEquals(401, response.statusCode());
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(String path) {
+        int port = ConfigProvider.getConfig()
+                .getOptionalValue("quarkus.http.test-port", Integer.class)
+                .orElse(8081);
+        return URI.create("http://localhost:" + port + path);
+    }
+}
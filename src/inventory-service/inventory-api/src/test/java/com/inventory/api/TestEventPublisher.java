@@ -9,17 +9,38 @@ package com.inventory.api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inventory.core.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 public class TestEventPublisher implements EventPublisher {
     private final ObjectMapper mapper = new ObjectMapper();
+    private final List<NewProductAddedEvent> newProductAddedEvents = new ArrayList<>();
+    private final List<InventoryStockUpdatedEvent> stockUpdatedEvents = new ArrayList<>();
+    private boolean outboxEnabled = false;
 
     @Override
     public void publishNewProductAddedEvent(NewProductAddedEvent evt) {
-        return;
+        newProductAddedEvents.add(evt);
+    }
+
+    @Override
+    public void publishNewProductAddedEvents(List<NewProductAddedEvent> evts) {
+        newProductAddedEvents.addAll(evts);
+    }
+
+    public List<NewProductAddedEvent> getNewProductAddedEvents() {
+        return newProductAddedEvents;
     }
 
     @Override
     public void publishInventoryStockUpdatedEvent(InventoryStockUpdatedEvent evt) {
-        return;
+        stockUpdatedEvents.add(evt);
+    }
+
+    public List<InventoryStockUpdatedEvent> getStockUpdatedEvents() {
+        return stockUpdatedEvents;
     }
 
     @Override
@@ -36,4 +57,46 @@ public class TestEventPublisher implements EventPublisher {
     public void publishStockReservationFailedEvent(StockReservationFailedEventV1 evt) {
         return;
     }
+
+    @Override
+    public boolean isOutboxEnabled() {
+        return outboxEnabled;
+    }
+
+    public void setOutboxEnabled(boolean outboxEnabled) {
+        this.outboxEnabled = outboxEnabled;
+    }
+
+    @Override
+    public OutboxEvent toOutboxEvent(InventoryStockUpdatedEvent evt) {
+        return outboxEvent("inventory.stockUpdated.v1", evt);
+    }
+
+    @Override
+    public OutboxEvent toOutboxEvent(StockReservedEventV1 evt) {
+        return outboxEvent("inventory.stockReserved.v1", evt);
+    }
+
+    @Override
+    public OutboxEvent toOutboxEvent(ProductOutOfStockEventV1 evt) {
+        return outboxEvent("inventory.outOfStock.v1", evt);
+    }
+
+    private OutboxEvent outboxEvent(String detailType, Object evt) {
+        try {
+            return new OutboxEvent(UUID.randomUUID().toString(), detailType, mapper.writeValueAsString(evt));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        return;
+    }
+
+    @Override
+    public boolean drain(Duration timeout) {
+        return true;
+    }
 }
@@ -0,0 +1,173 @@
+package com.inventory.api;
+
+import com.inventory.api.filters.JWTFilter;
+import com.inventory.core.InventoryItem;
+import com.inventory.core.InventoryItemService;
+import com.inventory.core.ParameterCache;
+import com.inventory.core.config.TestAppConfig;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmUpTest {
+    @Test
+    void hot_products_are_preloaded_through_the_real_repository() throws Exception {
+        Set<String> lookedUp = ConcurrentHashMap.newKeySet();
+        var repository = new MockInventoryItemRepository() {
+            @Override
+            public InventoryItem withProductId(String productId) {
+                lookedUp.add(productId);
+                return super.withProductId(productId);
+            }
+        };
+        repository.addInventoryItem(new InventoryItem("hot-product", 10.0, 0.0, new ArrayList<>()));
+        var warmUp = new WarmUp(repository, appConfig(60_000, List.of("hot-product", "missing-product")));
+
+        warmUp.start(() -> {}).get(30, TimeUnit.SECONDS);
+
+        assertTrue(warmUp.isReady());
+        assertEquals(Set.of("hot-product", "missing-product"), lookedUp);
+        assertEquals(10.0, repository.withProductId("hot-product").getCurrentStockLevel());
+    }
+
+    @Test
+    void only_requests_carrying_the_warm_up_key_are_synthetic() {
+        var warmUp = new WarmUp(new MockInventoryItemRepository(), appConfig(200, List.of()));
+
+        assertFalse(warmUp.isSyntheticRequest(null));
+        assertFalse(warmUp.isSyntheticRequest(""));
+        assertFalse(warmUp.isSyntheticRequest(UUID.randomUUID() + "-" + UUID.randomUUID()));
+    }
+
+    @Test
+    void the_warm_up_key_gets_no_special_treatment_once_warm_up_is_ready() throws Exception {
+        var repository = new MockInventoryItemRepository();
+        repository.addInventoryItem(new InventoryItem("product-1", 10.0, 0.0, new ArrayList<>()));
+        var warmUp = new WarmUp(repository, appConfig(60_000, List.of()));
+        String key = warmUp.syntheticKey();
+        assertTrue(warmUp.isSyntheticRequest(key));
+
+        warmUp.start(() -> {}).get(30, TimeUnit.SECONDS);
+
+        assertFalse(warmUp.isSyntheticRequest(key));
+        assertNull(warmUp.syntheticKey());
+
+        // The token must now be signed with the JWT secret, not the warm-up key.
+        var filter = new JWTFilter();
+        inject(filter, "authenticator", new Authenticator(new SecretParameterCache()));
+        inject(filter, "warmUp", warmUp);
+        assertEquals(401, filter(filter, key, adminToken(key)));
+        assertNull(filter(filter, key, adminToken(SecretParameterCache.SECRET)));
+
+        var resource = new InventoryItemResource();
+        resource.service = new InventoryItemService(repository, new ProductResourceTest.InMemoryOrderCache(),
+                new TestEventPublisher(), new ProductResourceTest.StubProductService(),
+                new ProductResourceTest.InMemoryCatalogueCheckpoint());
+        resource.warmUp = warmUp;
+        assertEquals(200, resource.getProduct(key, "product-1").getStatus());
+    }
+
+    @Test
+    void health_check_fails_until_warm_up_times_out() throws Exception {
+        var warmUp = new WarmUp(new MockInventoryItemRepository(), appConfig(200, List.of()));
+        var healthCheck = new HealthCheckResource();
+        healthCheck.warmUp = warmUp;
+        var release = new CountDownLatch(1);
+
+        assertEquals(503, healthCheck.hello().getStatus());
+
+        var done = warmUp.start(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertEquals(503, healthCheck.hello().getStatus());
+
+        Thread.sleep(300);
+        assertEquals(200, healthCheck.hello().getStatus());
+        assertFalse(done.isDone());
+
+        release.countDown();
+        done.get(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return the status the filter aborted the request with, or null if it let the request through
+     */
+    private static Integer filter(JWTFilter filter, String warmUpKey, String token) throws Exception {
+        Map<String, String> headers = Map.of(WarmUp.SYNTHETIC_REQUEST_HEADER, warmUpKey, "Authorization", "Bearer " + token);
+        var aborted = new AtomicReference<Response>();
+        var request = (ContainerRequestContext) Proxy.newProxyInstance(ContainerRequestContext.class.getClassLoader(),
+                new Class<?>[]{ContainerRequestContext.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getMethod" -> "GET";
+                    case "getHeaderString" -> headers.get((String) args[0]);
+                    case "abortWith" -> {
+                        aborted.set((Response) args[0]);
+                        yield null;
+                    }
+                    default -> null;
+                });
+        filter.filter(request);
+        return aborted.get() == null ? null : aborted.get().getStatus();
+    }
+
+    private static String adminToken(String secret) {
+        return Jwts.builder()
+                .claim("user_type", "ADMIN")
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static class SecretParameterCache implements ParameterCache {
+        static final String SECRET = "a-jwt-secret-that-is-long-enough-for-hmac-sha-256";
+
+        @Override
+        public Optional<String> get(String name) {
+            return Optional.of(SECRET);
+        }
+
+        @Override
+        public void preload(Collection<String> names) {
+        }
+
+        @Override
+        public void refresh() {
+        }
+    }
+
+    private static TestAppConfig appConfig(long timeoutMs, List<String> preloadProductIds) {
+        return new TestAppConfig()
+                .with("warmup.enabled", true)
+                .with("warmup.timeout.ms", timeoutMs)
+                // Synthetic traffic needs the HTTP server, so it is left to StartupTrainingIT.
+                .with("warmup.iterations", 0)
+                .with("warmup.preload.product.ids", preloadProductIds);
+    }
+}
@@ -0,0 +1,16 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core;
+
+public interface CatalogueCheckpoint {
+    CatalogueSnapshot load();
+
+    /**
+     * @return true if the snapshot was stored and will be returned by the next {@link #load()}
+     */
+    boolean store(CatalogueSnapshot snapshot);
+}
@@ -0,0 +1,16 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core;
+
+public enum CatalogueFetchResult {
+    /** The whole catalogue was streamed to the consumer. */
+    COMPLETE,
+    /** The product API reported the catalogue unchanged since the last complete fetch; nothing was streamed. */
+    NOT_MODIFIED,
+    /** The fetch failed, possibly after some items had been streamed. */
+    FAILED
+}
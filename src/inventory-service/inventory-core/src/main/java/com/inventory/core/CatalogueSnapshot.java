@@ -0,0 +1,46 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The result of the last product catalogue reconciliation.
+ *
+ * @param catalogueHash        hash of the full set of product IDs seen in the catalogue
+ * @param reconciledProductIds products confirmed to have an inventory record
+ * @param pendingProductIds    products a NewProductAdded event was published for, but that had no inventory record yet
+ * @param updatedAt            epoch millis the snapshot was written
+ */
+public record CatalogueSnapshot(String catalogueHash, Set<String> reconciledProductIds, Set<String> pendingProductIds, long updatedAt) {
+    public static CatalogueSnapshot empty() {
+        return new CatalogueSnapshot("", Set.of(), Set.of(), 0);
+    }
+
+    public boolean isEmpty() {
+        return catalogueHash.isEmpty();
+    }
+
+    public static String hashOf(Collection<String> productIds) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String productId : new TreeSet<>(productIds)) {
+                digest.update(productId.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,9 +6,14 @@
 
 package com.inventory.core;
 
+import java.time.Duration;
+import java.util.List;
+
 public interface EventPublisher {
     void publishNewProductAddedEvent(NewProductAddedEvent evt);
 
+    void publishNewProductAddedEvents(List<NewProductAddedEvent> evts);
+
     void publishInventoryStockUpdatedEvent(InventoryStockUpdatedEvent evt);
 
     void publishStockReservedEvent(StockReservedEventV1 evt);
@@ -16,4 +21,30 @@ public interface EventPublisher {
     void publishProductOutOfStockEvent(ProductOutOfStockEventV1 evt);
 
     void publishStockReservationFailedEvent(StockReservationFailedEventV1 evt);
+
+    /**
+     * In outbox mode, events describing an inventory change are not published directly. They are written in the
+     * same transaction as the change, using the toOutboxEvent methods, and published later by an {@link OutboxRelay}.
+     */
+    boolean isOutboxEnabled();
+
+    OutboxEvent toOutboxEvent(InventoryStockUpdatedEvent evt);
+
+    OutboxEvent toOutboxEvent(StockReservedEventV1 evt);
+
+    OutboxEvent toOutboxEvent(ProductOutOfStockEventV1 evt);
+
+    /**
+     * Sends any events still buffered for batching. Call at the end of every request or invocation.
+     */
+    void flush();
+
+    /**
+     * Flushes, along with any events published outside a request or invocation, such as from a worker thread or an
+     * asynchronous callback, then waits up to the timeout for publishes still in flight in async mode to complete.
+     * Call before a Lambda execution environment can be frozen, or the application shuts down.
+     *
+     * @return true if nothing was left in flight
+     */
+    boolean drain(Duration timeout);
 }
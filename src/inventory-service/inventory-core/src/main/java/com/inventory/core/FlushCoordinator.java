@@ -0,0 +1,40 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core;
+
+import java.time.Duration;
+
+/**
+ * The single point where buffered work is sent before a Lambda handler returns and its execution environment can
+ * be frozen. Anything that holds work back, such as batched events or tracked transactions, registers here, and
+ * every handler calls {@link #flush} once at the end of its invocation.
+ */
+public interface FlushCoordinator {
+    /**
+     * Something that buffers work and can send it within a timeout.
+     */
+    @FunctionalInterface
+    interface Participant {
+        /**
+         * @return true if everything buffered was sent
+         */
+        boolean flush(Duration timeout);
+    }
+
+    /**
+     * Adds a participant. Participants are flushed in the order they registered.
+     */
+    void register(String name, Participant participant);
+
+    /**
+     * Flushes every participant, within a budget worked out from the time the invocation has left, as reported by
+     * the Lambda context's {@code getRemainingTimeInMillis()}.
+     *
+     * @return true if every participant finished
+     */
+    boolean flush(long remainingTimeMillis);
+}
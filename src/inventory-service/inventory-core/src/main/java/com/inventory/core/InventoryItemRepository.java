@@ -6,7 +6,18 @@
 
 package com.inventory.core;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 public interface InventoryItemRepository {
     InventoryItem withProductId(String productId) throws DataAccessException, InventoryItemNotFoundException;
+    Set<String> existingProductIds(Collection<String> productIds) throws DataAccessException;
     void update(InventoryItem item) throws DataAccessException;
+
+    /**
+     * Writes the item and the outbox events in a single transaction, so the events exist if and only if the
+     * change they describe was made.
+     */
+    void update(InventoryItem item, List<OutboxEvent> outboxEvents) throws DataAccessException;
 }
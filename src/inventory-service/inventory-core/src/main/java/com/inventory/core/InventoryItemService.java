@@ -6,7 +6,6 @@
 
 package com.inventory.core;
 
-import com.inventory.core.adapters.ProductCatalogueItem;
 import io.opentracing.Scope;
 import io.opentracing.Span;
 import io.opentracing.log.Fields;
@@ -19,7 +18,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -31,19 +32,22 @@ import static java.lang.Thread.sleep;
 public class InventoryItemService {
     private static final int MAX_RETRIES = 3;
     private static final long BASE_BACKOFF_MS = 50;
+    private static final int RECONCILE_BATCH_SIZE = 100;
 
     private final InventoryItemRepository repository;
     private final OrderCache orderCache;
     private final EventPublisher eventPublisher;
     private final ProductService productService;
+    private final CatalogueCheckpoint catalogueCheckpoint;
     private final Logger logger = LoggerFactory.getLogger(InventoryItemService.class);
 
     @Inject
-    public InventoryItemService(InventoryItemRepository repository, OrderCache orderCache, EventPublisher eventPublisher, ProductService productService) {
+    public InventoryItemService(InventoryItemRepository repository, OrderCache orderCache, EventPublisher eventPublisher, ProductService productService, CatalogueCheckpoint catalogueCheckpoint) {
         this.repository = repository;
         this.orderCache = orderCache;
         this.eventPublisher = eventPublisher;
         this.productService = productService;
+        this.catalogueCheckpoint = catalogueCheckpoint;
     }
 
     public HandlerResponse<InventoryItemDTO> withProductId(String productId) {
@@ -103,8 +107,13 @@ public class InventoryItemService {
                 }
                 existingInventoryItem.setCurrentStockLevel(request.getStockLevel());
 
+                List<OutboxEvent> outboxEvents = this.eventPublisher.isOutboxEnabled()
+                        ? List.of(this.eventPublisher.toOutboxEvent(new InventoryStockUpdatedEvent(
+                                request.getProductId(), originalStockLevel, request.getStockLevel())))
+                        : List.of();
+
                 try {
-                    this.repository.update(existingInventoryItem);
+                    this.repository.update(existingInventoryItem, outboxEvents);
                     updatedItem = existingInventoryItem;
                     break;
                 } catch (StaleItemException e) {
@@ -119,9 +128,11 @@ public class InventoryItemService {
                 }
             }
 
-            this.eventPublisher.publishInventoryStockUpdatedEvent(
-                    new InventoryStockUpdatedEvent(updatedItem.getProductId(),
-                            originalStockLevel, request.getStockLevel()));
+            if (!this.eventPublisher.isOutboxEnabled()) {
+                this.eventPublisher.publishInventoryStockUpdatedEvent(
+                        new InventoryStockUpdatedEvent(updatedItem.getProductId(),
+                                originalStockLevel, request.getStockLevel()));
+            }
 
             return new HandlerResponse<>(new InventoryItemDTO(updatedItem), List.of("OK"), true);
         } catch (Exception e) {
@@ -178,10 +189,19 @@ public class InventoryItemService {
                 // Update all reserved items with optimistic locking retry.
                 // Track successes so we can roll back if a later write fails.
                 List<String> successfullyReserved = new ArrayList<>();
+                List<InventoryItem> toReserve = result.stockAddedFor();
+                var stockReservedEvent = new StockReservedEventV1(orderNumber, conversationId);
+                boolean stockReservedEventWritten = false;
                 try {
-                    for (InventoryItem inventoryItem : result.stockAddedFor()) {
-                        reserveStockWithRetry(inventoryItem.getProductId(), orderNumber);
-                        successfullyReserved.add(inventoryItem.getProductId());
+                    for (int i = 0; i < toReserve.size(); i++) {
+                        // In outbox mode the stockReserved event is committed with the last reservation write,
+                        // so it is only ever stored once every product has been reserved.
+                        List<OutboxEvent> outboxEvents = i == toReserve.size() - 1 && this.eventPublisher.isOutboxEnabled()
+                                ? List.of(this.eventPublisher.toOutboxEvent(stockReservedEvent))
+                                : List.of();
+                        reserveStockWithRetry(toReserve.get(i).getProductId(), orderNumber, outboxEvents);
+                        successfullyReserved.add(toReserve.get(i).getProductId());
+                        stockReservedEventWritten = !outboxEvents.isEmpty();
                     }
                 } catch (Exception reservationEx) {
                     logger.error("Partial reservation failure after {} successful writes, rolling back", successfullyReserved.size(), reservationEx);
@@ -194,8 +214,9 @@ public class InventoryItemService {
                     }
                     throw reservationEx;
                 }
-                this.eventPublisher.publishStockReservedEvent(
-                        new StockReservedEventV1(orderNumber, conversationId));
+                if (!stockReservedEventWritten) {
+                    this.eventPublisher.publishStockReservedEvent(stockReservedEvent);
+                }
             }
 
             return new HandlerResponse<>(true, List.of("OK"), true);
@@ -222,32 +243,102 @@ public class InventoryItemService {
         final Span span = GlobalTracer.get().activeSpan();
         logger.info("Checking all products exist from product cache");
 
-        var products = this.productService.getProductCatalogue();
-
+        CatalogueSnapshot previous = this.catalogueCheckpoint.load();
         if (span != null) {
-            span.setTag("product.count", products.size());
+            span.setTag("catalogue.incremental", !previous.isEmpty());
         }
 
-        if (products == null || products.isEmpty()) {
+        // Products are checked against the table in batches while the catalogue is still being streamed. Only products
+        // that have not already been confirmed to have an inventory record need checking. Missing products are only
+        // published once the whole catalogue has been read, so a fetch that fails part way publishes nothing.
+        Set<String> catalogueProductIds = new HashSet<>();
+        Set<String> reconciled = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        List<String> candidates = new ArrayList<>(RECONCILE_BATCH_SIZE);
+        int[] checkedCount = {0};
+
+        // A catalogue the product API reports as unchanged can only be skipped if the last run left nothing pending.
+        boolean allowNotModified = !previous.isEmpty() && previous.pendingProductIds().isEmpty();
+
+        CatalogueFetchResult fetchResult = this.productService.streamProductCatalogue(allowNotModified, product -> {
+            String productId = product.getProductId();
+            if (productId == null || !catalogueProductIds.add(productId)) {
+                return;
+            }
+            if (previous.reconciledProductIds().contains(productId)) {
+                reconciled.add(productId);
+                return;
+            }
+            candidates.add(productId);
+            if (candidates.size() >= RECONCILE_BATCH_SIZE) {
+                checkedCount[0] += candidates.size();
+                findMissingProducts(candidates, reconciled, missing);
+                candidates.clear();
+            }
+        });
+
+        if (fetchResult == CatalogueFetchResult.NOT_MODIFIED) {
+            logger.info("Product catalogue not modified since last reconciliation");
+            if (span != null) {
+                span.setTag("catalogue.notModified", true);
+            }
+            return new HandlerResponse<>(true, List.of("Success"), false);
+        }
+
+        if (fetchResult != CatalogueFetchResult.COMPLETE || catalogueProductIds.isEmpty()) {
             logger.warn("No products returned from product service");
             return new HandlerResponse<>(false, List.of("No products found"), false);
         }
 
-        for (ProductCatalogueItem product : products) {
-            try {
-                logger.info("Checking product {}", product.getProductId());
-                var existingProduct = this.repository.withProductId(product.getProductId());
-                logger.info("Found existing product with id {}", existingProduct.getProductId());
-            }
-            catch (InventoryItemNotFoundException e) {
-                logger.info("Didn't find existing product with id {}", product.getProductId());
-                this.eventPublisher.publishNewProductAddedEvent(new NewProductAddedEvent(product.getProductId()));
-            }
+        if (!candidates.isEmpty()) {
+            checkedCount[0] += candidates.size();
+            findMissingProducts(candidates, reconciled, missing);
+        }
+
+        Set<String> pending = publishNewProducts(missing);
+
+        if (span != null) {
+            span.setTag("product.count", catalogueProductIds.size());
+            span.setTag("catalogue.checkedCount", checkedCount[0]);
+            span.setTag("catalogue.newProductCount", pending.size());
+        }
+
+        String catalogueHash = CatalogueSnapshot.hashOf(catalogueProductIds);
+        if (!previous.isEmpty() && previous.catalogueHash().equals(catalogueHash) && previous.pendingProductIds().isEmpty()) {
+            logger.info("Product catalogue unchanged since last reconciliation");
+            this.productService.markCatalogueReconciled();
+            return new HandlerResponse<>(true, List.of("Success"), false);
+        }
+
+        logger.info("Checked {} of {} catalogue products", checkedCount[0], catalogueProductIds.size());
+        // The product API may only report the catalogue as unchanged once the checkpoint describing it is stored.
+        if (this.catalogueCheckpoint.store(new CatalogueSnapshot(catalogueHash, reconciled, pending, System.currentTimeMillis()))
+                && pending.isEmpty()) {
+            this.productService.markCatalogueReconciled();
         }
 
         return new HandlerResponse<>(true, List.of("Success"), false);
     }
 
+    private void findMissingProducts(List<String> candidates, Set<String> reconciled, List<String> missing) {
+        Set<String> existing = this.repository.existingProductIds(candidates);
+        reconciled.addAll(existing);
+        candidates.stream()
+                .filter(productId -> !existing.contains(productId))
+                .forEach(missing::add);
+    }
+
+    private Set<String> publishNewProducts(List<String> missing) {
+        if (!missing.isEmpty()) {
+            logger.info("Didn't find existing products for {} catalogue items", missing.size());
+        }
+        for (int from = 0; from < missing.size(); from += RECONCILE_BATCH_SIZE) {
+            List<String> batch = missing.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, missing.size()));
+            this.eventPublisher.publishNewProductAddedEvents(batch.stream().map(NewProductAddedEvent::new).toList());
+        }
+        return new HashSet<>(missing);
+    }
+
     private InventoryItemReservationResult reserveStockForInventoryItems(String orderNumber, List<String> products, Span span) {
         AtomicBoolean isFailure = new AtomicBoolean(false);
         List<InventoryItem> stockAddedFor = Collections.synchronizedList(new ArrayList<>());
@@ -279,7 +370,7 @@ public class InventoryItemService {
     private record InventoryItemReservationResult(AtomicBoolean isFailure, List<InventoryItem> stockAddedFor) {
     }
 
-    private void reserveStockWithRetry(String productId, String orderNumber) {
+    private void reserveStockWithRetry(String productId, String orderNumber, List<OutboxEvent> outboxEvents) {
         for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
             var inventoryItem = this.repository.withProductId(productId);
 
@@ -294,7 +385,7 @@ public class InventoryItemService {
 
             inventoryItem.reserveStockFor(orderNumber);
             try {
-                this.repository.update(inventoryItem);
+                this.repository.update(inventoryItem, outboxEvents);
                 return;
             } catch (StaleItemException e) {
                 if (attempt == MAX_RETRIES) {
@@ -415,8 +506,17 @@ public class InventoryItemService {
 
                         inventoryItem.stockDispatchedFor(orderNumber);
 
+                        List<OutboxEvent> outboxEvents = new ArrayList<>();
+                        if (this.eventPublisher.isOutboxEnabled()) {
+                            outboxEvents.add(this.eventPublisher.toOutboxEvent(new InventoryStockUpdatedEvent(
+                                    productId, previousStockLevel, inventoryItem.getCurrentStockLevel())));
+                            if (inventoryItem.getAvailableStockLevel() <= 0) {
+                                outboxEvents.add(this.eventPublisher.toOutboxEvent(new ProductOutOfStockEventV1(productId)));
+                            }
+                        }
+
                         try {
-                            this.repository.update(inventoryItem);
+                            this.repository.update(inventoryItem, outboxEvents);
                             dispatched = inventoryItem;
                             break;
                         } catch (StaleItemException e) {
@@ -432,15 +532,20 @@ public class InventoryItemService {
                     }
 
                     if (dispatched != null) {
-                        this.eventPublisher.publishInventoryStockUpdatedEvent(
-                                new InventoryStockUpdatedEvent(dispatched.getProductId(),
-                                        previousStockLevel, dispatched.getCurrentStockLevel()));
+                        boolean publish = !this.eventPublisher.isOutboxEnabled();
+                        if (publish) {
+                            this.eventPublisher.publishInventoryStockUpdatedEvent(
+                                    new InventoryStockUpdatedEvent(dispatched.getProductId(),
+                                            previousStockLevel, dispatched.getCurrentStockLevel()));
+                        }
 
                         if (dispatched.getAvailableStockLevel() <= 0) {
                             stockCheckSpan.setTag("product.outOfStock", "true");
                             logger.warn("Product out of stock after dispatch: {}", productId);
-                            this.eventPublisher.publishProductOutOfStockEvent(
-                                    new ProductOutOfStockEventV1(productId));
+                            if (publish) {
+                                this.eventPublisher.publishProductOutOfStockEvent(
+                                        new ProductOutOfStockEventV1(productId));
+                            }
                         }
 
                         logger.info("Product dispatched: {}", productId);
@@ -0,0 +1,18 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core;
+
+/**
+ * An event written to the outbox in the same transaction as the inventory change it describes, waiting to be
+ * published by an {@link OutboxRelay}.
+ *
+ * @param id         the CloudEvent ID, also used as the outbox item key
+ * @param detailType the EventBridge detail type
+ * @param detail     the serialised CloudEvent
+ */
+public record OutboxEvent(String id, String detailType, String detail) {
+}
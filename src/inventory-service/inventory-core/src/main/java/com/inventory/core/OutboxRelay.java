@@ -0,0 +1,18 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core;
+
+import java.util.List;
+
+public interface OutboxRelay {
+    /**
+     * Publishes outbox events to the event bus and deletes the ones that were accepted from the outbox.
+     *
+     * @return the events that could not be published, and are still in the outbox
+     */
+    List<OutboxEvent> relay(List<OutboxEvent> events);
+}
@@ -0,0 +1,29 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2025 Datadog, Inc.
+ */
+
+package com.inventory.core;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface ParameterCache {
+    /**
+     * Returns the cached value of an SSM parameter. A value that is due for refresh is still returned while it
+     * is refreshed in the background; only a parameter that has never been loaded is fetched inline.
+     */
+    Optional<String> get(String name);
+
+    /**
+     * Loads the given parameters in as few GetParameters calls as possible, and keeps them refreshed.
+     */
+    void preload(Collection<String> names);
+
+    /**
+     * Fetches every cached parameter again now, whether or not it is due, and keeps the last known value of any
+     * that cannot be fetched.
+     */
+    void refresh();
+}
@@ -3,7 +3,29 @@ package com.inventory.core;
 import com.inventory.core.adapters.ProductCatalogueItem;
 
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
 public interface ProductService {
-    ArrayList<ProductCatalogueItem> getProductCatalogue();
+    /**
+     * Streams each product in the catalogue to the consumer as it is decoded.
+     *
+     * @param allowNotModified if true, the fetch may be made conditional on the catalogue having changed since
+     *                         the last complete fetch, returning {@link CatalogueFetchResult#NOT_MODIFIED} if not
+     */
+    CatalogueFetchResult streamProductCatalogue(boolean allowNotModified, Consumer<ProductCatalogueItem> consumer);
+
+    /**
+     * Called once the catalogue from the last {@link CatalogueFetchResult#COMPLETE} fetch has been reconciled and
+     * checkpointed, so a later conditional fetch may skip it. Until then, the catalogue is fetched again in full.
+     */
+    default void markCatalogueReconciled() {
+    }
+
+    default ArrayList<ProductCatalogueItem> getProductCatalogue() {
+        var products = new ArrayList<ProductCatalogueItem>();
+        if (streamProductCatalogue(false, products::add) != CatalogueFetchResult.COMPLETE) {
+            return new ArrayList<>();
+        }
+        return products;
+    }
 }
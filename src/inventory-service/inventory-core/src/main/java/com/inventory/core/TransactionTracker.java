@@ -6,6 +6,18 @@
 
 package com.inventory.core;
 
+import java.time.Duration;
+
 public interface TransactionTracker {
     void track(String transactionId, String checkpoint);
+
+    /**
+     * Sends any transactions still buffered, waiting up to the timeout. Call before a Lambda execution environment
+     * can be frozen.
+     *
+     * @return true if everything buffered was sent
+     */
+    default boolean flush(Duration timeout) {
+        return true;
+    }
 }
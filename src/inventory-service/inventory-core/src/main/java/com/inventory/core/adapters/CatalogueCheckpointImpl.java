@@ -0,0 +1,301 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.CatalogueCheckpoint;
+import com.inventory.core.CatalogueSnapshot;
+import com.inventory.core.config.AppConfig;
+import io.opentracing.Span;
+import io.opentracing.util.GlobalTracer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores the product catalogue reconciliation checkpoint in the inventory table. A header item holds the catalogue
+ * hash and points at a generation of shard items, each holding up to {@value #SHARD_SIZE} product IDs, so the
+ * checkpoint is not bound by the 400 KB item size limit however large the catalogue grows.
+ * <p>
+ * A new generation is written in full before the header is switched to it, and the previous generation is deleted
+ * afterwards, so a failed store leaves the last complete checkpoint in place.
+ * When incremental refresh is disabled, or the checkpoint is older than the full refresh interval, or a shard is
+ * missing, an empty snapshot is returned so the next run reconciles the whole catalogue.
+ */
+@ApplicationScoped
+public class CatalogueCheckpointImpl implements CatalogueCheckpoint {
+    // Roughly 80 KB of UUIDs, leaving room for longer product IDs.
+    static final int SHARD_SIZE = 2_000;
+    // BatchWriteItem takes at most 25 requests and BatchGetItem at most 100 keys.
+    private static final int WRITE_BATCH_SIZE = 25;
+    private static final int READ_BATCH_SIZE = 100;
+    private static final int MAX_BATCH_ATTEMPTS = 5;
+
+    private final DynamoDbClient dynamoDB;
+    private final AppConfig appConfig;
+    private final Logger logger = LoggerFactory.getLogger(CatalogueCheckpointImpl.class);
+    private static final String PARTITION_KEY = "PK";
+    private static final String CHECKPOINT_PARTITION_KEY = "CATALOGUE_CHECKPOINT";
+    private static final String TYPE_KEY = "Type";
+    private static final String HASH_KEY = "catalogueHash";
+    private static final String GENERATION_KEY = "generation";
+    private static final String RECONCILED_SHARDS_KEY = "reconciledShards";
+    private static final String PENDING_SHARDS_KEY = "pendingShards";
+    private static final String PRODUCTS_KEY = "products";
+    private static final String UPDATED_AT_KEY = "updatedAt";
+    private static final String RECONCILED = "reconciled";
+    private static final String PENDING = "pending";
+
+    @Inject
+    public CatalogueCheckpointImpl(DynamoDbClient dynamoDB, AppConfig appConfig) {
+        this.dynamoDB = dynamoDB;
+        this.appConfig = appConfig;
+    }
+
+    @Override
+    public CatalogueSnapshot load() {
+        final Span span = GlobalTracer.get().activeSpan();
+
+        if (!appConfig.isCatalogueIncrementalRefreshEnabled()) {
+            return CatalogueSnapshot.empty();
+        }
+
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(appConfig.getTableName())
+                .key(headerKey())
+                .consistentRead(true)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .build();
+
+        try {
+            Map<String, AttributeValue> item = dynamoDB.getItem(request).item();
+
+            if (item.isEmpty() || !item.containsKey(HASH_KEY) || !item.containsKey(GENERATION_KEY)) {
+                logger.info("No catalogue checkpoint found, running full reconciliation");
+                return CatalogueSnapshot.empty();
+            }
+
+            long updatedAt = Long.parseLong(item.get(UPDATED_AT_KEY).n());
+            long fullRefreshIntervalMs = appConfig.getCatalogueFullRefreshIntervalMinutes() * 60_000L;
+            if (System.currentTimeMillis() - updatedAt > fullRefreshIntervalMs) {
+                logger.info("Catalogue checkpoint is older than {} minutes, running full reconciliation",
+                        appConfig.getCatalogueFullRefreshIntervalMinutes());
+                return CatalogueSnapshot.empty();
+            }
+
+            Map<String, Set<String>> shards = loadShards(item.get(GENERATION_KEY).s(),
+                    shardCount(item, RECONCILED_SHARDS_KEY), shardCount(item, PENDING_SHARDS_KEY));
+            if (shards == null) {
+                logger.warn("Catalogue checkpoint is missing shards, running full reconciliation");
+                return CatalogueSnapshot.empty();
+            }
+            CatalogueSnapshot snapshot = new CatalogueSnapshot(item.get(HASH_KEY).s(),
+                    shards.getOrDefault(RECONCILED, Set.of()), shards.getOrDefault(PENDING, Set.of()), updatedAt);
+
+            if (span != null) {
+                span.setTag("catalogue.checkpoint.reconciledCount", snapshot.reconciledProductIds().size());
+                span.setTag("catalogue.checkpoint.pendingCount", snapshot.pendingProductIds().size());
+            }
+
+            return snapshot;
+        } catch (Exception e) {
+            logger.error("Error loading catalogue checkpoint, running full reconciliation", e);
+            if (span != null) {
+                span.setTag("error.catalogueCheckpoint", true);
+                span.setTag("error.message", e.getMessage());
+            }
+            return CatalogueSnapshot.empty();
+        }
+    }
+
+    @Override
+    public boolean store(CatalogueSnapshot snapshot) {
+        final Span span = GlobalTracer.get().activeSpan();
+
+        String generation = UUID.randomUUID().toString();
+        List<Map<String, AttributeValue>> shards = new ArrayList<>();
+        int reconciledShards = addShards(shards, generation, RECONCILED, snapshot.reconciledProductIds());
+        int pendingShards = addShards(shards, generation, PENDING, snapshot.pendingProductIds());
+
+        HashMap<String, AttributeValue> header = new HashMap<>();
+        header.put(PARTITION_KEY, AttributeValue.fromS(CHECKPOINT_PARTITION_KEY));
+        header.put(TYPE_KEY, AttributeValue.fromS("CatalogueCheckpoint"));
+        header.put(HASH_KEY, AttributeValue.fromS(snapshot.catalogueHash()));
+        header.put(UPDATED_AT_KEY, AttributeValue.fromN(Long.toString(snapshot.updatedAt())));
+        header.put(GENERATION_KEY, AttributeValue.fromS(generation));
+        header.put(RECONCILED_SHARDS_KEY, AttributeValue.fromN(Integer.toString(reconciledShards)));
+        header.put(PENDING_SHARDS_KEY, AttributeValue.fromN(Integer.toString(pendingShards)));
+
+        Map<String, AttributeValue> previous;
+        try {
+            previous = dynamoDB.getItem(GetItemRequest.builder()
+                    .tableName(appConfig.getTableName())
+                    .key(headerKey())
+                    .consistentRead(true)
+                    .build()).item();
+
+            writeBatches(shards.stream()
+                    .map(shard -> WriteRequest.builder().putRequest(PutRequest.builder().item(shard).build()).build())
+                    .toList());
+
+            var response = this.dynamoDB.putItem(PutItemRequest.builder()
+                    .tableName(appConfig.getTableName())
+                    .item(header)
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build());
+
+            if (span != null && response.consumedCapacity() != null) {
+                Double wcu = response.consumedCapacity().writeCapacityUnits();
+                if (wcu != null) {
+                    span.setTag("db.wcu", wcu);
+                }
+            }
+            if (span != null) {
+                span.setTag("catalogue.checkpoint.shardCount", shards.size());
+            }
+            logger.info("Stored catalogue checkpoint with {} reconciled and {} pending products in {} shards",
+                    snapshot.reconciledProductIds().size(), snapshot.pendingProductIds().size(), shards.size());
+        } catch (Exception e) {
+            // A missing checkpoint only costs a full reconciliation on the next run.
+            logger.error("Error storing catalogue checkpoint", e);
+            if (span != null) {
+                span.setTag("error.catalogueCheckpoint", true);
+                span.setTag("error.message", e.getMessage());
+            }
+            deleteShards(generation, reconciledShards, pendingShards);
+            return false;
+        }
+
+        if (previous != null && previous.containsKey(GENERATION_KEY)) {
+            deleteShards(previous.get(GENERATION_KEY).s(),
+                    shardCount(previous, RECONCILED_SHARDS_KEY), shardCount(previous, PENDING_SHARDS_KEY));
+        }
+        return true;
+    }
+
+    private static int addShards(List<Map<String, AttributeValue>> shards, String generation, String kind, Set<String> productIds) {
+        List<String> ids = List.copyOf(productIds);
+        int count = 0;
+        // DynamoDB does not allow empty string sets, so an empty set has no shards.
+        for (int from = 0; from < ids.size(); from += SHARD_SIZE) {
+            shards.add(Map.of(
+                    PARTITION_KEY, AttributeValue.fromS(shardKey(generation, kind, count)),
+                    TYPE_KEY, AttributeValue.fromS("CatalogueCheckpointShard"),
+                    PRODUCTS_KEY, AttributeValue.fromSs(ids.subList(from, Math.min(from + SHARD_SIZE, ids.size())))));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the product IDs of each kind, or null if any of the shards the header points at is missing
+     */
+    private Map<String, Set<String>> loadShards(String generation, int reconciledShards, int pendingShards) {
+        List<Map<String, AttributeValue>> keys = shardKeys(generation, reconciledShards, pendingShards);
+        Map<String, Set<String>> products = new HashMap<>();
+        int found = 0;
+
+        for (int from = 0; from < keys.size(); from += READ_BATCH_SIZE) {
+            List<Map<String, AttributeValue>> batch = keys.subList(from, Math.min(from + READ_BATCH_SIZE, keys.size()));
+            for (int attempt = 0; !batch.isEmpty(); attempt++) {
+                if (attempt == MAX_BATCH_ATTEMPTS) {
+                    throw new IllegalStateException("Catalogue checkpoint shards were not read after " + attempt + " attempts");
+                }
+                var response = dynamoDB.batchGetItem(BatchGetItemRequest.builder()
+                        .requestItems(Map.of(appConfig.getTableName(), KeysAndAttributes.builder()
+                                .keys(batch)
+                                .consistentRead(true)
+                                .build()))
+                        .build());
+                for (Map<String, AttributeValue> shard : response.responses().getOrDefault(appConfig.getTableName(), List.of())) {
+                    String kind = shard.get(PARTITION_KEY).s().contains("#" + RECONCILED + "#") ? RECONCILED : PENDING;
+                    products.computeIfAbsent(kind, k -> new HashSet<>()).addAll(stringSet(shard, PRODUCTS_KEY));
+                    found++;
+                }
+                KeysAndAttributes unprocessed = response.unprocessedKeys().get(appConfig.getTableName());
+                batch = unprocessed == null ? List.of() : unprocessed.keys();
+            }
+        }
+
+        return found == keys.size() ? products : null;
+    }
+
+    private void deleteShards(String generation, int reconciledShards, int pendingShards) {
+        try {
+            writeBatches(shardKeys(generation, reconciledShards, pendingShards).stream()
+                    .map(key -> WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build()).build())
+                    .toList());
+        } catch (Exception e) {
+            // Orphaned shards are never read again, they only take up space.
+            logger.warn("Error deleting catalogue checkpoint generation {}", generation, e);
+        }
+    }
+
+    private void writeBatches(List<WriteRequest> requests) {
+        for (int from = 0; from < requests.size(); from += WRITE_BATCH_SIZE) {
+            List<WriteRequest> batch = requests.subList(from, Math.min(from + WRITE_BATCH_SIZE, requests.size()));
+            for (int attempt = 0; !batch.isEmpty(); attempt++) {
+                if (attempt == MAX_BATCH_ATTEMPTS) {
+                    throw new IllegalStateException("Catalogue checkpoint shards were not written after " + attempt + " attempts");
+                }
+                var response = dynamoDB.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(Map.of(appConfig.getTableName(), batch))
+                        .build());
+                batch = response.unprocessedItems().getOrDefault(appConfig.getTableName(), List.of());
+            }
+        }
+    }
+
+    private static List<Map<String, AttributeValue>> shardKeys(String generation, int reconciledShards, int pendingShards) {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>();
+        for (int i = 0; i < reconciledShards; i++) {
+            keys.add(Map.of(PARTITION_KEY, AttributeValue.fromS(shardKey(generation, RECONCILED, i))));
+        }
+        for (int i = 0; i < pendingShards; i++) {
+            keys.add(Map.of(PARTITION_KEY, AttributeValue.fromS(shardKey(generation, PENDING, i))));
+        }
+        return keys;
+    }
+
+    private static String shardKey(String generation, String kind, int index) {
+        return String.format("%s#%s#%s#%d", CHECKPOINT_PARTITION_KEY, generation, kind, index);
+    }
+
+    private static Map<String, AttributeValue> headerKey() {
+        return Map.of(PARTITION_KEY, AttributeValue.fromS(CHECKPOINT_PARTITION_KEY));
+    }
+
+    private static int shardCount(Map<String, AttributeValue> item, String key) {
+        return item.containsKey(key) ? Integer.parseInt(item.get(key).n()) : 0;
+    }
+
+    private static Set<String> stringSet(Map<String, AttributeValue> item, String key) {
+        if (!item.containsKey(key) || !item.get(key).hasSs()) {
+            return Set.of();
+        }
+        return new HashSet<>(item.get(key).ss());
+    }
+}
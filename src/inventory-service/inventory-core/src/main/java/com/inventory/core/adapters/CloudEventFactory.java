@@ -0,0 +1,151 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Creates {@link CloudEventWrapper} envelopes on the publish path. Everything that is the same for every event is
+ * worked out once, so creating an envelope costs a random number, a clock read and a few small strings:
+ * <ul>
+ *     <li>IDs are UUIDv7, time ordered, with 74 random bits from a fast generator of the calling thread, so
+ *     threads do not contend on a shared random source. The generators are seeded from a {@link SecureRandom}. A
+ *     SnapStart snapshot captures the generators' state, so {@link #reseedAfterRestore()} must be called after a
+ *     restore, or execution environments restored from the same snapshot would repeat each other's IDs.</li>
+ *     <li>The source is built from the environment when the factory is created.</li>
+ *     <li>The formatted time is reused for every event created in the same millisecond.</li>
+ *     <li>The traceparent is reused for every event created under the same span on a thread.</li>
+ * </ul>
+ */
+public final class CloudEventFactory {
+    private static final CloudEventFactory SHARED = new CloudEventFactory(System.getenv("ENV"));
+    private static final SecureRandom SEEDS = new SecureRandom();
+    private static final ThreadLocal<ThreadRandom> RANDOM = new ThreadLocal<>();
+    // Bumped on every restore, so each thread reseeds its generator before it next draws from it.
+    private static volatile int seedGeneration;
+    // New threads split their generator from the root, which is cheaper than a SecureRandom draw per virtual thread.
+    // A ReentrantLock rather than synchronized, so a virtual thread waiting for it does not pin its carrier thread.
+    private static final ReentrantLock ROOT_LOCK = new ReentrantLock();
+    private static SplittableRandom root;
+    private static int rootGeneration = -1;
+
+    private record ThreadRandom(SplittableRandom random, int generation) {
+    }
+
+    private record FormattedTime(long epochMillis, String text) {
+    }
+
+    private record Traceparent(SpanContext spanContext, String text) {
+    }
+
+    private final String source;
+    private volatile FormattedTime lastTime = new FormattedTime(Long.MIN_VALUE, null);
+    private final ThreadLocal<Traceparent> lastTraceparent = new ThreadLocal<>();
+
+    public CloudEventFactory(String env) {
+        this.source = "https://" + env + ".inventory";
+    }
+
+    /**
+     * The factory for the environment the service is running in, as given by the {@code ENV} variable.
+     */
+    public static CloudEventFactory shared() {
+        return SHARED;
+    }
+
+    public <T> CloudEventWrapper<T> create(String type, T data) {
+        return new CloudEventWrapper<>(this, type, data);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * A version 7 UUID: 48 bits of Unix epoch milliseconds followed by 74 random bits, so IDs sort by creation time
+     * and index well.
+     */
+    static String uuidV7(long epochMillis) {
+        SplittableRandom random = threadRandom();
+        long mostSigBits = (epochMillis << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    /**
+     * Makes every thread seed its generator again before it creates another ID. Call after a SnapStart restore.
+     */
+    public static void reseedAfterRestore() {
+        seedGeneration++;
+    }
+
+    /**
+     * Replaces the calling thread's generator with one from a fixed seed, as if it had been restored from a snapshot.
+     */
+    static void seedThread(long seed) {
+        RANDOM.set(new ThreadRandom(new SplittableRandom(seed), seedGeneration));
+    }
+
+    private static SplittableRandom threadRandom() {
+        int generation = seedGeneration;
+        ThreadRandom current = RANDOM.get();
+        if (current == null || current.generation() != generation) {
+            current = new ThreadRandom(splitRoot(generation), generation);
+            RANDOM.set(current);
+        }
+        return current.random();
+    }
+
+    private static SplittableRandom splitRoot(int generation) {
+        ROOT_LOCK.lock();
+        try {
+            if (rootGeneration != generation) {
+                root = new SplittableRandom(SEEDS.nextLong());
+                rootGeneration = generation;
+            }
+            return root.split();
+        } finally {
+            ROOT_LOCK.unlock();
+        }
+    }
+
+    String format(long epochMillis) {
+        FormattedTime cached = lastTime;
+        if (cached.epochMillis() == epochMillis) {
+            return cached.text();
+        }
+
+        // A race here only means two threads format the same millisecond, so there is no need to lock.
+        String text = Instant.ofEpochMilli(epochMillis).toString();
+        lastTime = new FormattedTime(epochMillis, text);
+        return text;
+    }
+
+    String traceparent() {
+        SpanContext spanContext = Span.fromContext(Context.current()).getSpanContext();
+        if (!spanContext.isValid()) {
+            return null;
+        }
+
+        Traceparent cached = lastTraceparent.get();
+        if (cached != null && cached.spanContext() == spanContext) {
+            return cached.text();
+        }
+
+        String text = "00-" + spanContext.getTraceId() + "-" + spanContext.getSpanId() + "-01";
+        lastTraceparent.set(new Traceparent(spanContext, text));
+        return text;
+    }
+}
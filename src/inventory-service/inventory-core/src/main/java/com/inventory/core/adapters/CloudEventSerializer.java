@@ -0,0 +1,231 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialises {@link CloudEventWrapper} envelopes straight to UTF-8 bytes. The parts of the envelope that only depend
+ * on the event type (specversion, source and type) are encoded once per type and copied in as a template, the ID,
+ * time and traceparent are written without going through Jackson, and only {@code _datadog} and {@code data} use
+ * an {@link ObjectWriter} resolved once per class. Events are written into a buffer and generator borrowed from a
+ * small shared pool, and because the output is built as bytes the size it reports is the exact UTF-8 size EventBridge
+ * and SNS count against their limits.
+ * <p>
+ * The pool is bounded rather than one buffer per thread, because requests run on virtual threads that are created
+ * for each task: a thread local would build a new buffer and generator for almost every event and never reuse it.
+ */
+public class CloudEventSerializer {
+    // Buffers that grew past this for an unusually large event are not kept, so each pooled buffer holds at most this much.
+    private static final int MAX_POOLED_BUFFER_BYTES = 256 * 1024;
+    // More events than this serialised at once simply allocate a buffer that is dropped afterwards.
+    private static final int MAX_POOLED_OUTPUTS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ID_FIELD = ",\"id\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TIME_FIELD = ",\"time\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRACEPARENT_FIELD = ",\"traceparent\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONVERSATION_ID_FIELD = ",\"conversationId\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATADOG_FIELD = ",\"_datadog\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATA_FIELD = ",\"data\":".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * A serialised event and its exact size in UTF-8 bytes.
+     */
+    public record SerializedEvent(String body, int sizeBytes) {
+    }
+
+    private record Template(String source, byte[] bytes) {
+    }
+
+    // A buffer, and a generator over it that is kept open so Jackson's own buffers are reused too.
+    private record Output(PooledBuffer buffer, JsonGenerator generator) {
+    }
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter datadogWriter;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> dataWriters = new ConcurrentHashMap<>();
+    private final BlockingQueue<Output> outputs = new ArrayBlockingQueue<>(MAX_POOLED_OUTPUTS);
+
+    public CloudEventSerializer(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.datadogWriter = mapper.writerFor(DatadogTelemetry.class);
+    }
+
+    public SerializedEvent serialize(CloudEventWrapper<?> evtWrapper) throws JsonProcessingException {
+        Output pooled = outputs.poll();
+        Output output = pooled != null ? pooled : newOutput();
+        PooledBuffer buffer = output.buffer();
+        JsonGenerator generator = output.generator();
+        buffer.reset();
+
+        try {
+            buffer.write(template(evtWrapper).bytes());
+            buffer.write(ID_FIELD);
+            writeString(buffer, evtWrapper.getId());
+            buffer.write(TIME_FIELD);
+            writeString(buffer, evtWrapper.getTime());
+            buffer.write(TRACEPARENT_FIELD);
+            writeString(buffer, evtWrapper.getTraceparent());
+            buffer.write(CONVERSATION_ID_FIELD);
+            writeString(buffer, evtWrapper.getConversationId());
+            buffer.write(DATADOG_FIELD);
+            datadogWriter.writeValue(generator, evtWrapper.getDatadog());
+            generator.flush();
+            buffer.write(DATA_FIELD);
+            Object data = evtWrapper.getData();
+            if (data == null) {
+                buffer.write(NULL);
+            } else {
+                dataWriters.computeIfAbsent(data.getClass(), mapper::writerFor).writeValue(generator, data);
+                generator.flush();
+            }
+            buffer.write('}');
+        } catch (IOException e) {
+            // A failed write can leave the generator part way through a value, so it is not returned to the pool.
+            if (e instanceof JsonProcessingException jsonError) {
+                throw jsonError;
+            }
+            // The buffer is in memory, so only Jackson itself can fail here.
+            throw new UncheckedIOException(e);
+        }
+
+        SerializedEvent serialized = new SerializedEvent(buffer.toUtf8String(), buffer.size());
+        buffer.release();
+        outputs.offer(output);
+        return serialized;
+    }
+
+    private Output newOutput() {
+        PooledBuffer buffer = new PooledBuffer();
+        try {
+            JsonGenerator generator = mapper.getFactory().createGenerator(buffer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Every value is written at the root of the generator, so nothing may be written between them.
+            generator.setRootValueSeparator(null);
+            return new Output(buffer, generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Template template(CloudEventWrapper<?> evtWrapper) {
+        Template template = templates.get(evtWrapper.getType());
+        if (template != null && template.source().equals(evtWrapper.getSource())) {
+            return template;
+        }
+
+        PooledBuffer templateBuffer = new PooledBuffer();
+        templateBuffer.write("{\"specversion\":\"1.0\",\"source\":".getBytes(StandardCharsets.US_ASCII));
+        writeString(templateBuffer, evtWrapper.getSource());
+        templateBuffer.write(",\"type\":".getBytes(StandardCharsets.US_ASCII));
+        writeString(templateBuffer, evtWrapper.getType());
+
+        template = new Template(evtWrapper.getSource(), templateBuffer.toByteArray());
+        if (evtWrapper.getType() != null && evtWrapper.getSource() != null) {
+            templates.putIfAbsent(evtWrapper.getType(), template);
+        }
+        return template;
+    }
+
+    private static void writeString(PooledBuffer buffer, String value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+
+        buffer.write('"');
+        if (isPlainAscii(value)) {
+            // IDs, timestamps and traceparents never need escaping, so they are copied a character at a time.
+            for (int i = 0; i < value.length(); i++) {
+                buffer.write(value.charAt(i));
+            }
+        } else {
+            buffer.write(JsonStringEncoder.getInstance().quoteAsUTF8(value));
+        }
+        buffer.write('"');
+    }
+
+    private static boolean isPlainAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c >= 0x7f || c == '"' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An unsynchronised growable byte buffer, used by one serialisation at a time and then returned to the pool.
+     */
+    private static final class PooledBuffer extends OutputStream {
+        private byte[] bytes = new byte[1024];
+        private int count;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            bytes[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b) {
+            write(b, 0, b.length);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, bytes, count, len);
+            count += len;
+        }
+
+        void reset() {
+            count = 0;
+        }
+
+        int size() {
+            return count;
+        }
+
+        String toUtf8String() {
+            return new String(bytes, 0, count, StandardCharsets.UTF_8);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, count);
+        }
+
+        void release() {
+            if (bytes.length > MAX_POOLED_BUFFER_BYTES) {
+                bytes = new byte[1024];
+            }
+            count = 0;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+    }
+}
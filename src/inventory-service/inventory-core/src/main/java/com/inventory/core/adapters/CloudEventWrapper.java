@@ -1,13 +1,8 @@
 package com.inventory.core.adapters;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import io.opentelemetry.api.trace.Span;
-import io.opentelemetry.api.trace.SpanContext;
-import io.opentelemetry.context.Context;
 
 import java.io.Serializable;
-import java.time.Instant;
-import java.util.UUID;
 
 public class CloudEventWrapper<T> implements Serializable {
     @JsonProperty("specversion")
@@ -32,19 +27,17 @@ public class CloudEventWrapper<T> implements Serializable {
     public CloudEventWrapper() {}
 
     public CloudEventWrapper(String type, T data) {
-        this.id = UUID.randomUUID().toString();
-        this.source = String.format("https://%s.inventory", System.getenv("ENV"));
+        this(CloudEventFactory.shared(), type, data);
+    }
+
+    CloudEventWrapper(CloudEventFactory factory, String type, T data) {
+        long now = System.currentTimeMillis();
+        this.id = CloudEventFactory.uuidV7(now);
+        this.source = factory.getSource();
         this.type = type;
-        this.time = Instant.now().toString();
+        this.time = factory.format(now);
         this.datadog = new DatadogTelemetry();
-        SpanContext currentSpan = Span.fromContext(Context.current()).getSpanContext();
-        if (currentSpan.isValid()) {
-            this.traceparent = String.format("00-%s-%s-01",
-                currentSpan.getTraceId(),
-                currentSpan.getSpanId());
-        } else {
-            this.traceparent = null;
-        }
+        this.traceparent = factory.traceparent();
         this.data = data;
     }
 
@@ -60,14 +53,26 @@ public class CloudEventWrapper<T> implements Serializable {
         return id;
     }
 
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public String getSource() {
         return source;
     }
 
+    public void setSource(String source) {
+        this.source = source;
+    }
+
     public String getType() {
         return type;
     }
 
+    public void setType(String type) {
+        this.type = type;
+    }
+
     public String getConversationId() {
         return conversationId;
     }
@@ -80,6 +85,10 @@ public class CloudEventWrapper<T> implements Serializable {
         return time;
     }
 
+    public void setTime(String time) {
+        this.time = time;
+    }
+
     public DatadogTelemetry getDatadog() {
         return datadog;
     }
@@ -94,4 +103,8 @@ public class CloudEventWrapper<T> implements Serializable {
         }
         return traceparent;
     }
+
+    public void setTraceparent(String traceparent) {
+        this.traceparent = traceparent;
+    }
 }
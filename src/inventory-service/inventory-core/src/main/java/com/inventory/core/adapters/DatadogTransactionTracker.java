@@ -10,6 +10,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inventory.core.TransactionTracker;
 import com.inventory.core.config.AppConfig;
+import io.opentelemetry.api.trace.Span;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
@@ -21,26 +23,83 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.GZIPOutputStream;
 
+/**
+ * Reports transactions to Datadog's pipeline_stats intake without blocking the caller. {@link #track} only adds the
+ * transaction to a bounded lock-free queue; a background thread sends everything queued as one gzipped payload once
+ * a batch is full or the flush interval passes. If the queue fills up, the oldest transactions are dropped, and the
+ * running count of drops is tagged on the current span as {@code transaction_tracker.dropped_count}. Lambda handlers
+ * must {@link #flush} before returning, as the background thread does not run while the execution environment is
+ * frozen.
+ */
 @ApplicationScoped
 public class DatadogTransactionTracker implements TransactionTracker {
 
     private static final Logger logger = LoggerFactory.getLogger(DatadogTransactionTracker.class);
     private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Sends one uncompressed JSON payload and returns the HTTP status code.
+     */
+    interface PayloadSender {
+        int send(byte[] jsonBytes) throws Exception;
+    }
 
-    private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final AppConfig appConfig;
+    private final PayloadSender payloadSender;
+    private final Queue<Transaction> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() walks the queue, so the bound is enforced against this count instead.
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean sendScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService sender;
+    private final int capacity;
+    private final int batchSize;
+    private long reportedDropped = 0;
 
     @Inject
     public DatadogTransactionTracker(AppConfig appConfig) {
+        this(appConfig, null);
+    }
+
+    DatadogTransactionTracker(AppConfig appConfig, PayloadSender payloadSender) {
         this.appConfig = appConfig;
         this.objectMapper = new ObjectMapper();
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(REQUEST_TIMEOUT)
-                .build();
+        this.capacity = Math.max(1, appConfig.getTransactionTrackingQueueCapacity());
+        this.batchSize = Math.max(1, appConfig.getTransactionTrackingBatchSize());
+        if (payloadSender == null) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .connectTimeout(REQUEST_TIMEOUT)
+                    .build();
+            String url = String.format("https://trace.agent.%s/api/v0.1/pipeline_stats", appConfig.getDdSite());
+            payloadSender = jsonBytes -> sendCompressed(httpClient, jsonBytes, url, appConfig.getDdApiKey());
+        }
+        this.payloadSender = payloadSender;
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(1, appConfig.getTransactionTrackingFlushIntervalMs());
+        sender.scheduleWithFixedDelay(this::sendQueued, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -51,21 +110,96 @@ public class DatadogTransactionTracker implements TransactionTracker {
             return;
         }
 
-        String url = String.format("https://trace.agent.%s/api/v0.1/pipeline_stats", appConfig.getDdSite());
         long timestampNanos = System.currentTimeMillis() * 1_000_000L;
+        queue.offer(new Transaction(transactionId, checkpoint, String.valueOf(timestampNanos)));
+
+        // Under overload the oldest transactions go first, so what is reported stays current.
+        if (queued.incrementAndGet() > capacity && queue.poll() != null) {
+            queued.decrementAndGet();
+            // Tagged on the span of the request that found the queue full, so drops show up in its trace.
+            Span.current().setAttribute("transaction_tracker.dropped_count", dropped.incrementAndGet());
+        }
+
+        if (queued.get() >= batchSize && sendScheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::sendQueued);
+            } catch (RejectedExecutionException e) {
+                sendScheduled.set(false);
+            }
+        }
+    }
+
+    @Override
+    public boolean flush(Duration timeout) {
+        if (queued.get() == 0) {
+            return true;
+        }
+
+        try {
+            Future<?> sent = sender.submit(this::sendQueued);
+            sent.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Shutting down: send on the caller's thread instead.
+            sendQueued();
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("{} transactions still queued after {} ms", queued.get(), timeout.toMillis());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush(SHUTDOWN_FLUSH_TIMEOUT);
+        sender.shutdownNow();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    private synchronized void sendQueued() {
+        sendScheduled.set(false);
+
+        long droppedTotal = dropped.get();
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        Transaction transaction;
+        while ((transaction = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(transaction);
+            if (batch.size() == batchSize) {
+                send(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+
+        if (droppedTotal > reportedDropped) {
+            logger.warn("Transaction tracking queue full, dropped {} transactions", droppedTotal - reportedDropped);
+            reportedDropped = droppedTotal;
+        }
+    }
 
-        var transaction = new Transaction(transactionId, checkpoint, String.valueOf(timestampNanos));
-        var payload = new Payload(List.of(transaction), appConfig.getDdService(), appConfig.getEnvironment());
+    private void send(List<Transaction> transactions) {
+        var payload = new Payload(transactions, appConfig.getDdService(), appConfig.getEnvironment());
 
         try {
             byte[] jsonBytes = objectMapper.writeValueAsBytes(payload);
-            int statusCode = sendCompressed(jsonBytes, url, apiKey);
+            int statusCode = payloadSender.send(jsonBytes);
 
             if (statusCode != 202) {
                 logger.warn("Datadog pipeline_stats returned unexpected status: {}", statusCode);
             }
         } catch (Exception e) {
-            logger.error("Failed to send transaction tracking event for transactionId={}, checkpoint={}", transactionId, checkpoint, e);
+            logger.error("Failed to send {} transaction tracking events", transactions.size(), e);
         }
     }
 
@@ -81,7 +215,7 @@ public class DatadogTransactionTracker implements TransactionTracker {
      *
      * @return the HTTP response status code
      */
-    private int sendCompressed(byte[] jsonBytes, String url, String apiKey) throws Exception {
+    private static int sendCompressed(HttpClient httpClient, byte[] jsonBytes, String url, String apiKey) throws Exception {
         var buffer = new ByteArrayOutputStream();
         try (var gzip = new GZIPOutputStream(buffer)) {
             gzip.write(jsonBytes);
@@ -9,8 +9,10 @@ package com.inventory.core.adapters;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
 import org.jboss.logging.Logger;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
 import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.eventbridge.EventBridgeAsyncClient;
 import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
 
 import java.time.Duration;
@@ -34,4 +36,20 @@ public class EventBridgeClientProducer {
 
         return client;
     }
+
+    @Produces
+    @ApplicationScoped
+    public EventBridgeAsyncClient eventBridgeAsyncClientProducer() {
+        var client = EventBridgeAsyncClient.builder()
+                .region(Region.of(System.getenv("AWS_REGION")))
+                .httpClientBuilder(AwsCrtAsyncHttpClient
+                        .builder()
+                        .connectionTimeout(Duration.ofSeconds(3))
+                        .maxConcurrency(100))
+                .build();
+
+        LOG.info("EventBridge async client created");
+
+        return client;
+    }
 }
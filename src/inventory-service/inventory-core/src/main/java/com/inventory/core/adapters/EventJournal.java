@@ -0,0 +1,407 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.config.AppConfig;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A local, append-only journal that events spill into when they cannot be published, so an EventBridge or SNS
+ * outage does not lose them. {@link EventJournalReplayer} publishes them again once the dependency recovers.
+ *
+ * <p>The journal is a sequence of fixed size, memory-mapped segment files. Each record is written as
+ * {@code [payload length][CRC32 of payload][payload]}; a zero length marks the end of the written part of a
+ * segment, and a record whose checksum does not match (a write torn by a crash) is treated the same way. The
+ * position of the oldest unreplayed record is kept in a cursor file, and segments behind it are deleted.
+ */
+@ApplicationScoped
+public class EventJournal {
+    private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CURSOR_FILE = "cursor";
+    private static final String DEFAULT_DIRECTORY_NAME = "inventory-event-journal";
+
+    public enum Kind {
+        EVENT_BRIDGE,
+        SNS
+    }
+
+    /**
+     * A journaled event.
+     *
+     * @param destination the event bus name or topic ARN
+     * @param source      the EventBridge source, null for SNS
+     * @param type        the event type, used as the EventBridge detail type
+     * @param body        the serialised event
+     */
+    public record JournalEntry(Kind kind, long journaledAt, String destination, String source, String type, String body) {
+    }
+
+    /**
+     * Entries read from the journal, and the position to move the cursor to once they have been replayed.
+     */
+    public record Batch(List<JournalEntry> entries, int bytes, long segment, int offset) {
+        public boolean isEmpty() {
+            return entries.isEmpty();
+        }
+    }
+
+    private record Decoded(JournalEntry entry, int size) {
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private long writeSegment;
+    private int writeOffset;
+    private long readSegment;
+    private int readOffset;
+    private long depth;
+    private long depthBytes;
+
+    @Inject
+    public EventJournal(AppConfig appConfig) {
+        this(appConfig.isEventJournalEnabled(),
+                appConfig.getEventJournalDirectory()
+                        .filter(directory -> !directory.isBlank())
+                        .map(Path::of)
+                        .orElse(Path.of(System.getProperty("java.io.tmpdir"), DEFAULT_DIRECTORY_NAME)),
+                appConfig.getEventJournalSegmentBytes(),
+                appConfig.getEventJournalMaxSegments());
+    }
+
+    EventJournal(boolean enabled, Path directory, int segmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(2, maxSegments);
+        this.enabled = enabled && open();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return false if the entry could not be journaled, because the journal is disabled, full or failing
+     */
+    public synchronized boolean append(JournalEntry entry) {
+        if (!enabled) {
+            return false;
+        }
+
+        byte[] payload = encode(entry);
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentBytes) {
+            logger.error("Event of {} bytes is larger than a journal segment, dropping it", size);
+            return false;
+        }
+
+        try {
+            if (writeOffset + size > segmentBytes) {
+                if (segments.size() >= maxSegments) {
+                    logger.error("Event journal is full ({} segments), dropping event {}", segments.size(), entry.type());
+                    return false;
+                }
+                segments.get(writeSegment).force();
+                writeSegment++;
+                writeOffset = 0;
+                segments.put(writeSegment, map(writeSegment));
+            }
+        } catch (IOException e) {
+            logger.error("Failed to rotate event journal segment", e);
+            return false;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        // The length is written last, so a reader never sees a record before its payload is complete.
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        buffer.putInt(writeOffset + 4, (int) crc.getValue());
+        buffer.put(writeOffset + HEADER_BYTES, payload);
+        buffer.putInt(writeOffset, payload.length);
+
+        writeOffset += size;
+        depth++;
+        depthBytes += size;
+        return true;
+    }
+
+    /**
+     * Reads entries from the cursor, without moving it, up to maxEntries or until the next entry would take the
+     * batch over maxBytes. The first entry is always included.
+     */
+    public synchronized Batch read(int maxEntries, int maxBytes) {
+        List<JournalEntry> entries = new ArrayList<>();
+        if (!enabled) {
+            return new Batch(entries, 0, readSegment, readOffset);
+        }
+
+        long segment = readSegment;
+        int offset = readOffset;
+        int bytes = 0;
+
+        while (entries.size() < maxEntries) {
+            Decoded decoded = decodeAt(segments.get(segment), offset);
+            if (decoded == null) {
+                Long next = segments.higherKey(segment);
+                if (next == null) {
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                continue;
+            }
+            if (!entries.isEmpty() && bytes + decoded.size() > maxBytes) {
+                break;
+            }
+            entries.add(decoded.entry());
+            offset += decoded.size();
+            bytes += decoded.size();
+        }
+
+        return new Batch(entries, bytes, segment, offset);
+    }
+
+    /**
+     * Moves the cursor past a batch that has been replayed, and deletes segments that are no longer needed.
+     */
+    public synchronized void commit(Batch batch) {
+        if (!enabled || batch.isEmpty()) {
+            return;
+        }
+
+        readSegment = batch.segment();
+        readOffset = batch.offset();
+        depth = Math.max(0, depth - batch.entries().size());
+        depthBytes = Math.max(0, depthBytes - batch.bytes());
+
+        try {
+            writeCursor();
+            while (segments.firstKey() < readSegment) {
+                long segment = segments.pollFirstEntry().getKey();
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        } catch (IOException e) {
+            // A stale cursor only means some events are replayed twice after a restart.
+            logger.warn("Failed to update event journal cursor: {}", e.getMessage());
+        }
+    }
+
+    public synchronized long depth() {
+        return depth;
+    }
+
+    public synchronized long depthBytes() {
+        return depthBytes;
+    }
+
+    /**
+     * @return how long the oldest journaled event has been waiting, or 0 if the journal is empty
+     */
+    public synchronized long replayLagMillis() {
+        if (!enabled || depth == 0) {
+            return 0;
+        }
+        Batch oldest = read(1, Integer.MAX_VALUE);
+        return oldest.isEmpty() ? 0 : Math.max(0, System.currentTimeMillis() - oldest.entries().get(0).journaledAt());
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    private boolean open() {
+        try {
+            Files.createDirectories(directory);
+
+            List<Long> existing;
+            try (Stream<Path> files = Files.list(directory)) {
+                existing = files.map(path -> path.getFileName().toString())
+                        .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                        .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                        .sorted()
+                        .toList();
+            }
+
+            readCursor(existing);
+            for (long segment : existing) {
+                if (segment < readSegment) {
+                    Files.deleteIfExists(segmentPath(segment));
+                } else {
+                    segments.put(segment, map(segment));
+                }
+            }
+            if (segments.isEmpty()) {
+                segments.put(readSegment, map(readSegment));
+                readOffset = 0;
+            }
+
+            recover();
+            logger.info("Opened event journal at {} with {} events waiting to be replayed", directory, depth);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to open event journal at {}, events will not be journaled", directory, e);
+            return false;
+        }
+    }
+
+    /**
+     * Finds the end of the valid records in the last segment, clearing anything after it so a torn record cannot
+     * be mistaken for a complete one, and counts the records still to be replayed.
+     */
+    private void recover() {
+        for (Map.Entry<Long, MappedByteBuffer> segment : segments.entrySet()) {
+            int offset = segment.getKey() == readSegment ? readOffset : 0;
+            Decoded decoded;
+            while ((decoded = decodeAt(segment.getValue(), offset)) != null) {
+                offset += decoded.size();
+                depth++;
+                depthBytes += decoded.size();
+            }
+            writeSegment = segment.getKey();
+            writeOffset = offset;
+        }
+
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        for (int i = writeOffset; i < segmentBytes; i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private Decoded decodeAt(MappedByteBuffer buffer, int offset) {
+        if (buffer == null || offset + HEADER_BYTES > segmentBytes) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes) {
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER_BYTES, payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            logger.warn("Event journal record at offset {} failed its checksum", offset);
+            return null;
+        }
+
+        return new Decoded(decode(payload), HEADER_BYTES + length);
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private void readCursor(List<Long> existing) throws IOException {
+        Path cursor = directory.resolve(CURSOR_FILE);
+        readSegment = existing.isEmpty() ? 1 : existing.get(0);
+        readOffset = 0;
+        if (!Files.exists(cursor)) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(cursor));
+        if (buffer.remaining() != Long.BYTES + Integer.BYTES) {
+            return;
+        }
+        long segment = buffer.getLong();
+        int offset = buffer.getInt();
+        if (existing.contains(segment)) {
+            readSegment = segment;
+            readOffset = offset;
+        } else if (segment > readSegment) {
+            readSegment = segment;
+        }
+    }
+
+    private void writeCursor() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        buffer.putLong(readSegment).putInt(readOffset);
+
+        Path temp = directory.resolve(CURSOR_FILE + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, directory.resolve(CURSOR_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encode(JournalEntry entry) {
+        byte[][] fields = {
+                bytes(entry.destination()), bytes(entry.source()), bytes(entry.type()), bytes(entry.body())
+        };
+        int size = 1 + Long.BYTES;
+        for (byte[] field : fields) {
+            size += Integer.BYTES + (field == null ? 0 : field.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put((byte) entry.kind().ordinal());
+        buffer.putLong(entry.journaledAt());
+        for (byte[] field : fields) {
+            if (field == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(field.length).put(field);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static JournalEntry decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        Kind kind = Kind.values()[buffer.get()];
+        long journaledAt = buffer.getLong();
+        return new JournalEntry(kind, journaledAt, string(buffer), string(buffer), string(buffer), string(buffer));
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
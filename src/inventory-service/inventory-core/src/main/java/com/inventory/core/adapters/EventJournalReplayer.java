@@ -0,0 +1,203 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.config.AppConfig;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes events from the {@link EventJournal} in the background. A batch is only removed from the journal once
+ * it has been sent, so while EventBridge or SNS is still unavailable each attempt simply stops and waits for the
+ * next interval. Delivery is at least once: a batch that fails part way through is sent again in full.
+ */
+@ApplicationScoped
+public class EventJournalReplayer {
+    // EventBridge PutEvents accepts at most 10 entries, and 256 KB, per request.
+    private static final int REPLAY_BATCH_SIZE = 10;
+    private static final int REPLAY_BATCH_MAX_BYTES = 256 * 1024;
+
+    private final EventJournal journal;
+    private final EventBridgeClient eventBridge;
+    private final SnsClient snsClient;
+    private final AppConfig appConfig;
+    private final Logger logger = LoggerFactory.getLogger(EventJournalReplayer.class);
+    private final ScheduledExecutorService replayer;
+
+    @Inject
+    public EventJournalReplayer(EventJournal journal, EventBridgeClient eventBridge, SnsClient snsClient, AppConfig appConfig) {
+        this.journal = journal;
+        this.eventBridge = eventBridge;
+        this.snsClient = snsClient;
+        this.appConfig = appConfig;
+        this.replayer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-journal-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!journal.isEnabled()) {
+            return;
+        }
+
+        long interval = appConfig.getEventJournalReplayIntervalMs();
+        replayer.scheduleWithFixedDelay(() -> {
+            try {
+                replay();
+            } catch (Exception e) {
+                logger.warn("Event journal replay failed: {}", e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replays journaled events until the journal is empty or a publish fails.
+     *
+     * @return the number of events replayed
+     */
+    public int replay() {
+        int replayed = 0;
+
+        while (true) {
+            EventJournal.Batch batch = journal.read(REPLAY_BATCH_SIZE, REPLAY_BATCH_MAX_BYTES);
+            if (batch.isEmpty()) {
+                return replayed;
+            }
+
+            long lag = System.currentTimeMillis() - batch.entries().get(0).journaledAt();
+            final Span span = GlobalOpenTelemetry.getTracer("com.inventory.core.adapters.EventJournalReplayer")
+                    .spanBuilder("replay event-journal")
+                    .startSpan();
+            span.setAttribute("messaging.batch.message_count", batch.entries().size());
+            span.setAttribute("journal.depth", journal.depth());
+            span.setAttribute("journal.size_bytes", journal.depthBytes());
+            span.setAttribute("journal.replay_lag_ms", lag);
+
+            List<EventJournal.JournalEntry> rejected;
+            try (Scope scope = span.makeCurrent()) {
+                rejected = send(batch.entries());
+            } catch (Exception e) {
+                logger.info("Event journal replay paused, {} events waiting: {}", journal.depth(), e.getMessage());
+                span.setStatus(StatusCode.ERROR);
+                span.recordException(e);
+                span.end();
+                return replayed;
+            }
+
+            // Entries the destination rejected go back on the end of the journal rather than blocking the rest. If the
+            // journal has no room for one, the cursor stops in front of it instead, so it and the entries after it are
+            // replayed again later rather than lost.
+            int committed = batch.entries().size();
+            int requeueFailed = 0;
+            for (int i = 0; i < rejected.size(); i++) {
+                if (!journal.append(rejected.get(i))) {
+                    committed = indexOf(batch.entries(), rejected.get(i));
+                    requeueFailed = rejected.size() - i;
+                    break;
+                }
+            }
+            if (committed == batch.entries().size()) {
+                journal.commit(batch);
+            } else if (committed > 0) {
+                journal.commit(journal.read(committed, Integer.MAX_VALUE));
+            }
+            replayed += batch.entries().size() - rejected.size();
+
+            span.setAttribute("messaging.batch.failed_count", rejected.size());
+            if (requeueFailed > 0) {
+                logger.warn("Event journal is full, {} rejected events were left in place and {} events will be replayed again",
+                        requeueFailed, batch.entries().size() - committed);
+                span.setAttribute("journal.requeue_failed_count", requeueFailed);
+            }
+            span.end();
+            logger.info("Replayed {} journaled events, lag {} ms", batch.entries().size() - rejected.size(), lag);
+
+            if (!rejected.isEmpty()) {
+                return replayed;
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        replayer.shutdownNow();
+    }
+
+    private static int indexOf(List<EventJournal.JournalEntry> entries, EventJournal.JournalEntry entry) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i) == entry) {
+                return i;
+            }
+        }
+        return entries.size();
+    }
+
+    private List<EventJournal.JournalEntry> send(List<EventJournal.JournalEntry> entries) {
+        List<EventJournal.JournalEntry> rejected = new ArrayList<>();
+        List<EventJournal.JournalEntry> eventBridgeEntries = new ArrayList<>();
+
+        for (EventJournal.JournalEntry entry : entries) {
+            if (entry.kind() == EventJournal.Kind.SNS) {
+                snsClient.publish(PublishRequest.builder()
+                        .topicArn(entry.destination())
+                        .message(entry.body())
+                        .build());
+            } else {
+                eventBridgeEntries.add(entry);
+            }
+        }
+
+        if (eventBridgeEntries.isEmpty()) {
+            return rejected;
+        }
+
+        PutEventsResponse response = eventBridge.putEvents(PutEventsRequest.builder()
+                .entries(eventBridgeEntries.stream()
+                        .map(entry -> PutEventsRequestEntry.builder()
+                                .eventBusName(entry.destination())
+                                .source(entry.source())
+                                .detailType(entry.type())
+                                .detail(entry.body())
+                                .build())
+                        .toList())
+                .build());
+
+        if (response.failedEntryCount() != null && response.failedEntryCount() > 0) {
+            for (int i = 0; i < eventBridgeEntries.size() && i < response.entries().size(); i++) {
+                PutEventsResultEntry result = response.entries().get(i);
+                if (result.errorCode() != null) {
+                    rejected.add(eventBridgeEntries.get(i));
+                }
+            }
+        }
+        return rejected;
+    }
+}
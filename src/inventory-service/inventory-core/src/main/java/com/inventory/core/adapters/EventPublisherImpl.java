@@ -8,7 +8,6 @@ package com.inventory.core.adapters;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import com.inventory.core.*;
 import com.inventory.core.config.AppConfig;
 import datadog.trace.api.experimental.DataStreamsCheckpointer;
@@ -17,37 +16,100 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
+import io.quarkus.arc.Arc;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.eventbridge.EventBridgeAsyncClient;
 import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
 import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
 import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
 import software.amazon.awssdk.services.sns.model.PublishRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @ApplicationScoped
 public class EventPublisherImpl implements EventPublisher {
+    // SNS PublishBatch accepts at most 10 entries, and 256 KB, per request.
+    private static final int SNS_PUBLISH_BATCH_SIZE = 10;
+    private static final int SNS_PUBLISH_BATCH_MAX_BYTES = 256 * 1024;
+    private static final String PRODUCT_ADDED_TYPE = "inventory.productAdded.v1";
+    // EventBridge PutEvents accepts at most 10 entries, and 256 KB, per request.
+    private static final int PUT_EVENTS_MAX_ENTRIES = 10;
+    private static final int PUT_EVENTS_MAX_BYTES = 256 * 1024;
+    private static final int MAX_RETRIES = 3;
+    private static final long BASE_BACKOFF_MS = 50;
+    private static final Duration SHUTDOWN_DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
     private final EventBridgeClient eventBridge;
+    private final EventBridgeAsyncClient eventBridgeAsync;
     private final SnsClient snsClient;
+    private final SnsAsyncClient snsAsyncClient;
     private final ObjectMapper mapper;
-    private final ObjectWriter eventWriter;
+    private final CloudEventSerializer eventSerializer;
     private final AppConfig appConfig;
+    private final EventJournal eventJournal;
+    private final CloudEventFactory cloudEvents = CloudEventFactory.shared();
     private final Logger logger = LoggerFactory.getLogger(EventPublisherImpl.class);
+    private final ScheduledExecutorService lingerScheduler;
+    private final Semaphore inFlightPermits;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    // Holds events published outside a request or invocation, e.g. from a background thread. Every drain sends them.
+    private final PendingEvents sharedPendingEvents = new PendingEvents();
+
+    record PendingEvent(PutEventsRequestEntry entry, Span span, int size) {
+    }
 
     @Inject
     TransactionTracker transactionTracker;
 
     @Inject
-    public EventPublisherImpl(EventBridgeClient eventBridge, SnsClient snsClient, ObjectMapper mapper, AppConfig appConfig) {
+    Instance<PendingEvents> requestPendingEvents;
+
+    @Inject
+    public EventPublisherImpl(EventBridgeClient eventBridge, EventBridgeAsyncClient eventBridgeAsync, SnsClient snsClient,
+                              SnsAsyncClient snsAsyncClient, ObjectMapper mapper, AppConfig appConfig, EventJournal eventJournal) {
         this.eventBridge = eventBridge;
+        this.eventBridgeAsync = eventBridgeAsync;
         this.snsClient = snsClient;
+        this.snsAsyncClient = snsAsyncClient;
         this.mapper = mapper;
-        this.eventWriter = mapper.writer();
+        this.eventSerializer = new CloudEventSerializer(mapper);
         this.appConfig = appConfig;
+        this.eventJournal = eventJournal;
+        this.inFlightPermits = new Semaphore(Math.max(1, appConfig.getMaxInFlightPublishes()));
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-publisher-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -64,23 +126,46 @@ public class EventPublisherImpl implements EventPublisher {
                 return;
             }
 
-            var evtWrapper = new CloudEventWrapper<>("inventory.productAdded.v1", evt);
+            var evtWrapper = cloudEvents.create("inventory.productAdded.v1", evt);
 
             // Set DSM produce checkpoint before serialising so context is embedded in the body.
             DataStreamsCheckpointer.get().setProduceCheckpoint("sns", evtWrapper.getType(), new Carrier(evtWrapper.getDatadog()));
             transactionTracker.track(evt.getProductId(), "inventory.productAdded");
 
-            var evtContents = this.eventWriter.writeValueAsString(evtWrapper);
-            final Span publishSpan = createPublishSpan("inventory.productAdded", evtWrapper, evtContents.length(), topicArn);
+            var serialized = this.eventSerializer.serialize(evtWrapper);
+            var evtContents = serialized.body();
+            final Span publishSpan = createPublishSpan("inventory.productAdded", evtWrapper, serialized.sizeBytes(), topicArn);
+
+            var request = PublishRequest.builder()
+                    .topicArn(topicArn)
+                    .message(evtContents)
+                    .build();
+
+            if (appConfig.isAsyncPublishingEnabled()) {
+                submit(() -> {
+                    try (Scope scope = publishSpan.makeCurrent()) {
+                        return this.snsAsyncClient.publish(request);
+                    }
+                }).whenComplete((response, error) -> {
+                    if (error != null) {
+                        if (!spillToJournal(publishSpan, topicArn, evtWrapper.getType(), evtContents)) {
+                            handlePublishError(publishSpan, error);
+                        }
+                    } else {
+                        logger.info("Published product added event for productId: {}", evt.getProductId());
+                    }
+                    publishSpan.end();
+                });
+                return;
+            }
 
             try (Scope scope = publishSpan.makeCurrent()) {
-                this.snsClient.publish(PublishRequest.builder()
-                        .topicArn(topicArn)
-                        .message(evtContents)
-                        .build());
+                this.snsClient.publish(request);
                 logger.info("Published product added event for productId: {}", evt.getProductId());
             } catch (Exception e) {
-                handlePublishError(publishSpan, e);
+                if (!spillToJournal(publishSpan, topicArn, evtWrapper.getType(), evtContents)) {
+                    handlePublishError(publishSpan, e);
+                }
             } finally {
                 publishSpan.end();
             }
@@ -95,75 +180,582 @@ public class EventPublisherImpl implements EventPublisher {
         }
     }
 
+    @Override
+    public void publishNewProductAddedEvents(List<NewProductAddedEvent> evts) {
+        var topicArn = appConfig.getProductAddedTopicArn();
+        if (topicArn == null || topicArn.isEmpty()) {
+            logger.warn("Product added topic ARN is not configured, skipping event publication");
+            return;
+        }
+
+        List<PublishBatchRequestEntry> entries = new ArrayList<>(evts.size());
+        int[] entrySizes = new int[evts.size()];
+        for (NewProductAddedEvent evt : evts) {
+            var evtWrapper = cloudEvents.create(PRODUCT_ADDED_TYPE, evt);
+
+            // Set DSM produce checkpoint before serialising so context is embedded in the body.
+            DataStreamsCheckpointer.get().setProduceCheckpoint("sns", evtWrapper.getType(), new Carrier(evtWrapper.getDatadog()));
+            transactionTracker.track(evt.getProductId(), "inventory.productAdded");
+
+            try {
+                var serialized = this.eventSerializer.serialize(evtWrapper);
+                entrySizes[entries.size()] = serialized.sizeBytes();
+                entries.add(PublishBatchRequestEntry.builder()
+                        .id(evtWrapper.getId())
+                        .message(serialized.body())
+                        .build());
+            } catch (JsonProcessingException e) {
+                handleSerializationError(Span.fromContext(Context.current()), e);
+            }
+        }
+
+        // Batches are sent concurrently, up to the in-flight limit, and this returns once every batch is finished.
+        Semaphore window = new Semaphore(Math.max(1, appConfig.getMaxInFlightPublishes()));
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        List<PublishBatchRequestEntry> batch = new ArrayList<>(SNS_PUBLISH_BATCH_SIZE);
+        int batchBytes = 0;
+
+        for (int i = 0; i < entries.size(); i++) {
+            PublishBatchRequestEntry entry = entries.get(i);
+            int size = entrySizes[i];
+            if (!batch.isEmpty() && (batch.size() == SNS_PUBLISH_BATCH_SIZE || batchBytes + size > SNS_PUBLISH_BATCH_MAX_BYTES)) {
+                batches.add(sendProductAddedBatch(topicArn, batch, batchBytes, window));
+                batch = new ArrayList<>(SNS_PUBLISH_BATCH_SIZE);
+                batchBytes = 0;
+            }
+            batch.add(entry);
+            batchBytes += size;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(sendProductAddedBatch(topicArn, batch, batchBytes, window));
+        }
+
+        // Failures have already been recorded on each batch's span.
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).exceptionally(error -> null).join();
+        logger.info("Sent {} product added events in {} batches", entries.size(), batches.size());
+    }
+
+    private CompletableFuture<Void> sendProductAddedBatch(String topicArn, List<PublishBatchRequestEntry> batch, int batchBytes, Semaphore window) {
+        final Span publishSpan = createPublishSpan("inventory.productAdded", null, batchBytes, topicArn);
+        publishSpan.setAttribute("messaging.batch.message_count", batch.size());
+
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handlePublishError(publishSpan, e);
+            batch.forEach(entry -> spillToJournal(publishSpan, topicArn, PRODUCT_ADDED_TYPE, entry.message()));
+            publishSpan.end();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return publishBatchWithRetry(topicArn, batch, publishSpan, 0)
+                .whenComplete((ignored, error) -> {
+                    window.release();
+                    publishSpan.end();
+                });
+    }
+
+    /**
+     * Sends one PublishBatch request, then retries only the entries SNS failed for reasons on its side.
+     */
+    private CompletableFuture<Void> publishBatchWithRetry(String topicArn, List<PublishBatchRequestEntry> batch, Span publishSpan, int attempt) {
+        CompletableFuture<PublishBatchResponse> request;
+        try (Scope scope = publishSpan.makeCurrent()) {
+            request = this.snsAsyncClient.publishBatch(PublishBatchRequest.builder()
+                    .topicArn(topicArn)
+                    .publishBatchRequestEntries(batch)
+                    .build());
+        } catch (Exception e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+
+        return request
+                .handle((response, error) -> {
+                    if (error != null) {
+                        handlePublishError(publishSpan, error);
+                        batch.forEach(entry -> spillToJournal(publishSpan, topicArn, PRODUCT_ADDED_TYPE, entry.message()));
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+
+                    List<PublishBatchRequestEntry> retry = new ArrayList<>();
+                    if (response.hasFailed()) {
+                        for (BatchResultErrorEntry failure : response.failed()) {
+                            PublishBatchRequestEntry entry = batch.stream()
+                                    .filter(candidate -> candidate.id().equals(failure.id()))
+                                    .findFirst()
+                                    .orElse(null);
+                            if (entry == null) {
+                                continue;
+                            }
+
+                            boolean senderFault = Boolean.TRUE.equals(failure.senderFault());
+                            if (!senderFault && attempt < MAX_RETRIES) {
+                                retry.add(entry);
+                                continue;
+                            }
+
+                            logger.error("Failed to publish product added event {}: {} {}", failure.id(), failure.code(), failure.message());
+                            publishSpan.setStatus(StatusCode.ERROR);
+                            // A request SNS rejected as invalid would be rejected again, so only spill the rest.
+                            if (!senderFault) {
+                                spillToJournal(publishSpan, topicArn, PRODUCT_ADDED_TYPE, entry.message());
+                            }
+                        }
+                    }
+
+                    if (retry.isEmpty()) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+
+                    logger.warn("{} of {} product added events were not accepted by SNS, retrying them", retry.size(), batch.size());
+                    publishSpan.setAttribute("messaging.batch.retry_count", attempt + 1);
+                    var backoff = CompletableFuture.delayedExecutor(BASE_BACKOFF_MS * (1L << attempt), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, backoff)
+                            .thenCompose(ignored -> publishBatchWithRetry(topicArn, retry, publishSpan, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
     @Override
     public void publishInventoryStockUpdatedEvent(InventoryStockUpdatedEvent evt) {
-        var evtWrapper = new CloudEventWrapper<>("inventory.stockUpdated.v1", evt);
+        if (!appConfig.isStockUpdateCoalescingEnabled()) {
+            publishStockUpdated(pendingEvents(), evt);
+            return;
+        }
+
+        // Consumers only need the net change, so repeated updates to a product before the next flush collapse
+        // into one event from the first previous level to the last new level.
+        PendingEvents pending = pendingEvents();
+        pending.lock.lock();
+        try {
+            pending.stockUpdates.merge(evt.getProductId(), evt, (first, latest) -> {
+                pending.coalescedStockUpdates++;
+                return new InventoryStockUpdatedEvent(first.getProductId(), first.getPreviousStockLevel(), latest.getNewStockLevel());
+            });
+            // Callers flush at the end of every request or invocation; the timer only guards against one that doesn't.
+            if (pending.coalesceFlush == null) {
+                pending.coalesceFlush = lingerScheduler.schedule(() -> flush(pending), appConfig.getStockUpdateCoalesceWindowMs(), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            pending.lock.unlock();
+        }
+    }
+
+    private void publishStockUpdated(PendingEvents pending, InventoryStockUpdatedEvent evt) {
+        var evtWrapper = cloudEvents.create("inventory.stockUpdated.v1", evt);
         transactionTracker.track(evt.getProductId(), "inventory.stockUpdated");
-        this.publish(evtWrapper);
+        this.publish(pending, evtWrapper);
     }
 
     @Override
     public void publishStockReservedEvent(StockReservedEventV1 evt) {
         transactionTracker.track(evt.getOrderNumber(), "inventory.stockReserved");
-        var evtWrapper = new CloudEventWrapper<>("inventory.stockReserved.v1", evt);
-        this.publish(evtWrapper);
+        var evtWrapper = cloudEvents.create("inventory.stockReserved.v1", evt);
+        this.publish(pendingEvents(), evtWrapper);
     }
 
     @Override
     public void publishProductOutOfStockEvent(ProductOutOfStockEventV1 evt) {
         transactionTracker.track(evt.getProductId(), "inventory.outOfStock");
-        var evtWrapper = new CloudEventWrapper<>("inventory.outOfStock.v1", evt);
-        this.publish(evtWrapper);
+        var evtWrapper = cloudEvents.create("inventory.outOfStock.v1", evt);
+        this.publish(pendingEvents(), evtWrapper);
     }
 
     @Override
     public void publishStockReservationFailedEvent(StockReservationFailedEventV1 evt) {
         transactionTracker.track(evt.getOrderNumber(), "inventory.stockReservationFailed");
-        var evtWrapper = new CloudEventWrapper<>("inventory.stockReservationFailed.v1", evt);
-        this.publish(evtWrapper);
+        var evtWrapper = cloudEvents.create("inventory.stockReservationFailed.v1", evt);
+        this.publish(pendingEvents(), evtWrapper);
+    }
+
+    @Override
+    public boolean isOutboxEnabled() {
+        return appConfig.isOutboxEnabled();
     }
 
-    private void publish(CloudEventWrapper<?> evtWrapper) {
+    @Override
+    public OutboxEvent toOutboxEvent(InventoryStockUpdatedEvent evt) {
+        transactionTracker.track(evt.getProductId(), "inventory.stockUpdated");
+        return outboxEvent(cloudEvents.create("inventory.stockUpdated.v1", evt));
+    }
+
+    @Override
+    public OutboxEvent toOutboxEvent(StockReservedEventV1 evt) {
+        transactionTracker.track(evt.getOrderNumber(), "inventory.stockReserved");
+        return outboxEvent(cloudEvents.create("inventory.stockReserved.v1", evt));
+    }
+
+    @Override
+    public OutboxEvent toOutboxEvent(ProductOutOfStockEventV1 evt) {
+        transactionTracker.track(evt.getProductId(), "inventory.outOfStock");
+        return outboxEvent(cloudEvents.create("inventory.outOfStock.v1", evt));
+    }
+
+    @Override
+    public void flush() {
+        flush(pendingEvents());
+    }
+
+    private void flush(PendingEvents pending) {
+        List<InventoryStockUpdatedEvent> stockUpdates;
+        pending.lock.lock();
+        try {
+            if (pending.coalesceFlush != null) {
+                pending.coalesceFlush.cancel(false);
+                pending.coalesceFlush = null;
+            }
+            stockUpdates = new ArrayList<>(pending.stockUpdates.values());
+            if (pending.coalescedStockUpdates > 0) {
+                logger.info("Coalesced {} stock updates into {} events", stockUpdates.size() + pending.coalescedStockUpdates, stockUpdates.size());
+            }
+            pending.stockUpdates.clear();
+            pending.coalescedStockUpdates = 0;
+        } finally {
+            pending.lock.unlock();
+        }
+        stockUpdates.forEach(evt -> publishStockUpdated(pending, evt));
+
+        List<PendingEvent> batch;
+        pending.lock.lock();
+        try {
+            batch = takePendingEvents(pending);
+        } finally {
+            pending.lock.unlock();
+        }
+        sendBatch(batch);
+    }
+
+    /**
+     * @return the events of the current request or invocation, or the shared ones outside of a request
+     */
+    private PendingEvents pendingEvents() {
+        PendingEvents pending = requestPendingEvents();
+        return pending == null ? sharedPendingEvents : pending;
+    }
+
+    /**
+     * @return the events of the current request or invocation, or null if no request context is active
+     */
+    PendingEvents requestPendingEvents() {
+        if (requestPendingEvents == null || !Arc.container().requestContext().isActive()) {
+            return null;
+        }
+        PendingEvents pending = requestPendingEvents.get().current();
+        pending.flushOnClose(this::flush);
+        return pending;
+    }
+
+    @Override
+    public boolean drain(Duration timeout) {
+        PendingEvents pending = pendingEvents();
+        flush(pending);
+        if (pending != sharedPendingEvents) {
+            flush(sharedPendingEvents);
+        }
+
+        CompletableFuture<?>[] outstanding = inFlight.toArray(new CompletableFuture<?>[0]);
+        if (outstanding.length == 0) {
+            return true;
+        }
+
+        logger.info("Waiting for {} in-flight publish requests", outstanding.length);
+        try {
+            CompletableFuture.allOf(outstanding).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("{} publish requests still in flight after {} ms", inFlight.size(), timeout.toMillis());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // Failures are recorded on the individual publish spans.
+            return true;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lingerScheduler.shutdownNow();
+        flush(sharedPendingEvents);
+        drain(SHUTDOWN_DRAIN_TIMEOUT);
+    }
+
+    private void publish(PendingEvents pending, CloudEventWrapper<?> evtWrapper) {
         // Set DSM produce checkpoint before serialising so context is embedded in the body.
         DataStreamsCheckpointer.get().setProduceCheckpoint("eventbridge", evtWrapper.getType(), new Carrier(evtWrapper.getDatadog()));
 
-        String detail;
+        CloudEventSerializer.SerializedEvent detail;
         try {
-            detail = this.eventWriter.writeValueAsString(evtWrapper);
+            detail = this.eventSerializer.serialize(evtWrapper);
         } catch (JsonProcessingException e) {
             handleSerializationError(Span.fromContext(Context.current()), e);
             return;
         }
 
-        final Span publishSpan = createPublishSpan(evtWrapper.getType(), null, detail.length(), null);
+        // The publish span stays open until the batch containing this event has been sent.
+        final Span publishSpan = createPublishSpan(evtWrapper.getType(), null, detail.sizeBytes(), null);
 
-        try (Scope scope = publishSpan.makeCurrent()) {
-            String source = appConfig.getSource();
-            String eventBusName = appConfig.getEventBusName();
+        String source = appConfig.getSource();
+        String eventBusName = appConfig.getEventBusName();
 
-            if (eventBusName == null || eventBusName.isEmpty()) {
-                logger.warn("Event bus name is not configured, skipping event publication");
-                return;
+        if (eventBusName == null || eventBusName.isEmpty()) {
+            logger.warn("Event bus name is not configured, skipping event publication");
+            publishSpan.end();
+            return;
+        }
+
+        logger.info("Queueing {} from {} to {}", evtWrapper.getType(), source, eventBusName);
+
+        PutEventsRequestEntry entry = PutEventsRequestEntry.builder()
+                .eventBusName(eventBusName)
+                .source(source)
+                .detailType(evtWrapper.getType())
+                .detail(detail.body())
+                .build();
+
+        // The entry size as EventBridge counts it towards the 256 KB PutEvents request limit.
+        int entrySize = utf8Length(source) + utf8Length(entry.detailType()) + detail.sizeBytes();
+        enqueue(pending, new PendingEvent(entry, publishSpan, entrySize));
+    }
+
+    private OutboxEvent outboxEvent(CloudEventWrapper<?> evtWrapper) {
+        // The produce checkpoint is taken when the event is written, so DSM latency includes the time spent in the outbox.
+        DataStreamsCheckpointer.get().setProduceCheckpoint("eventbridge", evtWrapper.getType(), new Carrier(evtWrapper.getDatadog()));
+
+        try {
+            return new OutboxEvent(evtWrapper.getId(), evtWrapper.getType(), this.eventSerializer.serialize(evtWrapper).body());
+        } catch (JsonProcessingException e) {
+            // Fail the write rather than commit an inventory change whose event was lost.
+            handleSerializationError(Span.fromContext(Context.current()), e);
+            throw new IllegalStateException("Failed to serialise " + evtWrapper.getType(), e);
+        }
+    }
+
+    private void enqueue(PendingEvents pending, PendingEvent event) {
+        List<PendingEvent> ready = List.of();
+
+        pending.lock.lock();
+        try {
+            if (!pending.events.isEmpty() && pending.bytes + event.size() > PUT_EVENTS_MAX_BYTES) {
+                ready = takePendingEvents(pending);
             }
 
-            logger.info("Publishing {} from {} to {}", evtWrapper.getType(), source, eventBusName);
+            pending.events.add(event);
+            pending.bytes += event.size();
 
-            PutEventsRequest request = PutEventsRequest
-                    .builder()
-                    .entries(List.of(PutEventsRequestEntry.builder()
-                            .eventBusName(eventBusName)
-                            .source(source)
-                            .detailType(evtWrapper.getType())
-                            .detail(detail)
-                            .build()))
-                    .build();
+            if (pending.events.size() >= PUT_EVENTS_MAX_ENTRIES) {
+                ready = takePendingEvents(pending);
+            } else if (pending.lingerFlush == null) {
+                pending.lingerFlush = lingerScheduler.schedule(() -> flush(pending), appConfig.getEventBatchLingerMs(), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            pending.lock.unlock();
+        }
+
+        sendBatch(ready);
+    }
+
+    // Callers must hold the lock of the pending events.
+    private List<PendingEvent> takePendingEvents(PendingEvents pending) {
+        if (pending.lingerFlush != null) {
+            pending.lingerFlush.cancel(false);
+            pending.lingerFlush = null;
+        }
+        if (pending.events.isEmpty()) {
+            return List.of();
+        }
+
+        List<PendingEvent> batch = new ArrayList<>(pending.events);
+        pending.events.clear();
+        pending.bytes = 0;
+        return batch;
+    }
+
+    private void sendBatch(List<PendingEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (appConfig.isAsyncPublishingEnabled()) {
+            // sendBatchAsync records its own failures, so this only sees a batch that could not be submitted.
+            submit(() -> sendBatchAsync(batch, 0)).exceptionally(error -> {
+                failBatch(batch, error);
+                return null;
+            });
+            return;
+        }
+
+        List<PendingEvent> remaining = batch;
+
+        for (int attempt = 0; attempt <= MAX_RETRIES && !remaining.isEmpty(); attempt++) {
+            if (attempt > 0) {
+                try {
+                    Thread.sleep(BASE_BACKOFF_MS * (1L << (attempt - 1)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failBatch(remaining, e);
+                    return;
+                }
+            }
+            remaining = putEvents(remaining, attempt == MAX_RETRIES);
+        }
+    }
 
-            eventBridge.putEvents(request);
+    /**
+     * Sends one PutEvents request and ends the spans of every entry that is finished with.
+     *
+     * @return the entries that failed and should be retried
+     */
+    private List<PendingEvent> putEvents(List<PendingEvent> batch, boolean lastAttempt) {
+        PutEventsResponse response;
+        try {
+            response = eventBridge.putEvents(putEventsRequest(batch));
         } catch (Exception e) {
-            handlePublishError(publishSpan, e);
-        } finally {
-            publishSpan.end();
+            failBatch(batch, e);
+            return List.of();
         }
+        return completeBatch(batch, response, lastAttempt);
+    }
+
+    private CompletableFuture<Void> sendBatchAsync(List<PendingEvent> batch, int attempt) {
+        CompletableFuture<PutEventsResponse> request;
+        try {
+            request = eventBridgeAsync.putEvents(putEventsRequest(batch));
+        } catch (Exception e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+
+        return request
+                .handle((response, error) -> {
+                    if (error != null) {
+                        failBatch(batch, error);
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+
+                    List<PendingEvent> failed = completeBatch(batch, response, attempt == MAX_RETRIES);
+                    if (failed.isEmpty()) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+
+                    var backoff = CompletableFuture.delayedExecutor(BASE_BACKOFF_MS * (1L << attempt), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, backoff)
+                            .thenCompose(ignored -> sendBatchAsync(failed, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Starts an asynchronous publish once a slot in the in-flight window is free. Blocking the caller while the
+     * window is full is what applies backpressure to the request path, unless the event journal is enabled.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> publish) {
+        if (eventJournal.isEnabled()) {
+            // With a journal to overflow into, a full window spills the publish instead of blocking the request.
+            if (!inFlightPermits.tryAcquire()) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Too many publishes in flight"));
+            }
+        } else {
+            try {
+                inFlightPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = publish.get();
+        } catch (Exception e) {
+            inFlightPermits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        inFlight.add(future);
+        future.whenComplete((result, error) -> {
+            inFlight.remove(future);
+            inFlightPermits.release();
+        });
+        return future;
+    }
+
+    private PutEventsRequest putEventsRequest(List<PendingEvent> batch) {
+        return PutEventsRequest.builder()
+                .entries(batch.stream().map(PendingEvent::entry).toList())
+                .build();
+    }
+
+    private void failBatch(List<PendingEvent> batch, Throwable error) {
+        batch.forEach(pending -> {
+            if (!spillToJournal(pending)) {
+                handlePublishError(pending.span(), error);
+            }
+            pending.span().end();
+        });
+    }
+
+    private boolean spillToJournal(PendingEvent pending) {
+        PutEventsRequestEntry entry = pending.entry();
+        boolean journaled = eventJournal.append(new EventJournal.JournalEntry(EventJournal.Kind.EVENT_BRIDGE,
+                System.currentTimeMillis(), entry.eventBusName(), entry.source(), entry.detailType(), entry.detail()));
+        if (journaled) {
+            logger.warn("Could not publish {}, spilled it to the event journal", entry.detailType());
+            tagJournaled(pending.span());
+        }
+        return journaled;
+    }
+
+    private boolean spillToJournal(Span span, String topicArn, String type, String message) {
+        boolean journaled = eventJournal.append(new EventJournal.JournalEntry(EventJournal.Kind.SNS,
+                System.currentTimeMillis(), topicArn, null, type, message));
+        if (journaled) {
+            logger.warn("Could not publish {}, spilled it to the event journal", type);
+            tagJournaled(span);
+        }
+        return journaled;
+    }
+
+    private void tagJournaled(Span span) {
+        span.setAttribute("messaging.journaled", true);
+        span.setAttribute("journal.depth", eventJournal.depth());
+        span.setAttribute("journal.size_bytes", eventJournal.depthBytes());
+    }
+
+    private List<PendingEvent> completeBatch(List<PendingEvent> batch, PutEventsResponse response, boolean lastAttempt) {
+        boolean hasFailures = response.failedEntryCount() != null && response.failedEntryCount() > 0;
+        List<PendingEvent> failed = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingEvent pending = batch.get(i);
+            pending.span().setAttribute("messaging.batch.message_count", batch.size());
+
+            PutEventsResultEntry result = hasFailures && i < response.entries().size() ? response.entries().get(i) : null;
+            if (result == null || result.errorCode() == null) {
+                pending.span().end();
+            } else if (!lastAttempt) {
+                failed.add(pending);
+            } else if (spillToJournal(pending)) {
+                pending.span().end();
+            } else {
+                logger.error("Failed to publish {} after {} retries: {} {}",
+                        pending.entry().detailType(), MAX_RETRIES, result.errorCode(), result.errorMessage());
+                pending.span().setStatus(StatusCode.ERROR, result.errorCode());
+                pending.span().setAttribute("error.message", String.valueOf(result.errorMessage()));
+                pending.span().end();
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            logger.warn("{} of {} events were not accepted by EventBridge, retrying them", failed.size(), batch.size());
+        }
+        logger.info("Published {} events to {}", batch.size() - failed.size(), appConfig.getEventBusName());
+
+        return failed;
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
     }
 
     private Span createPublishSpan(String detailType, CloudEventWrapper<?> evtWrapper, int bodySize, String destination) {
@@ -205,7 +797,7 @@ public class EventPublisherImpl implements EventPublisher {
         }
     }
 
-    private void handlePublishError(Span span, Exception exception) {
+    private void handlePublishError(Span span, Throwable exception) {
         logger.error("Error publishing event", exception);
         if (span != null && span.getSpanContext().isValid()) {
             span.setStatus(StatusCode.ERROR);
@@ -0,0 +1,71 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.EventPublisher;
+import com.inventory.core.FlushCoordinator;
+import com.inventory.core.TransactionTracker;
+import com.inventory.core.config.AppConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@ApplicationScoped
+public class FlushCoordinatorImpl implements FlushCoordinator {
+    private record Registration(String name, Participant participant) {
+    }
+
+    private final AppConfig appConfig;
+    private final List<Registration> participants = new CopyOnWriteArrayList<>();
+    private final Logger logger = LoggerFactory.getLogger(FlushCoordinatorImpl.class);
+
+    @Inject
+    public FlushCoordinatorImpl(EventPublisher eventPublisher, TransactionTracker transactionTracker, AppConfig appConfig) {
+        this(appConfig);
+        // Events go first: publishing them tracks more transactions.
+        register("events", eventPublisher::drain);
+        register("transactions", transactionTracker::flush);
+    }
+
+    FlushCoordinatorImpl(AppConfig appConfig) {
+        this.appConfig = appConfig;
+    }
+
+    @Override
+    public void register(String name, Participant participant) {
+        participants.add(new Registration(name, participant));
+    }
+
+    @Override
+    public boolean flush(long remainingTimeMillis) {
+        // Part of the remaining time is held back so the handler can still return its response.
+        long budget = Math.min(appConfig.getFlushBudgetMaxMs(), remainingTimeMillis - appConfig.getFlushReserveMs());
+        long deadline = System.currentTimeMillis() + Math.max(0, budget);
+        boolean complete = true;
+
+        for (Registration registration : participants) {
+            // A participant past the deadline is still called with no time to wait, so it can send what it holds.
+            long timeLeft = Math.max(0, deadline - System.currentTimeMillis());
+            try {
+                if (!registration.participant().flush(Duration.ofMillis(timeLeft))) {
+                    logger.warn("{} did not finish flushing within {} ms", registration.name(), timeLeft);
+                    complete = false;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to flush {}", registration.name(), e);
+                complete = false;
+            }
+        }
+
+        return complete;
+    }
+}
@@ -1,128 +1,310 @@
 package com.inventory.core.adapters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.core.CatalogueFetchResult;
+import com.inventory.core.ParameterCache;
 import com.inventory.core.ProductService;
+import com.inventory.core.config.AppConfig;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.MediaType;
-import software.amazon.awssdk.services.ssm.SsmClient;
-import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Reads the product catalogue from the product API, one page at a time.
+ * <p>
+ * Every page has its own ETag. After a complete fetch has been reconciled, the ETags of all its pages are kept, and
+ * a conditional fetch only reports the catalogue unchanged when the product API answers 304 for every one of them.
+ * A page's body includes the total page count, so pages added or removed at the end change the ETags too.
+ */
 @ApplicationScoped
 public class HttpProductService implements ProductService {
-    private final SsmClient ssmClient;
-    private volatile String productApiEndpoint = "";
-    private volatile long endpointCacheExpiry = 0;
     private static final Logger logger = LoggerFactory.getLogger(HttpProductService.class);
-    private final ObjectMapper objectMapper;
+    private final Supplier<String> productApiEndpoint;
+    private final ProductCatalogueReader catalogueReader;
     private final HttpClient httpClient;
+    private final int pageSize;
+    private final int maxConcurrentPages;
+    private final Path validatorFile;
+    // The page ETags of the last complete fetch, written to the validator file by markCatalogueReconciled().
+    private final AtomicReference<Map<String, String>> unreconciledValidators = new AtomicReference<>();
 
     private static final int MAX_RETRIES = 3;
     private static final long INITIAL_BACKOFF_MS = 200;
-    private static final long ENDPOINT_CACHE_TTL_MS = 5 * 60 * 1000L; // 5 minutes
     private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
     private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    // Kept in the Lambda /tmp directory, so it survives between warm invocations of the same execution environment.
+    private static final String VALIDATOR_FILE_NAME = "product-catalogue.etag";
 
     @Inject
-    public HttpProductService(SsmClient ssmClient) {
-        this.ssmClient = ssmClient;
-        this.objectMapper = new ObjectMapper();
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(CONNECT_TIMEOUT)
-                .build();
-        this.refreshApiEndpoint(ssmClient);
+    public HttpProductService(ParameterCache parameterCache, AppConfig appConfig) {
+        this(() -> productApiEndpoint(parameterCache),
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(CONNECT_TIMEOUT)
+                        .build(),
+                appConfig.getProductApiPageSize(),
+                appConfig.getProductApiMaxConcurrentPages(),
+                Path.of(System.getProperty("java.io.tmpdir"), VALIDATOR_FILE_NAME));
+    }
+
+    HttpProductService(Supplier<String> productApiEndpoint, HttpClient httpClient, int pageSize, int maxConcurrentPages, Path validatorFile) {
+        this.productApiEndpoint = productApiEndpoint;
+        this.catalogueReader = new ProductCatalogueReader(new ObjectMapper());
+        this.httpClient = httpClient;
+        this.pageSize = pageSize;
+        this.maxConcurrentPages = Math.max(1, maxConcurrentPages);
+        this.validatorFile = validatorFile;
     }
 
     @Override
-    public ArrayList<ProductCatalogueItem> getProductCatalogue() {
-        this.refreshApiEndpoint(ssmClient);
-        if (productApiEndpoint == null) {
+    public CatalogueFetchResult streamProductCatalogue(boolean allowNotModified, Consumer<ProductCatalogueItem> consumer) {
+        String endpoint = this.productApiEndpoint.get();
+        if (endpoint == null || endpoint.isEmpty()) {
             logger.info("Product API endpoint not set");
-            return new ArrayList<>();
+            return CatalogueFetchResult.FAILED;
         }
 
-        logger.info("Fetching product catalogue from: " + productApiEndpoint);
+        logger.info("Fetching product catalogue from: " + endpoint);
+        unreconciledValidators.set(null);
         try {
-            var httpRequest = HttpRequest.newBuilder(new URI(this.productApiEndpoint))
-                    .header("accept", MediaType.APPLICATION_JSON)
-                    .header("Content-Type", MediaType.APPLICATION_JSON)
-                    .timeout(REQUEST_TIMEOUT)
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = sendWithRetry(httpRequest);
-
-            int statusCode = response.statusCode();
-            if (statusCode < 200 || statusCode >= 300) {
-                logger.error("Product API returned non-2xx status: " + statusCode);
-                return new ArrayList<>();
+            URI firstPage = pageUri(endpoint, 1);
+            Map<String, String> storedValidators = allowNotModified ? readValidators(firstPage) : Map.of();
+            if (!storedValidators.isEmpty() && allPagesNotModified(storedValidators)) {
+                logger.info("Product catalogue not modified since last fetch");
+                return CatalogueFetchResult.NOT_MODIFIED;
+            }
+
+            HttpResponse<InputStream> response = sendWithRetry(pageRequest(firstPage, null), 0).join();
+
+            Map<String, String> validators = new LinkedHashMap<>();
+            ProductCatalogueReader.Result firstPageResult;
+            try (InputStream body = response.body()) {
+                int statusCode = response.statusCode();
+                if (statusCode < 200 || statusCode >= 300) {
+                    logger.error("Product API returned non-2xx status: " + statusCode);
+                    return CatalogueFetchResult.FAILED;
+                }
+
+                logger.info("Product API responded with status: " + statusCode);
+
+                validators.put(firstPage.toString(), response.headers().firstValue("ETag").orElse(null));
+                firstPageResult = catalogueReader.read(body, consumer);
             }
 
-            logger.info("Product API responded with status: " + statusCode);
+            int count = firstPageResult.itemCount();
+            int totalPages = pageSize > 0 ? firstPageResult.totalPages() : 1;
+            if (totalPages > 1) {
+                count += fetchRemainingPages(endpoint, totalPages, consumer, validators);
+            }
 
-            ProductCatalogueGetResponse products = objectMapper.readValue(response.body(), ProductCatalogueGetResponse.class);
+            logger.info("Read " + count + " products from " + totalPages + " product catalogue page(s)");
 
-            return products.getData();
+            unreconciledValidators.set(validators);
+            return CatalogueFetchResult.COMPLETE;
         } catch (Exception e) {
             logger.error("Error fetching product catalogue: " + e.getMessage());
-            return new ArrayList<>();
+            return CatalogueFetchResult.FAILED;
         }
     }
 
-    private HttpResponse<String> sendWithRetry(HttpRequest request) throws Exception {
-        Exception lastException = null;
-        for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
-            try {
-                var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-                int statusCode = response.statusCode();
-                if (statusCode >= 500 && attempt < MAX_RETRIES) {
-                    logger.warn("Product API returned server error " + statusCode + ", retrying (attempt " + (attempt + 1) + "/" + MAX_RETRIES + ")");
-                    Thread.sleep(INITIAL_BACKOFF_MS * (1L << attempt));
-                    continue;
+    @Override
+    public void markCatalogueReconciled() {
+        Map<String, String> validators = unreconciledValidators.getAndSet(null);
+        if (validators != null) {
+            writeValidators(validators);
+        }
+    }
+
+    /**
+     * Sends the stored validators of every page, the first page on its own and then up to maxConcurrentPages at once.
+     *
+     * @return true only if the product API answered 304 for every page
+     */
+    private boolean allPagesNotModified(Map<String, String> validators) {
+        Iterator<Map.Entry<String, String>> pages = validators.entrySet().iterator();
+        Map.Entry<String, String> first = pages.next();
+        Deque<CompletableFuture<HttpResponse<InputStream>>> inFlight = new ArrayDeque<>();
+        inFlight.add(sendWithRetry(pageRequest(URI.create(first.getKey()), first.getValue()), 0));
+        boolean notModified = true;
+
+        try {
+            while (notModified && !inFlight.isEmpty()) {
+                HttpResponse<InputStream> response = inFlight.poll().join();
+                closeQuietly(response.body());
+                notModified = response.statusCode() == 304;
+                while (notModified && pages.hasNext() && inFlight.size() < maxConcurrentPages) {
+                    Map.Entry<String, String> page = pages.next();
+                    inFlight.add(sendWithRetry(pageRequest(URI.create(page.getKey()), page.getValue()), 0));
                 }
-                return response;
-            } catch (java.io.IOException e) {
-                lastException = e;
-                if (attempt < MAX_RETRIES) {
-                    logger.warn("HTTP request failed, retrying (attempt " + (attempt + 1) + "/" + MAX_RETRIES + "): " + e.getMessage());
-                    Thread.sleep(INITIAL_BACKOFF_MS * (1L << attempt));
+            }
+        } catch (Exception e) {
+            logger.warn("Conditional product catalogue request failed, fetching it in full: " + e.getMessage());
+            notModified = false;
+        } finally {
+            inFlight.forEach(future -> future.thenAccept(response -> closeQuietly(response.body())));
+        }
+
+        return notModified;
+    }
+
+    /**
+     * Requests up to maxConcurrentPages pages ahead over the shared HTTP/2 connection, but decodes them
+     * in page order on the calling thread so the consumer never needs to be thread safe.
+     */
+    private int fetchRemainingPages(String endpoint, int totalPages, Consumer<ProductCatalogueItem> consumer,
+                                    Map<String, String> validators) throws IOException {
+        Deque<CompletableFuture<HttpResponse<InputStream>>> inFlight = new ArrayDeque<>();
+        int nextPage = 2;
+        int count = 0;
+
+        try {
+            while (nextPage <= totalPages && inFlight.size() < maxConcurrentPages) {
+                inFlight.add(sendWithRetry(pageRequest(pageUri(endpoint, nextPage++), null), 0));
+            }
+
+            while (!inFlight.isEmpty()) {
+                HttpResponse<InputStream> response = inFlight.poll().join();
+                if (nextPage <= totalPages) {
+                    inFlight.add(sendWithRetry(pageRequest(pageUri(endpoint, nextPage++), null), 0));
+                }
+
+                try (InputStream body = response.body()) {
+                    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                        throw new IOException("Product API returned non-2xx status " + response.statusCode() + " for " + response.uri());
+                    }
+                    validators.put(response.request().uri().toString(), response.headers().firstValue("ETag").orElse(null));
+                    count += catalogueReader.read(body, consumer).itemCount();
                 }
             }
+        } finally {
+            inFlight.forEach(future -> future.thenAccept(response -> closeQuietly(response.body())));
         }
-        throw lastException;
+
+        return count;
     }
 
-    private void refreshApiEndpoint(SsmClient ssmClient) {
-        long now = System.currentTimeMillis();
-        if (!productApiEndpoint.isEmpty() && now < endpointCacheExpiry) {
-            return; // cached value is still valid
+    private URI pageUri(String endpoint, int pageNumber) {
+        if (pageSize <= 0) {
+            return URI.create(endpoint);
         }
+        return URI.create(String.format("%s?pageNumber=%d&pageSize=%d", endpoint, pageNumber, pageSize));
+    }
+
+    private HttpRequest pageRequest(URI uri, String validator) {
+        var builder = HttpRequest.newBuilder(uri)
+                .header("accept", MediaType.APPLICATION_JSON)
+                .header("Content-Type", MediaType.APPLICATION_JSON)
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+        if (validator != null) {
+            builder.header("If-None-Match", validator);
+        }
+        return builder.build();
+    }
 
-        // Retrieve the product API endpoint from SSM Parameter Store
+    private CompletableFuture<HttpResponse<InputStream>> sendWithRetry(HttpRequest request, int attempt) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .handle((response, error) -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    boolean serverError = response != null && response.statusCode() >= 500;
+                    boolean retryable = attempt < MAX_RETRIES && (serverError || cause instanceof IOException);
+
+                    if (!retryable) {
+                        return error == null
+                                ? CompletableFuture.completedFuture(response)
+                                : CompletableFuture.<HttpResponse<InputStream>>failedFuture(cause);
+                    }
+
+                    if (serverError) {
+                        logger.warn("Product API returned server error " + response.statusCode() + ", retrying (attempt " + (attempt + 1) + "/" + MAX_RETRIES + ")");
+                        closeQuietly(response.body());
+                    } else {
+                        logger.warn("HTTP request failed, retrying (attempt " + (attempt + 1) + "/" + MAX_RETRIES + "): " + cause.getMessage());
+                    }
+
+                    var backoff = CompletableFuture.delayedExecutor(INITIAL_BACKOFF_MS * (1L << attempt), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, backoff)
+                            .thenCompose(ignored -> sendWithRetry(request, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * @return the stored ETag of each page in page order, or an empty map if there are none for this endpoint
+     */
+    private Map<String, String> readValidators(URI firstPage) {
+        Map<String, String> validators = new LinkedHashMap<>();
         try {
-            var productApiEndpointSsmParameterName = System.getenv("PRODUCT_API_ENDPOINT_PARAMETER");
-            var productApiBase = ssmClient.getParameter(GetParameterRequest.builder()
-                            .name(productApiEndpointSsmParameterName)
-                            .build())
-                    .parameter()
-                    .value();
-            if (productApiBase.endsWith("/")) {
-                productApiBase = productApiBase.substring(0, productApiBase.length() - 1);
+            if (!Files.exists(validatorFile)) {
+                return validators;
             }
-            this.productApiEndpoint = String.format("%s/product", productApiBase);
-            this.endpointCacheExpiry = now + ENDPOINT_CACHE_TTL_MS;
-            logger.info("Product API endpoint refreshed from SSM: " + this.productApiEndpoint);
-        } catch (Exception e) {
-            logger.error("Failed to retrieve product API endpoint: " + e.getMessage());
+            for (String line : Files.readAllLines(validatorFile, StandardCharsets.UTF_8)) {
+                String[] page = line.split(" ", 2);
+                if (page.length != 2) {
+                    return Map.of();
+                }
+                validators.put(page[0], page[1]);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read product catalogue validators: " + e.getMessage());
+            return Map.of();
+        }
+        return !validators.isEmpty() && validators.keySet().iterator().next().equals(firstPage.toString()) ? validators : Map.of();
+    }
+
+    private void writeValidators(Map<String, String> validators) {
+        try {
+            // Without an ETag for every page, an unchanged response could hide a changed page.
+            if (validators.values().stream().anyMatch(etag -> etag == null || etag.isEmpty())) {
+                Files.deleteIfExists(validatorFile);
+                return;
+            }
+            StringBuilder lines = new StringBuilder();
+            validators.forEach((uri, etag) -> lines.append(uri).append(' ').append(etag).append('\n'));
+            Files.writeString(validatorFile, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to store product catalogue validators: " + e.getMessage());
+        }
+    }
+
+    private static String productApiEndpoint(ParameterCache parameterCache) {
+        return parameterCache.get(System.getenv("PRODUCT_API_ENDPOINT_PARAMETER"))
+                .map(productApiBase -> productApiBase.endsWith("/")
+                        ? productApiBase.substring(0, productApiBase.length() - 1)
+                        : productApiBase)
+                .map(productApiBase -> String.format("%s/product", productApiBase))
+                .orElse(null);
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
         }
     }
 }
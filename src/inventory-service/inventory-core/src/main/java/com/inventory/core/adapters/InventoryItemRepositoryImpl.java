@@ -10,6 +10,7 @@ import com.inventory.core.DataAccessException;
 import com.inventory.core.InventoryItem;
 import com.inventory.core.InventoryItemNotFoundException;
 import com.inventory.core.InventoryItemRepository;
+import com.inventory.core.OutboxEvent;
 import com.inventory.core.StaleItemException;
 import com.inventory.core.config.AppConfig;
 
@@ -17,6 +18,7 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.context.Context;
 import io.quarkus.cache.CacheInvalidate;
 import io.quarkus.cache.CacheInvalidateAll;
+import io.quarkus.cache.CacheKey;
 import io.quarkus.cache.CacheResult;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -28,8 +30,12 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ApplicationScoped
 public class InventoryItemRepositoryImpl implements InventoryItemRepository {
@@ -43,6 +49,9 @@ public class InventoryItemRepositoryImpl implements InventoryItemRepository {
     private static final String RESERVED_STOCK_ORDERS_KEY = "stockOrders";
     private static final String TYPE_KEY = "Type";
     private static final String VERSION_KEY = "itemVersion";
+    private static final int BATCH_GET_MAX_KEYS = 100;
+    private static final int BATCH_GET_MAX_RETRIES = 5;
+    private static final long BATCH_GET_BACKOFF_MS = 50;
 
     @Inject
     public InventoryItemRepositoryImpl(DynamoDbClient dynamoDB, AppConfig appConfig) {
@@ -112,9 +121,83 @@ public class InventoryItemRepositoryImpl implements InventoryItemRepository {
         }
     }
 
+    @Override
+    public Set<String> existingProductIds(Collection<String> productIds) throws DataAccessException {
+        final Span span = Span.fromContext(Context.current());
+        Set<String> existing = new HashSet<>();
+        List<String> distinctIds = new ArrayList<>(new HashSet<>(productIds));
+        double consumedRcu = 0.0;
+
+        try {
+            for (int start = 0; start < distinctIds.size(); start += BATCH_GET_MAX_KEYS) {
+                List<Map<String, AttributeValue>> keys = new ArrayList<>();
+                for (String productId : distinctIds.subList(start, Math.min(start + BATCH_GET_MAX_KEYS, distinctIds.size()))) {
+                    keys.add(Map.of(PARTITION_KEY, AttributeValue.fromS(productId)));
+                }
+
+                Map<String, KeysAndAttributes> requestItems = Map.of(appConfig.getTableName(), KeysAndAttributes.builder()
+                        .keys(keys)
+                        .projectionExpression(PARTITION_KEY + ", " + PRODUCT_ID_KEY)
+                        .build());
+
+                for (int attempt = 0; !requestItems.isEmpty(); attempt++) {
+                    if (attempt > BATCH_GET_MAX_RETRIES) {
+                        throw new DataAccessException(new IllegalStateException(
+                                "BatchGetItem left unprocessed keys after " + BATCH_GET_MAX_RETRIES + " retries"));
+                    }
+                    if (attempt > 0) {
+                        Thread.sleep(BATCH_GET_BACKOFF_MS * (1L << (attempt - 1)));
+                    }
+
+                    var result = dynamoDB.batchGetItem(BatchGetItemRequest.builder()
+                            .requestItems(requestItems)
+                            .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                            .build());
+
+                    for (Map<String, AttributeValue> item : result.responses().getOrDefault(appConfig.getTableName(), List.of())) {
+                        if (item.containsKey(PRODUCT_ID_KEY)) {
+                            existing.add(item.get(PARTITION_KEY).s());
+                        }
+                    }
+                    for (ConsumedCapacity capacity : result.consumedCapacity()) {
+                        consumedRcu += capacity.capacityUnits() != null ? capacity.capacityUnits() : 0.0;
+                    }
+
+                    requestItems = result.unprocessedKeys();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException(e);
+        } catch (AwsServiceException |
+                 SdkClientException e) {
+            logger.error("An error occurred while accessing DynamoDB: {}", e.getMessage(), e);
+            throw new DataAccessException(e);
+        }
+
+        if (span.getSpanContext().isValid()) {
+            span.setAttribute("db.rcu", consumedRcu);
+            span.setAttribute("product.lookupCount", distinctIds.size());
+            span.setAttribute("product.foundCount", existing.size());
+        }
+        logger.info("Batch lookup found {} of {} inventory items", existing.size(), distinctIds.size());
+
+        return existing;
+    }
+
     @Override
     @CacheInvalidate(cacheName = "inventory-cache")
     public void update(InventoryItem product) throws DataAccessException  {
+        write(product, List.of());
+    }
+
+    @Override
+    @CacheInvalidate(cacheName = "inventory-cache")
+    public void update(@CacheKey InventoryItem product, List<OutboxEvent> outboxEvents) throws DataAccessException {
+        write(product, outboxEvents);
+    }
+
+    private void write(InventoryItem product, List<OutboxEvent> outboxEvents) throws DataAccessException {
         final Span span = Span.fromContext(Context.current());
         if (span.getSpanContext().isValid()) {
             span.setAttribute("cache.inventory.operation", "invalidate");
@@ -143,36 +226,71 @@ public class InventoryItemRepositoryImpl implements InventoryItemRepository {
             conditionExpression = VERSION_KEY + " = :expectedVersion";
         }
 
-        PutItemRequest putItemRequest = PutItemRequest.builder()
-                .tableName(appConfig.getTableName())
-                .item(item)
-                .conditionExpression(conditionExpression)
-                .expressionAttributeValues(expressionValues)
-                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
-                .build();
         try {
+            List<ConsumedCapacity> consumedCapacity;
+            if (outboxEvents.isEmpty()) {
+                PutItemRequest putItemRequest = PutItemRequest.builder()
+                        .tableName(appConfig.getTableName())
+                        .item(item)
+                        .conditionExpression(conditionExpression)
+                        .expressionAttributeValues(expressionValues)
+                        .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                        .build();
+
+                var response = this.dynamoDB.putItem(putItemRequest);
+                consumedCapacity = response.consumedCapacity() != null ? List.of(response.consumedCapacity()) : List.of();
+            } else {
+                List<TransactWriteItem> writes = new ArrayList<>(outboxEvents.size() + 1);
+                writes.add(TransactWriteItem.builder()
+                        .put(Put.builder()
+                                .tableName(appConfig.getTableName())
+                                .item(item)
+                                .conditionExpression(conditionExpression)
+                                .expressionAttributeValues(expressionValues)
+                                .build())
+                        .build());
+                for (OutboxEvent outboxEvent : outboxEvents) {
+                    writes.add(TransactWriteItem.builder()
+                            .put(Put.builder()
+                                    .tableName(appConfig.getTableName())
+                                    .item(OutboxItems.toItem(outboxEvent))
+                                    .build())
+                            .build());
+                }
 
-            var response = this.dynamoDB.putItem(putItemRequest);
+                var response = this.dynamoDB.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(writes)
+                        .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                        .build());
+                consumedCapacity = response.consumedCapacity();
+            }
 
             if (span.getSpanContext().isValid()) {
-                var consumedCapacity = response.consumedCapacity();
-                if (consumedCapacity != null) {
-                    Double wcu = consumedCapacity.writeCapacityUnits();
-                    Double rcu = consumedCapacity.readCapacityUnits();
-                    span.setAttribute("db.wcu", wcu != null ? wcu : 0.0);
-                    span.setAttribute("db.rcu", rcu != null ? rcu : 0.0);
+                double wcu = 0.0;
+                double rcu = 0.0;
+                for (ConsumedCapacity capacity : consumedCapacity) {
+                    wcu += capacity.writeCapacityUnits() != null ? capacity.writeCapacityUnits() : 0.0;
+                    rcu += capacity.readCapacityUnits() != null ? capacity.readCapacityUnits() : 0.0;
                 }
+                span.setAttribute("db.wcu", wcu);
+                span.setAttribute("db.rcu", rcu);
                 span.setAttribute("product.found", true);
+                span.setAttribute("outbox.eventCount", outboxEvents.size());
             }
-            logger.info("Updated inventory item in DynamoDB: {} (version {} -> {})",
-                    product.getProductId(), currentVersion, product.getVersion());
+            logger.info("Updated inventory item in DynamoDB: {} (version {} -> {}, {} outbox events)",
+                    product.getProductId(), currentVersion, product.getVersion(), outboxEvents.size());
         }
         catch (ConditionalCheckFailedException e) {
-            // Revert the version increment since the write did not succeed
-            product.setVersion(currentVersion);
-            logger.warn("Optimistic lock conflict for item {}: expected version {}",
-                    product.getProductId(), currentVersion);
-            throw new StaleItemException(product.getProductId(), e);
+            throw staleItem(product, currentVersion, e);
+        }
+        catch (TransactionCanceledException e) {
+            // The inventory item is always the first write, so its cancellation reason comes first.
+            if (e.hasCancellationReasons() && !e.cancellationReasons().isEmpty()
+                    && "ConditionalCheckFailed".equals(e.cancellationReasons().get(0).code())) {
+                throw staleItem(product, currentVersion, e);
+            }
+            logger.error("Transactional write cancelled for item {}: {}", product.getProductId(), e.getMessage(), e);
+            throw new DataAccessException(e);
         }
         catch (AwsServiceException |
             SdkClientException e) {
@@ -180,6 +298,14 @@ public class InventoryItemRepositoryImpl implements InventoryItemRepository {
             throw new DataAccessException(e);
         }
     }
+
+    private StaleItemException staleItem(InventoryItem product, long currentVersion, Exception cause) {
+        // Revert the version increment since the write did not succeed
+        product.setVersion(currentVersion);
+        logger.warn("Optimistic lock conflict for item {}: expected version {}",
+                product.getProductId(), currentVersion);
+        return new StaleItemException(product.getProductId(), cause);
+    }
     
     @CacheInvalidateAll(cacheName = "inventory-cache")
     public void clearCache() {
@@ -0,0 +1,101 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.OutboxEvent;
+import com.inventory.core.OutboxRelay;
+import com.inventory.core.config.AppConfig;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays the outbox from inside the application, for local development and tests where there is no DynamoDB
+ * stream to trigger the outbox relay Lambda. Scans the whole table, so it is not meant for deployed environments.
+ */
+@ApplicationScoped
+public class LocalOutboxRelay {
+    private final DynamoDbClient dynamoDB;
+    private final OutboxRelay outboxRelay;
+    private final AppConfig appConfig;
+    private final Logger logger = LoggerFactory.getLogger(LocalOutboxRelay.class);
+    private final ScheduledExecutorService poller;
+
+    @Inject
+    public LocalOutboxRelay(DynamoDbClient dynamoDB, OutboxRelay outboxRelay, AppConfig appConfig) {
+        this.dynamoDB = dynamoDB;
+        this.outboxRelay = outboxRelay;
+        this.appConfig = appConfig;
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "local-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!appConfig.isOutboxEnabled() || !appConfig.isLocalOutboxRelayEnabled()) {
+            return;
+        }
+
+        long interval = appConfig.getLocalOutboxRelayIntervalMs();
+        logger.info("Starting local outbox relay every {} ms", interval);
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                relayPending();
+            } catch (Exception e) {
+                logger.warn("Local outbox relay failed: {}", e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes everything currently in the outbox.
+     *
+     * @return the number of events published
+     */
+    public int relayPending() {
+        List<OutboxEvent> pending = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+
+        do {
+            var result = dynamoDB.scan(ScanRequest.builder()
+                    .tableName(appConfig.getTableName())
+                    .filterExpression("#type = :outbox")
+                    .expressionAttributeNames(Map.of("#type", OutboxItems.TYPE_KEY))
+                    .expressionAttributeValues(Map.of(":outbox", AttributeValue.fromS(OutboxItems.TYPE)))
+                    .exclusiveStartKey(startKey)
+                    .build());
+            result.items().forEach(item -> pending.add(OutboxItems.fromItem(item)));
+            startKey = result.hasLastEvaluatedKey() && !result.lastEvaluatedKey().isEmpty() ? result.lastEvaluatedKey() : null;
+        } while (startKey != null);
+
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        return pending.size() - outboxRelay.relay(pending).size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.OutboxEvent;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps outbox events to and from the items stored alongside inventory items in the inventory table.
+ */
+public final class OutboxItems {
+    public static final String PARTITION_KEY = "PK";
+    public static final String TYPE_KEY = "Type";
+    public static final String TYPE = "OutboxEvent";
+    public static final String EVENT_ID_KEY = "eventId";
+    public static final String DETAIL_TYPE_KEY = "detailType";
+    public static final String DETAIL_KEY = "detail";
+    public static final String CREATED_AT_KEY = "createdAt";
+    private static final String KEY_PREFIX = "OUTBOX#";
+
+    private OutboxItems() {
+    }
+
+    public static Map<String, AttributeValue> toItem(OutboxEvent event) {
+        HashMap<String, AttributeValue> item = new HashMap<>();
+        item.put(PARTITION_KEY, AttributeValue.fromS(KEY_PREFIX + event.id()));
+        item.put(TYPE_KEY, AttributeValue.fromS(TYPE));
+        item.put(EVENT_ID_KEY, AttributeValue.fromS(event.id()));
+        item.put(DETAIL_TYPE_KEY, AttributeValue.fromS(event.detailType()));
+        item.put(DETAIL_KEY, AttributeValue.fromS(event.detail()));
+        item.put(CREATED_AT_KEY, AttributeValue.fromN(Long.toString(System.currentTimeMillis())));
+        return item;
+    }
+
+    public static OutboxEvent fromItem(Map<String, AttributeValue> item) {
+        return new OutboxEvent(item.get(EVENT_ID_KEY).s(), item.get(DETAIL_TYPE_KEY).s(), item.get(DETAIL_KEY).s());
+    }
+
+    public static Map<String, AttributeValue> key(OutboxEvent event) {
+        return Map.of(PARTITION_KEY, AttributeValue.fromS(KEY_PREFIX + event.id()));
+    }
+}
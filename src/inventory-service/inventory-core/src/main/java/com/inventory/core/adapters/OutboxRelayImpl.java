@@ -0,0 +1,191 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.OutboxEvent;
+import com.inventory.core.OutboxRelay;
+import com.inventory.core.config.AppConfig;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class OutboxRelayImpl implements OutboxRelay {
+    // EventBridge PutEvents accepts at most 10 entries, and 256 KB, per request.
+    private static final int PUT_EVENTS_MAX_ENTRIES = 10;
+    private static final int PUT_EVENTS_MAX_BYTES = 256 * 1024;
+    // DynamoDB BatchWriteItem accepts at most 25 requests.
+    private static final int BATCH_WRITE_MAX_ITEMS = 25;
+    private static final int MAX_RETRIES = 3;
+    private static final long BASE_BACKOFF_MS = 50;
+
+    private final EventBridgeClient eventBridge;
+    private final DynamoDbClient dynamoDB;
+    private final AppConfig appConfig;
+    private final Logger logger = LoggerFactory.getLogger(OutboxRelayImpl.class);
+
+    @Inject
+    public OutboxRelayImpl(EventBridgeClient eventBridge, DynamoDbClient dynamoDB, AppConfig appConfig) {
+        this.eventBridge = eventBridge;
+        this.dynamoDB = dynamoDB;
+        this.appConfig = appConfig;
+    }
+
+    @Override
+    public List<OutboxEvent> relay(List<OutboxEvent> events) {
+        List<OutboxEvent> published = new ArrayList<>(events.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+
+        List<OutboxEvent> batch = new ArrayList<>(PUT_EVENTS_MAX_ENTRIES);
+        int batchBytes = 0;
+        for (OutboxEvent event : events) {
+            int size = entrySize(event);
+            if (!batch.isEmpty() && (batch.size() == PUT_EVENTS_MAX_ENTRIES || batchBytes + size > PUT_EVENTS_MAX_BYTES)) {
+                publishBatch(batch, published, failed);
+                batch = new ArrayList<>(PUT_EVENTS_MAX_ENTRIES);
+                batchBytes = 0;
+            }
+            batch.add(event);
+            batchBytes += size;
+        }
+        if (!batch.isEmpty()) {
+            publishBatch(batch, published, failed);
+        }
+
+        // An event that was published but could not be deleted is left in the outbox. Consumers must already
+        // tolerate duplicates, as a relay can always fail between the two steps.
+        delete(published);
+
+        logger.info("Relayed {} of {} outbox events to {}", published.size(), events.size(), appConfig.getEventBusName());
+        return failed;
+    }
+
+    private void publishBatch(List<OutboxEvent> batch, List<OutboxEvent> published, List<OutboxEvent> failed) {
+        final Span span = GlobalOpenTelemetry.getTracer("com.inventory.core.adapters.OutboxRelayImpl")
+                .spanBuilder("publish outbox")
+                .setParent(Context.current())
+                .startSpan();
+        span.setAttribute("domain", appConfig.getDomain());
+        span.setAttribute("messaging.operation.type", "publish");
+        span.setAttribute("messaging.system", "eventbridge");
+        span.setAttribute("messaging.destination.name", appConfig.getEventBusName());
+        span.setAttribute("messaging.batch.message_count", batch.size());
+
+        List<OutboxEvent> remaining = batch;
+        try (Scope scope = span.makeCurrent()) {
+            for (int attempt = 0; attempt <= MAX_RETRIES && !remaining.isEmpty(); attempt++) {
+                if (attempt > 0) {
+                    Thread.sleep(BASE_BACKOFF_MS * (1L << (attempt - 1)));
+                }
+
+                PutEventsResponse response = eventBridge.putEvents(PutEventsRequest.builder()
+                        .entries(remaining.stream().map(this::entry).toList())
+                        .build());
+
+                boolean hasFailures = response.failedEntryCount() != null && response.failedEntryCount() > 0;
+                List<OutboxEvent> retry = new ArrayList<>();
+                for (int i = 0; i < remaining.size(); i++) {
+                    PutEventsResultEntry result = hasFailures && i < response.entries().size() ? response.entries().get(i) : null;
+                    if (result == null || result.errorCode() == null) {
+                        published.add(remaining.get(i));
+                    } else {
+                        logger.warn("Outbox event {} was not accepted by EventBridge: {} {}",
+                                remaining.get(i).id(), result.errorCode(), result.errorMessage());
+                        retry.add(remaining.get(i));
+                    }
+                }
+                remaining = retry;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            span.recordException(e);
+        } catch (Exception e) {
+            logger.error("Error publishing outbox events", e);
+            span.recordException(e);
+        } finally {
+            if (!remaining.isEmpty()) {
+                span.setStatus(StatusCode.ERROR);
+                span.setAttribute("messaging.batch.failed_count", remaining.size());
+                failed.addAll(remaining);
+            }
+            span.end();
+        }
+    }
+
+    private void delete(List<OutboxEvent> published) {
+        for (int start = 0; start < published.size(); start += BATCH_WRITE_MAX_ITEMS) {
+            List<WriteRequest> deletes = published.subList(start, Math.min(start + BATCH_WRITE_MAX_ITEMS, published.size())).stream()
+                    .map(event -> WriteRequest.builder()
+                            .deleteRequest(DeleteRequest.builder().key(OutboxItems.key(event)).build())
+                            .build())
+                    .toList();
+
+            Map<String, List<WriteRequest>> requestItems = Map.of(appConfig.getTableName(), deletes);
+            try {
+                for (int attempt = 0; !requestItems.isEmpty(); attempt++) {
+                    if (attempt > MAX_RETRIES) {
+                        logger.warn("{} published outbox events could not be deleted",
+                                requestItems.getOrDefault(appConfig.getTableName(), List.of()).size());
+                        break;
+                    }
+                    if (attempt > 0) {
+                        Thread.sleep(BASE_BACKOFF_MS * (1L << (attempt - 1)));
+                    }
+                    requestItems = dynamoDB.batchWriteItem(BatchWriteItemRequest.builder()
+                            .requestItems(requestItems)
+                            .build())
+                            .unprocessedItems();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Error deleting published outbox events", e);
+            }
+        }
+    }
+
+    private PutEventsRequestEntry entry(OutboxEvent event) {
+        return PutEventsRequestEntry.builder()
+                .eventBusName(appConfig.getEventBusName())
+                .source(appConfig.getSource())
+                .detailType(event.detailType())
+                .detail(event.detail())
+                .build();
+    }
+
+    /**
+     * PutEvents entry size as EventBridge counts it towards the 256 KB request limit.
+     */
+    private int entrySize(OutboxEvent event) {
+        return utf8Length(appConfig.getSource()) + utf8Length(event.detailType()) + utf8Length(event.detail());
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
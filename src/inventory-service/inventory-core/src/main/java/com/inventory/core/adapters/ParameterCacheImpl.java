@@ -0,0 +1,182 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2025 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.ParameterCache;
+import com.inventory.core.config.AppConfig;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParametersRequest;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches SSM parameters for the lifetime of the application. Parameters are refreshed on a background thread once
+ * they pass 80% of their TTL, and the last known value keeps being served if SSM is unavailable.
+ */
+@ApplicationScoped
+public class ParameterCacheImpl implements ParameterCache {
+    // GetParameters accepts at most 10 names per request.
+    private static final int GET_PARAMETERS_BATCH_SIZE = 10;
+    private static final double REFRESH_AHEAD_RATIO = 0.8;
+
+    private final SsmClient ssmClient;
+    private final AppConfig appConfig;
+    private final Logger logger = LoggerFactory.getLogger(ParameterCacheImpl.class);
+    private final Map<String, CachedParameter> parameters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    private record CachedParameter(String value, long fetchedAt) {
+    }
+
+    @Inject
+    public ParameterCacheImpl(SsmClient ssmClient, AppConfig appConfig) {
+        this.ssmClient = ssmClient;
+        this.appConfig = appConfig;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "parameter-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        appConfig.getParameterCachePreload().ifPresent(this::preload);
+    }
+
+    @Override
+    public Optional<String> get(String name) {
+        if (name == null || name.isEmpty()) {
+            return Optional.empty();
+        }
+
+        CachedParameter cached = parameters.get(name);
+        if (cached == null) {
+            logger.info("Parameter {} was not preloaded, fetching it now", name);
+            fetch(List.of(name));
+            cached = parameters.get(name);
+            return cached == null ? Optional.empty() : Optional.of(cached.value());
+        }
+
+        if (isDueForRefresh(cached, System.currentTimeMillis())) {
+            // The background schedule may not have run yet, e.g. straight after a Lambda environment is thawed.
+            refresher.execute(this::refreshDueParameters);
+        }
+
+        return Optional.of(cached.value());
+    }
+
+    @Override
+    public void preload(Collection<String> names) {
+        List<String> toLoad = names.stream()
+                .filter(Objects::nonNull)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+        if (toLoad.isEmpty()) {
+            return;
+        }
+
+        logger.info("Preloading {} SSM parameters", toLoad.size());
+        fetch(toLoad);
+    }
+
+    @Override
+    public void refresh() {
+        List<String> names = List.copyOf(parameters.keySet());
+        if (!names.isEmpty()) {
+            logger.info("Refreshing {} SSM parameters", names.size());
+            fetch(names);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void fetch(List<String> names) {
+        long now = System.currentTimeMillis();
+
+        for (int start = 0; start < names.size(); start += GET_PARAMETERS_BATCH_SIZE) {
+            List<String> batch = names.subList(start, Math.min(start + GET_PARAMETERS_BATCH_SIZE, names.size()));
+            try {
+                var response = ssmClient.getParameters(GetParametersRequest.builder()
+                        .names(batch)
+                        .withDecryption(true)
+                        .build());
+
+                for (Parameter parameter : response.parameters()) {
+                    parameters.put(parameter.name(), new CachedParameter(parameter.value(), now));
+                }
+                if (response.hasInvalidParameters() && !response.invalidParameters().isEmpty()) {
+                    logger.warn("SSM parameters not found: {}", response.invalidParameters());
+                }
+            } catch (Exception e) {
+                logger.error("Failed to fetch SSM parameters {}, serving cached values: {}", batch, e.getMessage());
+            }
+        }
+
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        long checkIntervalSeconds = Math.max(1, appConfig.getParameterCacheTtlSeconds() / 5);
+        refresher.scheduleWithFixedDelay(this::refreshDueParameters, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void refreshDueParameters() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            List<String> due = new ArrayList<>();
+            parameters.forEach((name, cached) -> {
+                if (isDueForRefresh(cached, now)) {
+                    due.add(name);
+                }
+            });
+
+            if (!due.isEmpty()) {
+                logger.info("Refreshing {} SSM parameters", due.size());
+                fetch(due);
+            }
+        } catch (Exception e) {
+            logger.error("Error refreshing SSM parameters", e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private boolean isDueForRefresh(CachedParameter cached, long now) {
+        long refreshAfterMs = (long) (appConfig.getParameterCacheTtlSeconds() * 1000L * REFRESH_AHEAD_RATIO);
+        return now - cached.fetchedAt() >= refreshAfterMs;
+    }
+}
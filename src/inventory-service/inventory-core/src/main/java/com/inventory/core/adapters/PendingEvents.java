@@ -0,0 +1,59 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.adapters;
+
+import com.inventory.core.InventoryStockUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.RequestScoped;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * The events {@link EventPublisherImpl} is holding back for one HTTP request or Lambda invocation. Each request has
+ * its own instance, so the flush at the end of one request never sends events that another request is still adding
+ * to. Anything left when the request ends is flushed then.
+ * <p>
+ * The fields are guarded by {@link #lock}, which is used rather than synchronized so a virtual thread waiting for it
+ * does not pin its carrier thread.
+ */
+@RequestScoped
+public class PendingEvents {
+    final ReentrantLock lock = new ReentrantLock();
+    final List<EventPublisherImpl.PendingEvent> events = new ArrayList<>();
+    int bytes;
+    ScheduledFuture<?> lingerFlush;
+    // Stock updates held back until the end of the request or invocation, one per product.
+    final Map<String, InventoryStockUpdatedEvent> stockUpdates = new LinkedHashMap<>();
+    int coalescedStockUpdates;
+    ScheduledFuture<?> coalesceFlush;
+    private volatile Consumer<PendingEvents> flushOnClose;
+
+    /**
+     * @return this instance rather than the request scoped proxy, so a timer can still flush it from another thread
+     */
+    public PendingEvents current() {
+        return this;
+    }
+
+    void flushOnClose(Consumer<PendingEvents> flush) {
+        this.flushOnClose = flush;
+    }
+
+    @PreDestroy
+    void close() {
+        Consumer<PendingEvents> flush = flushOnClose;
+        if (flush != null) {
+            flush.accept(this);
+        }
+    }
+}
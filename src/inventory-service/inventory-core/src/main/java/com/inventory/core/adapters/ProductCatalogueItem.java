@@ -10,6 +10,10 @@ public class ProductCatalogueItem {
     public ProductCatalogueItem() {
     }
 
+    public ProductCatalogueItem(String productId) {
+        this.productId = productId;
+    }
+
     // Getters and setters
     public String getProductId() {
         return productId;
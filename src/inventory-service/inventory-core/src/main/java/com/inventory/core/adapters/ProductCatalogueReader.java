@@ -0,0 +1,77 @@
+package com.inventory.core.adapters;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Decodes a product API catalogue response ({"data": [...]}) one item at a time, so the
+ * full response body and item list never have to be held in memory. Paginated responses
+ * may also carry a top level "totalPages" field.
+ */
+public class ProductCatalogueReader {
+    private static final String DATA_FIELD = "data";
+    private static final String TOTAL_PAGES_FIELD = "totalPages";
+    private final ObjectMapper objectMapper;
+    private final ObjectReader itemReader;
+
+    public ProductCatalogueReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.itemReader = objectMapper.readerFor(ProductCatalogueItem.class);
+    }
+
+    public record Result(int itemCount, int totalPages) {
+    }
+
+    /**
+     * @return the number of items passed to the consumer, and the total page count (1 if the response is not paginated)
+     */
+    public Result read(InputStream body, Consumer<ProductCatalogueItem> consumer) throws IOException {
+        int count = 0;
+        int totalPages = 1;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected product catalogue response to be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if (TOTAL_PAGES_FIELD.equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    totalPages = Math.max(1, parser.getIntValue());
+                    continue;
+                }
+
+                if (!DATA_FIELD.equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new IOException("Product catalogue response ended before the data array was closed");
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    ProductCatalogueItem item = itemReader.readValue(parser);
+                    consumer.accept(item);
+                    count++;
+                }
+            }
+
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new IOException("Product catalogue response was truncated");
+            }
+        }
+        return new Result(count, totalPages);
+    }
+}
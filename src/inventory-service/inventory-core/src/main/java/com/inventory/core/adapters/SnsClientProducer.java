@@ -9,11 +9,13 @@ package com.inventory.core.adapters;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
 import org.jboss.logging.Logger;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
 import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
 import software.amazon.awssdk.services.eventbridge.model.ListEventBusesRequest;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
 
 import java.time.Duration;
@@ -38,4 +40,18 @@ public class SnsClientProducer {
     public SnsClient createSnsClient() {
         return CLIENT;
     }
+
+    @Produces
+    @ApplicationScoped
+    public SnsAsyncClient createSnsAsyncClient() {
+        LOGGER.info("Creating SNS async client");
+
+        return SnsAsyncClient.builder()
+            .region(Region.of(System.getenv("AWS_REGION")))
+            .httpClientBuilder(AwsCrtAsyncHttpClient
+                    .builder()
+                    .connectionTimeout(Duration.ofSeconds(3))
+                    .maxConcurrency(100))
+            .build();
+    }
 }
@@ -8,6 +8,7 @@ package com.inventory.core.config;
 
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -59,6 +60,99 @@ public class AppConfig {
     @ConfigProperty(name = "dd.site", defaultValue = "datadoghq.com")
     String ddSite;
 
+    @ConfigProperty(name = "transaction.tracking.queue.capacity", defaultValue = "10000")
+    int transactionTrackingQueueCapacity;
+
+    @ConfigProperty(name = "transaction.tracking.batch.size", defaultValue = "500")
+    int transactionTrackingBatchSize;
+
+    @ConfigProperty(name = "transaction.tracking.flush.interval.ms", defaultValue = "1000")
+    long transactionTrackingFlushIntervalMs;
+
+    @ConfigProperty(name = "flush.budget.max.ms", defaultValue = "5000")
+    long flushBudgetMaxMs;
+
+    @ConfigProperty(name = "flush.reserve.ms", defaultValue = "500")
+    long flushReserveMs;
+
+    @ConfigProperty(name = "sqs.batch.min.remaining.ms", defaultValue = "3000")
+    long sqsBatchMinRemainingMs;
+
+    @ConfigProperty(name = "catalogue.refresh.incremental", defaultValue = "true")
+    boolean catalogueIncrementalRefreshEnabled;
+
+    @ConfigProperty(name = "catalogue.refresh.full.interval.minutes", defaultValue = "60")
+    int catalogueFullRefreshIntervalMinutes;
+
+    @ConfigProperty(name = "product.api.page.size", defaultValue = "0")
+    int productApiPageSize;
+
+    @ConfigProperty(name = "product.api.max.concurrent.pages", defaultValue = "4")
+    int productApiMaxConcurrentPages;
+
+    @ConfigProperty(name = "events.batch.linger.ms", defaultValue = "20")
+    long eventBatchLingerMs;
+
+    @ConfigProperty(name = "events.publish.async", defaultValue = "false")
+    boolean asyncPublishingEnabled;
+
+    @ConfigProperty(name = "events.publish.max.in.flight", defaultValue = "16")
+    int maxInFlightPublishes;
+
+    @ConfigProperty(name = "events.coalesce.stock.updates", defaultValue = "true")
+    boolean stockUpdateCoalescingEnabled;
+
+    @ConfigProperty(name = "events.coalesce.window.ms", defaultValue = "1000")
+    long stockUpdateCoalesceWindowMs;
+
+    @ConfigProperty(name = "events.outbox.enabled", defaultValue = "false")
+    boolean outboxEnabled;
+
+    @ConfigProperty(name = "events.outbox.local.relay.enabled", defaultValue = "false")
+    boolean localOutboxRelayEnabled;
+
+    @ConfigProperty(name = "events.outbox.local.relay.interval.ms", defaultValue = "500")
+    long localOutboxRelayIntervalMs;
+
+    @ConfigProperty(name = "events.journal.enabled", defaultValue = "false")
+    boolean eventJournalEnabled;
+
+    @ConfigProperty(name = "events.journal.dir")
+    Optional<String> eventJournalDirectory;
+
+    @ConfigProperty(name = "events.journal.segment.bytes", defaultValue = "4194304")
+    int eventJournalSegmentBytes;
+
+    @ConfigProperty(name = "events.journal.max.segments", defaultValue = "64")
+    int eventJournalMaxSegments;
+
+    @ConfigProperty(name = "events.journal.replay.interval.ms", defaultValue = "1000")
+    long eventJournalReplayIntervalMs;
+
+    @ConfigProperty(name = "parameter.cache.ttl.seconds", defaultValue = "300")
+    int parameterCacheTtlSeconds;
+
+    @ConfigProperty(name = "parameter.cache.preload")
+    Optional<List<String>> parameterCachePreload;
+
+    @ConfigProperty(name = "snapstart.priming.enabled", defaultValue = "true")
+    boolean snapStartPrimingEnabled;
+
+    @ConfigProperty(name = "snapstart.restore.warm.connections", defaultValue = "true")
+    boolean snapStartRestoreWarmConnections;
+
+    @ConfigProperty(name = "warmup.enabled", defaultValue = "true")
+    boolean warmUpEnabled;
+
+    @ConfigProperty(name = "warmup.timeout.ms", defaultValue = "20000")
+    long warmUpTimeoutMs;
+
+    @ConfigProperty(name = "warmup.iterations", defaultValue = "10000")
+    int warmUpIterations;
+
+    @ConfigProperty(name = "warmup.preload.product.ids")
+    Optional<List<String>> warmUpPreloadProductIds;
+
     public String getTableName() {
         return tableName;
     }
@@ -111,7 +205,131 @@ public class AppConfig {
         return ddApiKey;
     }
 
+    public int getTransactionTrackingQueueCapacity() {
+        return transactionTrackingQueueCapacity;
+    }
+
+    public int getTransactionTrackingBatchSize() {
+        return transactionTrackingBatchSize;
+    }
+
+    public long getTransactionTrackingFlushIntervalMs() {
+        return transactionTrackingFlushIntervalMs;
+    }
+
+    public long getFlushBudgetMaxMs() {
+        return flushBudgetMaxMs;
+    }
+
+    public long getFlushReserveMs() {
+        return flushReserveMs;
+    }
+
+    public long getSqsBatchMinRemainingMs() {
+        return sqsBatchMinRemainingMs;
+    }
+
     public String getDdSite() {
         return ddSite;
     }
+
+    public boolean isCatalogueIncrementalRefreshEnabled() {
+        return catalogueIncrementalRefreshEnabled;
+    }
+
+    public int getCatalogueFullRefreshIntervalMinutes() {
+        return catalogueFullRefreshIntervalMinutes;
+    }
+
+    public int getProductApiPageSize() {
+        return productApiPageSize;
+    }
+
+    public int getProductApiMaxConcurrentPages() {
+        return productApiMaxConcurrentPages;
+    }
+
+    public long getEventBatchLingerMs() {
+        return eventBatchLingerMs;
+    }
+
+    public boolean isAsyncPublishingEnabled() {
+        return asyncPublishingEnabled;
+    }
+
+    public int getMaxInFlightPublishes() {
+        return maxInFlightPublishes;
+    }
+
+    public boolean isStockUpdateCoalescingEnabled() {
+        return stockUpdateCoalescingEnabled;
+    }
+
+    public long getStockUpdateCoalesceWindowMs() {
+        return stockUpdateCoalesceWindowMs;
+    }
+
+    public boolean isOutboxEnabled() {
+        return outboxEnabled;
+    }
+
+    public boolean isLocalOutboxRelayEnabled() {
+        return localOutboxRelayEnabled;
+    }
+
+    public long getLocalOutboxRelayIntervalMs() {
+        return localOutboxRelayIntervalMs;
+    }
+
+    public boolean isEventJournalEnabled() {
+        return eventJournalEnabled;
+    }
+
+    public Optional<String> getEventJournalDirectory() {
+        return eventJournalDirectory;
+    }
+
+    public int getEventJournalSegmentBytes() {
+        return eventJournalSegmentBytes;
+    }
+
+    public int getEventJournalMaxSegments() {
+        return eventJournalMaxSegments;
+    }
+
+    public long getEventJournalReplayIntervalMs() {
+        return eventJournalReplayIntervalMs;
+    }
+
+    public int getParameterCacheTtlSeconds() {
+        return parameterCacheTtlSeconds;
+    }
+
+    public Optional<List<String>> getParameterCachePreload() {
+        return parameterCachePreload;
+    }
+
+    public boolean isSnapStartPrimingEnabled() {
+        return snapStartPrimingEnabled;
+    }
+
+    public boolean isSnapStartRestoreWarmConnections() {
+        return snapStartRestoreWarmConnections;
+    }
+
+    public boolean isWarmUpEnabled() {
+        return warmUpEnabled;
+    }
+
+    public long getWarmUpTimeoutMs() {
+        return warmUpTimeoutMs;
+    }
+
+    public int getWarmUpIterations() {
+        return warmUpIterations;
+    }
+
+    public Optional<List<String>> getWarmUpPreloadProductIds() {
+        return warmUpPreloadProductIds;
+    }
 } 
\ No newline at end of file
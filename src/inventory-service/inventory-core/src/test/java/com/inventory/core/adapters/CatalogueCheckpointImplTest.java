@@ -0,0 +1,152 @@
+package com.inventory.core.adapters;
+
+import com.inventory.core.CatalogueSnapshot;
+import com.inventory.core.config.TestAppConfig;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogueCheckpointImplTest {
+    private static final String TABLE = "InventoryTable";
+
+    @Test
+    void large_catalogues_are_split_across_items_and_read_back() {
+        var dynamoDB = new InMemoryDynamoDbClient();
+        var checkpoint = new CatalogueCheckpointImpl(dynamoDB, new TestAppConfig().with("table.name", TABLE));
+        Set<String> reconciled = productIds("reconciled", 12_000);
+        Set<String> pending = productIds("pending", 150);
+
+        checkpoint.store(new CatalogueSnapshot("hash", reconciled, pending, System.currentTimeMillis()));
+
+        // One header, six reconciled shards and one pending shard, each well under the item size limit.
+        assertEquals(8, dynamoDB.items.size());
+        dynamoDB.items.values().stream()
+                .filter(item -> item.containsKey("products"))
+                .forEach(item -> assertTrue(item.get("products").ss().size() <= CatalogueCheckpointImpl.SHARD_SIZE));
+
+        CatalogueSnapshot loaded = checkpoint.load();
+        assertEquals("hash", loaded.catalogueHash());
+        assertEquals(reconciled, loaded.reconciledProductIds());
+        assertEquals(pending, loaded.pendingProductIds());
+    }
+
+    @Test
+    void storing_again_replaces_the_previous_shards() {
+        var dynamoDB = new InMemoryDynamoDbClient();
+        var checkpoint = new CatalogueCheckpointImpl(dynamoDB, new TestAppConfig().with("table.name", TABLE));
+
+        checkpoint.store(new CatalogueSnapshot("first", productIds("a", 5_000), Set.of(), System.currentTimeMillis()));
+        checkpoint.store(new CatalogueSnapshot("second", productIds("b", 10), Set.of("c"), System.currentTimeMillis()));
+
+        assertEquals(3, dynamoDB.items.size());
+        CatalogueSnapshot loaded = checkpoint.load();
+        assertEquals("second", loaded.catalogueHash());
+        assertEquals(productIds("b", 10), loaded.reconciledProductIds());
+        assertEquals(Set.of("c"), loaded.pendingProductIds());
+    }
+
+    @Test
+    void unprocessed_shard_writes_are_retried() {
+        var dynamoDB = new InMemoryDynamoDbClient();
+        dynamoDB.unprocessedWritesPerBatch = 3;
+        var checkpoint = new CatalogueCheckpointImpl(dynamoDB, new TestAppConfig().with("table.name", TABLE));
+        Set<String> reconciled = productIds("reconciled", 9_000);
+
+        checkpoint.store(new CatalogueSnapshot("hash", reconciled, Set.of(), System.currentTimeMillis()));
+
+        assertEquals(reconciled, checkpoint.load().reconciledProductIds());
+    }
+
+    @Test
+    void a_missing_shard_forces_a_full_reconciliation() {
+        var dynamoDB = new InMemoryDynamoDbClient();
+        var checkpoint = new CatalogueCheckpointImpl(dynamoDB, new TestAppConfig().with("table.name", TABLE));
+        checkpoint.store(new CatalogueSnapshot("hash", productIds("reconciled", 3_000), Set.of(), System.currentTimeMillis()));
+
+        dynamoDB.items.keySet().removeIf(key -> key.endsWith("#reconciled#1"));
+
+        assertTrue(checkpoint.load().isEmpty());
+    }
+
+    private static Set<String> productIds(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + "-" + i).collect(Collectors.toSet());
+    }
+
+    private static class InMemoryDynamoDbClient implements DynamoDbClient {
+        final Map<String, Map<String, AttributeValue>> items = new TreeMap<>();
+        int unprocessedWritesPerBatch;
+
+        @Override
+        public GetItemResponse getItem(GetItemRequest request) {
+            Map<String, AttributeValue> item = items.get(request.key().get("PK").s());
+            return GetItemResponse.builder().item(item).build();
+        }
+
+        @Override
+        public PutItemResponse putItem(PutItemRequest request) {
+            items.put(request.item().get("PK").s(), request.item());
+            return PutItemResponse.builder().build();
+        }
+
+        @Override
+        public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+            List<WriteRequest> writes = request.requestItems().get(TABLE);
+            assertTrue(writes.size() <= 25);
+            int processed = Math.max(writes.size() - unprocessedWritesPerBatch, 1);
+            for (WriteRequest write : writes.subList(0, processed)) {
+                if (write.putRequest() != null) {
+                    items.put(write.putRequest().item().get("PK").s(), write.putRequest().item());
+                } else {
+                    items.remove(write.deleteRequest().key().get("PK").s());
+                }
+            }
+            Map<String, List<WriteRequest>> unprocessed = processed == writes.size()
+                    ? Map.of() : Map.of(TABLE, writes.subList(processed, writes.size()));
+            return BatchWriteItemResponse.builder().unprocessedItems(unprocessed).build();
+        }
+
+        @Override
+        public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+            KeysAndAttributes keys = request.requestItems().get(TABLE);
+            assertTrue(keys.keys().size() <= 100);
+            List<Map<String, AttributeValue>> found = new ArrayList<>();
+            for (Map<String, AttributeValue> key : keys.keys()) {
+                Map<String, AttributeValue> item = items.get(key.get("PK").s());
+                if (item != null) {
+                    found.add(new HashMap<>(item));
+                }
+            }
+            return BatchGetItemResponse.builder().responses(Map.of(TABLE, found)).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.inventory.core.adapters;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CloudEventFactoryTest {
+    private final CloudEventFactory factory = new CloudEventFactory("test");
+
+    @Test
+    void ids_are_time_ordered_version_7_uuids() {
+        long now = System.currentTimeMillis();
+        UUID earlier = UUID.fromString(CloudEventFactory.uuidV7(now));
+        UUID later = UUID.fromString(CloudEventFactory.uuidV7(now + 1));
+
+        assertEquals(7, earlier.version());
+        assertEquals(2, earlier.variant());
+        assertEquals(now, earlier.getMostSignificantBits() >>> 16);
+        assertTrue(earlier.toString().compareTo(later.toString()) < 0);
+        assertNotEquals(CloudEventFactory.uuidV7(now), CloudEventFactory.uuidV7(now));
+    }
+
+    @Test
+    void ids_differ_after_a_restore() {
+        long now = System.currentTimeMillis();
+        CloudEventFactory.seedThread(42);
+        String fromSnapshot = CloudEventFactory.uuidV7(now);
+        CloudEventFactory.seedThread(42);
+        assertEquals(fromSnapshot, CloudEventFactory.uuidV7(now), "restores of one snapshot share the generator state");
+
+        CloudEventFactory.seedThread(42);
+        CloudEventFactory.reseedAfterRestore();
+
+        assertNotEquals(fromSnapshot, CloudEventFactory.uuidV7(now));
+    }
+
+    @Test
+    void envelope_carries_source_time_and_traceparent() {
+        var spanContext = SpanContext.create("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7",
+                TraceFlags.getSampled(), TraceState.getDefault());
+
+        CloudEventWrapper<String> first;
+        CloudEventWrapper<String> second;
+        try (Scope ignored = Span.wrap(spanContext).makeCurrent()) {
+            first = factory.create("inventory.stockUpdated.v1", "data");
+            second = factory.create("inventory.stockUpdated.v1", "data");
+        }
+
+        assertEquals("https://test.inventory", first.getSource());
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", first.getTraceparent());
+        assertSame(first.getTraceparent(), second.getTraceparent());
+        assertNotEquals(first.getId(), second.getId());
+        assertDoesNotThrow(() -> Instant.parse(first.getTime()));
+        assertNull(factory.create("inventory.stockUpdated.v1", "data").getTraceparent());
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventory.core.adapters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.core.InventoryStockUpdatedEvent;
+import com.inventory.core.NewProductAddedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CloudEventSerializerTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final CloudEventSerializer serializer = new CloudEventSerializer(mapper);
+    private final CloudEventFactory factory = new CloudEventFactory("test");
+
+    @Test
+    void output_matches_the_jackson_envelope() throws Exception {
+        var evtWrapper = factory.create("inventory.stockUpdated.v1", new InventoryStockUpdatedEvent("product-1", 10.0, 9.0));
+        evtWrapper.getDatadog().setContextEntry("dd-pathway-ctx-base64", "abc/123==");
+        evtWrapper.setConversationId("conversation \"1\"");
+
+        var serialized = serializer.serialize(evtWrapper);
+
+        assertEquals(mapper.readTree(mapper.writeValueAsString(evtWrapper)), mapper.readTree(serialized.body()));
+        // The second event of a type is written from the cached template.
+        var next = factory.create("inventory.stockUpdated.v1", new InventoryStockUpdatedEvent("product-2", 5.0, 4.0));
+        assertEquals(mapper.readTree(mapper.writeValueAsString(next)), mapper.readTree(serializer.serialize(next).body()));
+    }
+
+    @Test
+    void size_is_the_exact_utf8_size() throws Exception {
+        var evtWrapper = factory.create("inventory.productAdded.v1", new NewProductAddedEvent("café-☕-📦"));
+
+        var serialized = serializer.serialize(evtWrapper);
+
+        assertEquals(serialized.body().getBytes(StandardCharsets.UTF_8).length, serialized.sizeBytes());
+        assertTrue(serialized.sizeBytes() > serialized.body().length());
+    }
+}
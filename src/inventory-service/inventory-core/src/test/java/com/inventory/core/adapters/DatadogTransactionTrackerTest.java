@@ -0,0 +1,93 @@
+package com.inventory.core.adapters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.core.config.TestAppConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatadogTransactionTrackerTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<JsonNode> payloads = new CopyOnWriteArrayList<>();
+    private final List<DatadogTransactionTracker> trackers = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        trackers.forEach(DatadogTransactionTracker::shutdown);
+    }
+
+    @Test
+    void transactions_are_sent_together_on_flush() {
+        var tracker = tracker(appConfig(100, 500));
+
+        for (int i = 0; i < 7; i++) {
+            tracker.track("product-" + i, "inventory.stockUpdated");
+        }
+        assertTrue(payloads.isEmpty(), "tracking must not send inline");
+
+        assertTrue(tracker.flush(Duration.ofSeconds(5)));
+
+        assertEquals(1, payloads.size());
+        JsonNode transactions = payloads.get(0).get("transactions");
+        assertEquals(7, transactions.size());
+        assertEquals("product-0", transactions.get(0).get("transaction_id").asText());
+        assertEquals("inventory", payloads.get(0).get("service").asText());
+    }
+
+    @Test
+    void oldest_transactions_are_dropped_when_the_queue_is_full() {
+        var tracker = tracker(appConfig(5, 500));
+
+        for (int i = 0; i < 8; i++) {
+            tracker.track("product-" + i, "inventory.stockUpdated");
+        }
+        tracker.flush(Duration.ofSeconds(5));
+
+        assertEquals(3, tracker.droppedCount());
+        JsonNode transactions = payloads.get(0).get("transactions");
+        assertEquals(5, transactions.size());
+        assertEquals("product-3", transactions.get(0).get("transaction_id").asText());
+    }
+
+    @Test
+    void a_full_batch_is_sent_without_waiting_for_a_flush() throws InterruptedException {
+        var tracker = tracker(appConfig(100, 3));
+
+        for (int i = 0; i < 3; i++) {
+            tracker.track("product-" + i, "inventory.stockUpdated");
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (payloads.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, payloads.get(0).get("transactions").size());
+    }
+
+    private DatadogTransactionTracker tracker(TestAppConfig appConfig) {
+        var tracker = new DatadogTransactionTracker(appConfig, this::capture);
+        trackers.add(tracker);
+        return tracker;
+    }
+
+    private int capture(byte[] jsonBytes) throws Exception {
+        payloads.add(mapper.readTree(jsonBytes));
+        return 202;
+    }
+
+    private static TestAppConfig appConfig(int capacity, int batchSize) {
+        return new TestAppConfig()
+                .with("dd.api.key", "test-key")
+                .with("dd.service", "inventory")
+                .with("transaction.tracking.queue.capacity", capacity)
+                .with("transaction.tracking.batch.size", batchSize)
+                .with("transaction.tracking.flush.interval.ms", 60_000);
+    }
+}
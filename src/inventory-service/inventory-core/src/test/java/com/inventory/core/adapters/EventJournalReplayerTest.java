@@ -0,0 +1,105 @@
+package com.inventory.core.adapters;
+
+import com.inventory.core.config.TestAppConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+import software.amazon.awssdk.services.sns.SnsClient;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalReplayerTest {
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rejected_events_are_moved_to_the_end_of_the_journal() {
+        var journal = new EventJournal(true, tempDir, SEGMENT_BYTES, 16);
+        for (int i = 0; i < 5; i++) {
+            journal.append(entry(i));
+        }
+        var eventBridge = new RejectingEventBridgeClient("{\"index\":1}");
+
+        int replayed = new EventJournalReplayer(journal, eventBridge, new UnusedSnsClient(), new TestAppConfig()).replay();
+
+        assertEquals(4, replayed);
+        assertEquals(1, journal.depth());
+        assertEquals("{\"index\":1}", journal.read(10, Integer.MAX_VALUE).entries().get(0).body());
+    }
+
+    @Test
+    void rejected_events_stay_in_place_when_the_journal_is_full() {
+        var journal = new EventJournal(true, tempDir, SEGMENT_BYTES, 2);
+        int accepted = 0;
+        while (journal.append(entry(accepted))) {
+            accepted++;
+        }
+        var eventBridge = new RejectingEventBridgeClient("{\"index\":3}");
+
+        new EventJournalReplayer(journal, eventBridge, new UnusedSnsClient(), new TestAppConfig()).replay();
+
+        // The entries in front of the rejected one are committed, the rejected one and the rest of its batch are kept.
+        assertEquals(accepted - 3, journal.depth());
+        assertEquals("{\"index\":3}", journal.read(1, Integer.MAX_VALUE).entries().get(0).body());
+    }
+
+    private static EventJournal.JournalEntry entry(int index) {
+        return new EventJournal.JournalEntry(EventJournal.Kind.EVENT_BRIDGE, System.currentTimeMillis(),
+                "inventory-bus", "dev.inventory", "inventory.stockUpdated.v1", "{\"index\":" + index + "}");
+    }
+
+    /**
+     * Accepts every event except the ones with the given detail.
+     */
+    private static class RejectingEventBridgeClient implements EventBridgeClient {
+        private final String rejectedDetail;
+
+        RejectingEventBridgeClient(String rejectedDetail) {
+            this.rejectedDetail = rejectedDetail;
+        }
+
+        @Override
+        public PutEventsResponse putEvents(PutEventsRequest request) {
+            List<PutEventsResultEntry> results = new ArrayList<>();
+            int failed = 0;
+            for (var entry : request.entries()) {
+                if (entry.detail().equals(rejectedDetail)) {
+                    results.add(PutEventsResultEntry.builder().errorCode("InternalFailure").build());
+                    failed++;
+                } else {
+                    results.add(PutEventsResultEntry.builder().eventId("id").build());
+                }
+            }
+            return PutEventsResponse.builder().failedEntryCount(failed).entries(results).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "events";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class UnusedSnsClient implements SnsClient {
+        @Override
+        public String serviceName() {
+            return "sns";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
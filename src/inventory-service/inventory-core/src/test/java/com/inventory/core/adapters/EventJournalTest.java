@@ -0,0 +1,114 @@
+package com.inventory.core.adapters;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTest {
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void replayed_entries_are_removed_and_segments_rotate() throws IOException {
+        var journal = new EventJournal(true, tempDir, SEGMENT_BYTES, 16);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(journal.append(entry(i)));
+        }
+        assertEquals(50, journal.depth());
+        assertTrue(segmentCount() > 1);
+
+        int replayed = 0;
+        EventJournal.Batch batch;
+        while (!(batch = journal.read(10, Integer.MAX_VALUE)).isEmpty()) {
+            for (EventJournal.JournalEntry entry : batch.entries()) {
+                assertEquals("{\"index\":" + replayed++ + "}", entry.body());
+            }
+            journal.commit(batch);
+        }
+
+        assertEquals(50, replayed);
+        assertEquals(0, journal.depth());
+        assertEquals(0, journal.replayLagMillis());
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    void reopening_resumes_from_the_cursor() {
+        var journal = new EventJournal(true, tempDir, SEGMENT_BYTES, 16);
+        for (int i = 0; i < 20; i++) {
+            journal.append(entry(i));
+        }
+        journal.commit(journal.read(5, Integer.MAX_VALUE));
+        journal.close();
+
+        var reopened = new EventJournal(true, tempDir, SEGMENT_BYTES, 16);
+
+        assertEquals(15, reopened.depth());
+        assertEquals("{\"index\":5}", reopened.read(1, Integer.MAX_VALUE).entries().get(0).body());
+
+        assertTrue(reopened.append(entry(20)));
+        assertEquals(16, reopened.read(100, Integer.MAX_VALUE).entries().size());
+    }
+
+    @Test
+    void torn_record_is_discarded_on_recovery() throws IOException {
+        var journal = new EventJournal(true, tempDir, SEGMENT_BYTES, 16);
+        journal.append(entry(0));
+        journal.append(entry(1));
+        journal.close();
+
+        // Corrupt the last byte of the second record's payload, as a crash mid-write would.
+        int firstRecordSize = journal.read(1, Integer.MAX_VALUE).bytes();
+        int secondRecordSize = journal.read(2, Integer.MAX_VALUE).bytes() - firstRecordSize;
+        try (var file = new RandomAccessFile(segments().findFirst().orElseThrow().toFile(), "rw")) {
+            file.seek(firstRecordSize + secondRecordSize - 1);
+            file.write(0x7f);
+        }
+
+        var reopened = new EventJournal(true, tempDir, SEGMENT_BYTES, 16);
+
+        assertEquals(1, reopened.depth());
+        assertTrue(reopened.append(entry(2)));
+        var entries = reopened.read(10, Integer.MAX_VALUE).entries();
+        assertEquals(2, entries.size());
+        assertEquals("{\"index\":2}", entries.get(1).body());
+    }
+
+    @Test
+    void full_journal_rejects_entries() {
+        var journal = new EventJournal(true, tempDir, SEGMENT_BYTES, 2);
+
+        int accepted = 0;
+        while (journal.append(entry(accepted))) {
+            accepted++;
+        }
+
+        assertTrue(accepted > 0);
+        assertEquals(accepted, journal.depth());
+    }
+
+    private static EventJournal.JournalEntry entry(int index) {
+        return new EventJournal.JournalEntry(EventJournal.Kind.EVENT_BRIDGE, System.currentTimeMillis(),
+                "inventory-bus", "dev.inventory", "inventory.stockUpdated.v1", "{\"index\":" + index + "}");
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> segments = segments()) {
+            return segments.count();
+        }
+    }
+
+    private Stream<Path> segments() throws IOException {
+        return Files.list(tempDir).filter(path -> path.getFileName().toString().endsWith(".log")).sorted();
+    }
+}
@@ -0,0 +1,257 @@
+package com.inventory.core.adapters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.core.InventoryStockUpdatedEvent;
+import com.inventory.core.NewProductAddedEvent;
+import com.inventory.core.StockReservedEventV1;
+import com.inventory.core.config.TestAppConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.services.eventbridge.EventBridgeAsyncClient;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPublisherImplTest {
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService snsExecutor;
+    private final List<EventPublisherImpl> publishers = new ArrayList<>();
+
+    @BeforeEach
+    void startExecutor() {
+        snsExecutor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void shutDown() {
+        publishers.forEach(EventPublisherImpl::shutdown);
+        snsExecutor.shutdownNow();
+    }
+
+    @Test
+    void product_added_events_are_batched_in_parallel_and_failed_entries_retried() {
+        var sns = new FakeSnsAsyncClient(snsExecutor);
+        var publisher = publisher(new FakeEventBridgeClient(), sns, new EventJournal(false, tempDir, 4096, 2));
+
+        publisher.publishNewProductAddedEvents(products(95));
+
+        assertEquals(95, sns.delivered.size());
+        assertEquals(10, sns.firstAttemptBatches.get());
+        assertTrue(sns.maxConcurrentBatches.get() > 1, "batches should be sent concurrently");
+        assertEquals(10, sns.retriedEntries.get(), "one entry per batch fails once and is retried");
+    }
+
+    @Test
+    void entries_still_failing_after_retries_are_journaled() {
+        var sns = new FakeSnsAsyncClient(snsExecutor);
+        sns.alwaysFail = true;
+        var journal = new EventJournal(true, tempDir, 64 * 1024, 4);
+        var publisher = publisher(new FakeEventBridgeClient(), sns, journal);
+
+        publisher.publishNewProductAddedEvents(products(10));
+
+        assertEquals(9, sns.delivered.size());
+        assertEquals(1, journal.depth());
+        assertEquals(EventJournal.Kind.SNS, journal.read(1, Integer.MAX_VALUE).entries().get(0).kind());
+    }
+
+    @Test
+    void stock_updates_for_a_product_are_coalesced_until_flushed() throws Exception {
+        var eventBridge = new FakeEventBridgeClient();
+        var publisher = publisher(eventBridge, new FakeSnsAsyncClient(snsExecutor), new EventJournal(false, tempDir, 4096, 2));
+
+        publisher.publishInventoryStockUpdatedEvent(new InventoryStockUpdatedEvent("product-1", 10.0, 9.0));
+        publisher.publishInventoryStockUpdatedEvent(new InventoryStockUpdatedEvent("product-2", 5.0, 4.0));
+        publisher.publishInventoryStockUpdatedEvent(new InventoryStockUpdatedEvent("product-1", 9.0, 7.0));
+        publisher.publishInventoryStockUpdatedEvent(new InventoryStockUpdatedEvent("product-1", 7.0, 12.0));
+        publisher.flush();
+
+        assertEquals(2, eventBridge.entries.size());
+        var mapper = new ObjectMapper();
+        var first = mapper.readTree(eventBridge.entries.get(0).detail()).get("data");
+        assertEquals("product-1", first.get("productId").asText());
+        assertEquals(10.0, first.get("previousStockLevel").asDouble());
+        assertEquals(12.0, first.get("newStockLevel").asDouble());
+        var second = mapper.readTree(eventBridge.entries.get(1).detail()).get("data");
+        assertEquals("product-2", second.get("productId").asText());
+
+        publisher.flush();
+        assertEquals(2, eventBridge.entries.size(), "a flush with nothing pending sends nothing");
+    }
+
+    @Test
+    void events_published_outside_the_request_are_sent_by_drain() throws Exception {
+        var requestEvents = new PendingEvents();
+        Thread requestThread = Thread.currentThread();
+        var publisher = new TestEventPublisher(appConfig(), () -> Thread.currentThread() == requestThread ? requestEvents : null);
+
+        publisher.publishStockReservedEvent(new StockReservedEventV1("order-1", "conversation-1"));
+        // A thread without the request context, such as a worker or an async callback, uses the shared buffer.
+        Thread.ofVirtual().start(() -> publisher.publishInventoryStockUpdatedEvent(
+                new InventoryStockUpdatedEvent("product-1", 10.0, 9.0))).join();
+
+        try {
+            assertTrue(publisher.drain(Duration.ofSeconds(5)));
+
+            assertEquals(List.of("inventory.stockReserved.v1", "inventory.stockUpdated.v1"),
+                    publisher.sent().stream().map(PutEventsRequestEntry::detailType).toList());
+        } finally {
+            publisher.shutDown();
+        }
+    }
+
+    private EventPublisherImpl publisher(EventBridgeClient eventBridge, SnsAsyncClient sns, EventJournal journal) {
+        var publisher = new EventPublisherImpl(eventBridge, new UnusedEventBridgeAsyncClient(), new UnusedSnsClient(), sns,
+                new ObjectMapper(), appConfig(), journal);
+        publisher.transactionTracker = (transactionId, checkpoint) -> { };
+        publishers.add(publisher);
+        return publisher;
+    }
+
+    private static TestAppConfig appConfig() {
+        return new TestAppConfig()
+                .with("product.added.topic.arn", "arn:aws:sns:eu-west-1:123456789012:product-added")
+                .with("event.bus.name", "inventory-bus")
+                .with("env", "test")
+                .with("events.publish.max.in.flight", 4)
+                .with("events.batch.linger.ms", 20)
+                .with("events.coalesce.stock.updates", true)
+                .with("events.coalesce.window.ms", 60_000);
+    }
+
+    private static List<NewProductAddedEvent> products(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new NewProductAddedEvent("product-" + i)).toList();
+    }
+
+    /**
+     * The publisher is only expected to use the synchronous EventBridge and asynchronous SNS clients in these tests, so
+     * every call to these fails.
+     */
+    static class UnusedEventBridgeAsyncClient implements EventBridgeAsyncClient {
+        @Override
+        public String serviceName() {
+            return "events";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    static class UnusedSnsClient implements SnsClient {
+        @Override
+        public String serviceName() {
+            return "sns";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    static class FakeEventBridgeClient implements EventBridgeClient {
+        final List<PutEventsRequestEntry> entries = new ArrayList<>();
+
+        @Override
+        public synchronized PutEventsResponse putEvents(PutEventsRequest request) {
+            entries.addAll(request.entries());
+            return PutEventsResponse.builder()
+                    .failedEntryCount(0)
+                    .entries(request.entries().stream().map(entry -> PutEventsResultEntry.builder().eventId("id").build()).toList())
+                    .build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "events";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Fails the first entry of every batch once, as SNS does for an internal error, after a short delay so
+     * concurrent batches overlap.
+     */
+    static class FakeSnsAsyncClient implements SnsAsyncClient {
+        final Set<String> delivered = ConcurrentHashMap.newKeySet();
+        final Set<String> failedOnce = ConcurrentHashMap.newKeySet();
+        final AtomicInteger firstAttemptBatches = new AtomicInteger();
+        final AtomicInteger retriedEntries = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxConcurrentBatches = new AtomicInteger();
+        volatile boolean alwaysFail = false;
+        private final ExecutorService executor;
+
+        FakeSnsAsyncClient(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public CompletableFuture<PublishBatchResponse> publishBatch(PublishBatchRequest request) {
+            List<PublishBatchRequestEntry> entries = request.publishBatchRequestEntries();
+            String first = entries.get(0).id();
+            if (failedOnce.contains(first) || alwaysFail) {
+                retriedEntries.addAndGet(failedOnce.contains(first) ? entries.size() : 0);
+            } else {
+                firstAttemptBatches.incrementAndGet();
+            }
+            maxConcurrentBatches.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            return CompletableFuture.supplyAsync(() -> {
+                List<PublishBatchResultEntry> successful = new ArrayList<>();
+                List<BatchResultErrorEntry> failed = new ArrayList<>();
+                for (PublishBatchRequestEntry entry : entries) {
+                    boolean fail = entry.id().equals(first) && (alwaysFail || failedOnce.add(entry.id()));
+                    if (fail) {
+                        failed.add(BatchResultErrorEntry.builder().id(entry.id()).code("InternalError").senderFault(false).build());
+                    } else {
+                        delivered.add(entry.id());
+                        successful.add(PublishBatchResultEntry.builder().id(entry.id()).build());
+                    }
+                }
+                inFlight.decrementAndGet();
+                return PublishBatchResponse.builder().successful(successful).failed(failed).build();
+            }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS, executor));
+        }
+
+        @Override
+        public String serviceName() {
+            return "sns";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
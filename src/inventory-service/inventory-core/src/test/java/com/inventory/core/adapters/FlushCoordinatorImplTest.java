@@ -0,0 +1,59 @@
+package com.inventory.core.adapters;
+
+import com.inventory.core.config.TestAppConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlushCoordinatorImplTest {
+    private final List<String> flushed = new ArrayList<>();
+    private final List<Duration> timeouts = new ArrayList<>();
+    private final FlushCoordinatorImpl coordinator = new FlushCoordinatorImpl(new TestAppConfig()
+            .with("flush.budget.max.ms", 2_000)
+            .with("flush.reserve.ms", 500));
+
+    @Test
+    void participants_flush_in_order_within_the_remaining_time() {
+        coordinator.register("events", timeout -> record("events", timeout));
+        coordinator.register("transactions", timeout -> record("transactions", timeout));
+
+        assertTrue(coordinator.flush(1_500));
+
+        assertEquals(List.of("events", "transactions"), flushed);
+        assertTrue(timeouts.get(0).toMillis() <= 1_000, "the reserve is held back from the budget");
+        assertTrue(timeouts.get(0).toMillis() > 900);
+    }
+
+    @Test
+    void budget_is_capped_and_never_negative() {
+        coordinator.register("events", timeout -> record("events", timeout));
+
+        coordinator.flush(60_000);
+        coordinator.flush(100);
+
+        assertTrue(timeouts.get(0).toMillis() <= 2_000);
+        assertEquals(Duration.ZERO, timeouts.get(1));
+    }
+
+    @Test
+    void a_failing_participant_does_not_stop_the_rest() {
+        coordinator.register("events", timeout -> {
+            throw new IllegalStateException("boom");
+        });
+        coordinator.register("transactions", timeout -> record("transactions", timeout));
+        coordinator.register("cache", timeout -> false);
+
+        assertFalse(coordinator.flush(10_000));
+        assertEquals(List.of("transactions"), flushed);
+    }
+
+    private boolean record(String name, Duration timeout) {
+        flushed.add(name);
+        timeouts.add(timeout);
+        return true;
+    }
+}
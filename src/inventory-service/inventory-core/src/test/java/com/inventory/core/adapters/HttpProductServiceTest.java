@@ -0,0 +1,183 @@
+package com.inventory.core.adapters;
+
+import com.inventory.core.CatalogueFetchResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs HttpProductService against a local stub product API.
+ */
+class HttpProductServiceTest {
+    private static final int TOTAL_PAGES = 6;
+    private static final int PRODUCTS_PER_PAGE = 50;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private String endpoint;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final AtomicLong bodyBytesSent = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    // Pages numbered from 1, page 0 being the unpaginated catalogue; bumping a page's version changes its ETag.
+    private final int[] pageVersions = new int[TOTAL_PAGES + 1];
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/product", this::handle);
+        server.start();
+        endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/product";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void unchanged_catalogue_is_not_downloaded_again() {
+        var service = service(0);
+
+        var first = new ArrayList<String>();
+        assertEquals(CatalogueFetchResult.COMPLETE, service.streamProductCatalogue(true, item -> first.add(item.getProductId())));
+        service.markCatalogueReconciled();
+        long fullDownloadBytes = bodyBytesSent.get();
+
+        var second = new ArrayList<String>();
+        assertEquals(CatalogueFetchResult.NOT_MODIFIED, service.streamProductCatalogue(true, item -> second.add(item.getProductId())));
+
+        assertEquals(TOTAL_PAGES * PRODUCTS_PER_PAGE, first.size());
+        assertTrue(second.isEmpty());
+        assertEquals(1, notModifiedResponses.get());
+        assertEquals(fullDownloadBytes, bodyBytesSent.get(), "a 304 response should not carry a body");
+    }
+
+    @Test
+    void unconditional_fetch_ignores_stored_validator() {
+        var service = service(0);
+
+        service.streamProductCatalogue(true, item -> { });
+        service.markCatalogueReconciled();
+        var result = service.streamProductCatalogue(false, item -> { });
+
+        assertEquals(CatalogueFetchResult.COMPLETE, result);
+        assertEquals(0, notModifiedResponses.get());
+    }
+
+    @Test
+    void paginated_catalogue_is_fetched_in_parallel_and_read_in_order() {
+        var service = service(PRODUCTS_PER_PAGE);
+
+        var productIds = new ArrayList<String>();
+        var result = service.streamProductCatalogue(false, item -> productIds.add(item.getProductId()));
+
+        assertEquals(CatalogueFetchResult.COMPLETE, result);
+        assertEquals(TOTAL_PAGES, requests.get());
+        assertEquals(productIds(1, TOTAL_PAGES * PRODUCTS_PER_PAGE), productIds);
+        assertTrue(maxInFlight.get() > 1, "later pages should be requested concurrently");
+    }
+
+    @Test
+    void catalogue_is_fetched_again_until_it_has_been_reconciled() {
+        var service = service(0);
+
+        service.streamProductCatalogue(true, item -> { });
+        var result = service.streamProductCatalogue(true, item -> { });
+
+        assertEquals(CatalogueFetchResult.COMPLETE, result);
+        assertEquals(0, notModifiedResponses.get());
+    }
+
+    @Test
+    void paginated_catalogue_is_not_modified_only_when_every_page_is_unchanged() {
+        var service = service(PRODUCTS_PER_PAGE);
+        service.streamProductCatalogue(true, item -> { });
+        service.markCatalogueReconciled();
+
+        assertEquals(CatalogueFetchResult.NOT_MODIFIED, service.streamProductCatalogue(true, item -> { }));
+        assertEquals(TOTAL_PAGES, notModifiedResponses.get());
+
+        pageVersions[TOTAL_PAGES]++;
+        var productIds = new ArrayList<String>();
+        var result = service.streamProductCatalogue(true, item -> productIds.add(item.getProductId()));
+
+        assertEquals(CatalogueFetchResult.COMPLETE, result);
+        assertEquals(productIds(1, TOTAL_PAGES * PRODUCTS_PER_PAGE), productIds);
+    }
+
+    private HttpProductService service(int pageSize) {
+        return new HttpProductService(() -> endpoint, HttpClient.newHttpClient(), pageSize, 4, tempDir.resolve("catalogue.etag"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            String query = exchange.getRequestURI().getQuery();
+            int page = query == null ? 0 : Integer.parseInt(query.replaceAll(".*pageNumber=(\\d+).*", "$1"));
+            String etag = "\"catalogue-p" + page + "-v" + pageVersions[page] + "\"";
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            List<String> products;
+            String pagination = "";
+            if (query == null) {
+                products = productIds(1, TOTAL_PAGES * PRODUCTS_PER_PAGE);
+            } else {
+                products = productIds((page - 1) * PRODUCTS_PER_PAGE + 1, page * PRODUCTS_PER_PAGE);
+                pagination = ",\"pageNumber\":" + page + ",\"totalPages\":" + TOTAL_PAGES;
+                // Slow pages down so overlapping requests are observable.
+                Thread.sleep(50);
+            }
+
+            String body = products.stream()
+                    .map(id -> "{\"productId\":\"" + id + "\",\"name\":\"Product " + id + "\"}")
+                    .collect(Collectors.joining(",", "{\"data\":[", "]" + pagination + ",\"success\":true}"));
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("ETag", etag);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+            bodyBytesSent.addAndGet(bytes.length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static List<String> productIds(int from, int to) {
+        return IntStream.rangeClosed(from, to).mapToObj(i -> "product-" + i).toList();
+    }
+}
@@ -0,0 +1,58 @@
+package com.inventory.core.adapters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.core.config.AppConfig;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * An {@link EventPublisherImpl} for tests that run without Quarkus. It records the EventBridge events it sends, and
+ * uses the events returned by {@code requestEvents} as those of the current request, as the request context does
+ * when Quarkus runs. Returning null means no request context is active on the calling thread.
+ */
+public class TestEventPublisher extends EventPublisherImpl {
+    private final EventPublisherImplTest.FakeEventBridgeClient eventBridge;
+    private final Supplier<PendingEvents> requestEvents;
+
+    public TestEventPublisher(AppConfig appConfig, Supplier<PendingEvents> requestEvents) {
+        this(new EventPublisherImplTest.FakeEventBridgeClient(), appConfig, requestEvents);
+    }
+
+    private TestEventPublisher(EventPublisherImplTest.FakeEventBridgeClient eventBridge, AppConfig appConfig,
+                               Supplier<PendingEvents> requestEvents) {
+        super(eventBridge, new EventPublisherImplTest.UnusedEventBridgeAsyncClient(), new EventPublisherImplTest.UnusedSnsClient(),
+                new UnusedSnsAsyncClient(), new ObjectMapper(), appConfig, new EventJournal(false, null, 4096, 2));
+        this.eventBridge = eventBridge;
+        this.requestEvents = requestEvents;
+        this.transactionTracker = (transactionId, checkpoint) -> { };
+    }
+
+    public List<PutEventsRequestEntry> sent() {
+        synchronized (eventBridge) {
+            return List.copyOf(eventBridge.entries);
+        }
+    }
+
+    public void shutDown() {
+        shutdown();
+    }
+
+    @Override
+    PendingEvents requestPendingEvents() {
+        return requestEvents.get();
+    }
+
+    private static class UnusedSnsAsyncClient implements SnsAsyncClient {
+        @Override
+        public String serviceName() {
+            return "sns";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventory.core.InventoryStockUpdatedEvent;
+import com.inventory.core.adapters.CloudEventFactory;
+import com.inventory.core.adapters.CloudEventWrapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Scope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envelope creation and serialisation throughput, with the work the original {@link CloudEventWrapper} constructor
+ * did per event as a baseline. Run with
+ * {@code mvn -P benchmark test-compile exec:exec -Djmh.args="CloudEventEnvelope -t 8"} to see the effect of
+ * contention on the random source.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CloudEventEnvelopeBenchmark {
+    private final CloudEventFactory factory = new CloudEventFactory("bench");
+    private final ObjectWriter writer = new ObjectMapper().writer();
+    private final InventoryStockUpdatedEvent event = new InventoryStockUpdatedEvent("product-1", 10.0, 9.0);
+    private Scope spanScope;
+
+    @Setup
+    public void startSpan() {
+        SpanContext spanContext = SpanContext.create("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7",
+                TraceFlags.getSampled(), TraceState.getDefault());
+        spanScope = Span.wrap(spanContext).makeCurrent();
+    }
+
+    @TearDown
+    public void endSpan() {
+        spanScope.close();
+    }
+
+    @Benchmark
+    public void legacyEnvelopeFields(Blackhole blackhole) {
+        SpanContext currentSpan = Span.current().getSpanContext();
+        blackhole.consume(UUID.randomUUID().toString());
+        blackhole.consume(String.format("https://%s.inventory", System.getenv("ENV")));
+        blackhole.consume(Instant.now().toString());
+        blackhole.consume(String.format("00-%s-%s-01", currentSpan.getTraceId(), currentSpan.getSpanId()));
+    }
+
+    @Benchmark
+    public CloudEventWrapper<InventoryStockUpdatedEvent> createEnvelope() {
+        return factory.create("inventory.stockUpdated.v1", event);
+    }
+
+    @Benchmark
+    public byte[] createAndSerializeEnvelope() throws JsonProcessingException {
+        return writer.writeValueAsBytes(factory.create("inventory.stockUpdated.v1", event));
+    }
+}
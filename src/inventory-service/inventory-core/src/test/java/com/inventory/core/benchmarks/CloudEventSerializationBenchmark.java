@@ -0,0 +1,58 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.core.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventory.core.InventoryStockUpdatedEvent;
+import com.inventory.core.adapters.CloudEventFactory;
+import com.inventory.core.adapters.CloudEventSerializer;
+import com.inventory.core.adapters.CloudEventWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The publish path's serialisation, as the generic {@link ObjectWriter} plus the UTF-8 encode needed to size the
+ * entry, against {@link CloudEventSerializer}. Run with
+ * {@code mvn -P benchmark test-compile exec:exec -Djmh.args="CloudEventSerialization -prof gc"} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CloudEventSerializationBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectWriter writer = mapper.writer();
+    private final CloudEventSerializer serializer = new CloudEventSerializer(mapper);
+    private final CloudEventWrapper<InventoryStockUpdatedEvent> event = new CloudEventFactory("bench")
+            .create("inventory.stockUpdated.v1", new InventoryStockUpdatedEvent("product-1", 10.0, 9.0));
+
+    @Benchmark
+    public int jacksonWriterAndUtf8Size() throws JsonProcessingException {
+        String detail = writer.writeValueAsString(event);
+        return detail.getBytes(StandardCharsets.UTF_8).length + detail.hashCode();
+    }
+
+    @Benchmark
+    public int templateSerializer() throws JsonProcessingException {
+        CloudEventSerializer.SerializedEvent serialized = serializer.serialize(event);
+        return serialized.sizeBytes() + serialized.body().hashCode();
+    }
+}
@@ -0,0 +1,71 @@
+package com.inventory.core.config;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An {@link AppConfig} for tests that run without Quarkus. Each property starts at the default declared on its
+ * {@link ConfigProperty}, or empty for optional properties, and tests change the ones they need by name:
+ * <pre>
+ * new TestAppConfig().with("events.batch.linger.ms", 20).with("env", "test")
+ * </pre>
+ */
+public class TestAppConfig extends AppConfig {
+    public TestAppConfig() {
+        for (Field field : AppConfig.class.getDeclaredFields()) {
+            ConfigProperty property = field.getAnnotation(ConfigProperty.class);
+            if (property != null) {
+                set(field, property.defaultValue().equals(ConfigProperty.UNCONFIGURED_VALUE) ? null : property.defaultValue());
+            }
+        }
+    }
+
+    /**
+     * Sets a property, converting the value to the type of its field.
+     */
+    public TestAppConfig with(String name, Object value) {
+        Field field = Arrays.stream(AppConfig.class.getDeclaredFields())
+                .filter(f -> f.isAnnotationPresent(ConfigProperty.class) && f.getAnnotation(ConfigProperty.class).name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown config property " + name));
+        set(field, value);
+        return this;
+    }
+
+    private void set(Field field, Object value) {
+        try {
+            field.setAccessible(true);
+            field.set(this, convert(field, value));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object convert(Field field, Object value) {
+        Class<?> type = field.getType();
+        if (type == Optional.class) {
+            if (value == null || value instanceof Optional<?>) {
+                return value == null ? Optional.empty() : value;
+            }
+            return Optional.of(value instanceof String s && field.getGenericType().getTypeName().contains("List")
+                    ? List.of(s.split(",")) : value);
+        }
+        if (value == null || !(value instanceof String s)) {
+            return value;
+        }
+        if (type == int.class) {
+            return Integer.parseInt(s);
+        }
+        if (type == long.class) {
+            return Long.parseLong(s);
+        }
+        if (type == boolean.class) {
+            return Boolean.parseBoolean(s);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,108 @@
+#!/bin/bash
+
+# Measures cold starts of the deployed inventory ordering function.
+#
+#   ./measure-cold-start.sh <function-name> [runs]
+#
+# Each run forces a new execution environment by changing an environment variable on the function, then invokes it
+# once with a new product event and reads the REPORT line from the tail of the log. The script prints the init duration
+# (or the restore duration when SnapStart is on), the handler duration and the memory used for every run, followed by
+# the averages.
+#
+# With COMPARE_SPRING=Y the same runs are repeated with the Spring Cloud Function handler, so the two start-up paths
+# can be compared on the same function. The handler is switched back when the script finishes.
+#
+# Every invocation starts a real ordering workflow for the product "cold-start-measurement", so run it against a dev
+# or test environment. It needs the AWS CLI and jq.
+
+set -euo pipefail
+
+FUNCTION_NAME=${1:?usage: $0 <function-name> [runs]}
+RUNS=${2:-10}
+COMPARE_SPRING=${COMPARE_SPRING:-N}
+LIGHTWEIGHT_HANDLER=com.inventory.ordering.NewProductAddedHandler::handleRequest
+SPRING_HANDLER=org.springframework.cloud.function.adapter.aws.FunctionInvoker::handleRequest
+
+for tool in aws jq; do
+    if ! command -v "$tool" >/dev/null; then
+        echo "$tool is required" >&2
+        exit 1
+    fi
+done
+
+ORIGINAL_HANDLER=$(aws lambda get-function-configuration --function-name "$FUNCTION_NAME" --query Handler --output text)
+PAYLOAD_FILE=$(mktemp)
+RESPONSE_FILE=$(mktemp)
+
+cleanup() {
+    rm -f "$PAYLOAD_FILE" "$RESPONSE_FILE"
+    if [ "$(aws lambda get-function-configuration --function-name "$FUNCTION_NAME" --query Handler --output text)" != "$ORIGINAL_HANDLER" ]; then
+        aws lambda update-function-configuration --function-name "$FUNCTION_NAME" --handler "$ORIGINAL_HANDLER" >/dev/null
+        aws lambda wait function-updated --function-name "$FUNCTION_NAME"
+    fi
+}
+trap cleanup EXIT
+
+write_payload() {
+    local message
+    message=$(jq -cn --arg id "$(uuidgen 2>/dev/null || date +%s%N)" --arg time "$(date -u +%Y-%m-%dT%H:%M:%SZ)" '{
+        datadog: {}, id: $id, source: "cold-start-measurement", type: "inventory.productAdded.v1", time: $time,
+        data: { productId: "cold-start-measurement" }
+    }')
+    jq -n --arg message "$message" '{
+        Records: [{ EventSource: "aws:sns", EventVersion: "1.0", Sns: { Type: "Notification", Message: $message } }]
+    }' > "$PAYLOAD_FILE"
+}
+
+# Changing an environment variable makes Lambda discard the existing execution environments.
+force_cold_start() {
+    local environment
+    environment=$(aws lambda get-function-configuration --function-name "$FUNCTION_NAME" --query Environment.Variables --output json \
+        | jq -c --arg nonce "$(date +%s%N)" '{ Variables: ((. // {}) + { COLD_START_NONCE: $nonce }) }')
+    aws lambda update-function-configuration --function-name "$FUNCTION_NAME" --environment "$environment" >/dev/null
+    aws lambda wait function-updated --function-name "$FUNCTION_NAME"
+}
+
+measure() {
+    local handler=$1
+    local report init duration memory
+    local total_init=0 total_duration=0 total_memory=0 measured=0
+
+    aws lambda update-function-configuration --function-name "$FUNCTION_NAME" --handler "$handler" >/dev/null
+    aws lambda wait function-updated --function-name "$FUNCTION_NAME"
+
+    echo "Handler: $handler"
+    printf "%-5s %12s %12s %12s\n" "run" "init ms" "duration ms" "memory MB"
+
+    for run in $(seq 1 "$RUNS"); do
+        force_cold_start
+        write_payload
+        report=$(aws lambda invoke --function-name "$FUNCTION_NAME" --log-type Tail --cli-binary-format raw-in-base64-out \
+            --payload "fileb://$PAYLOAD_FILE" "$RESPONSE_FILE" --query LogResult --output text | base64 --decode | grep '^REPORT' || true)
+
+        init=$(echo "$report" | sed -nE 's/.*(Init|Restore) Duration: ([0-9.]+) ms.*/\2/p')
+        duration=$(echo "$report" | sed -nE 's/.*[^a-zA-Z]Duration: ([0-9.]+) ms.*Billed.*/\1/p')
+        memory=$(echo "$report" | sed -nE 's/.*Max Memory Used: ([0-9]+) MB.*/\1/p')
+
+        if [ -z "$init" ]; then
+            echo "Run $run was not a cold start or the report was missing, skipping it" >&2
+            continue
+        fi
+
+        printf "%-5s %12s %12s %12s\n" "$run" "$init" "$duration" "$memory"
+        total_init=$(echo "$total_init + $init" | bc)
+        total_duration=$(echo "$total_duration + $duration" | bc)
+        total_memory=$((total_memory + memory))
+        measured=$((measured + 1))
+    done
+
+    if [ "$measured" -gt 0 ]; then
+        printf "%-5s %12.1f %12.1f %12d\n\n" "avg" "$(echo "$total_init / $measured" | bc -l)" \
+            "$(echo "$total_duration / $measured" | bc -l)" "$((total_memory / measured))"
+    fi
+}
+
+measure "$LIGHTWEIGHT_HANDLER"
+if [ "$COMPARE_SPRING" = "Y" ]; then
+    measure "$SPRING_HANDLER"
+fi
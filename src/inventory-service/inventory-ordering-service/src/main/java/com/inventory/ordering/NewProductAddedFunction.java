@@ -0,0 +1,245 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.ordering;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.inventory.ordering.adapters.CloudEventWrapper;
+import com.inventory.ordering.core.InventoryOrderingService;
+import com.inventory.ordering.core.events.internal.NewProductAddedEvent;
+import datadog.trace.api.experimental.DataStreamsCheckpointer;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Starts the ordering workflow for new products. The starts run concurrently, each message is traced and fails on its
+ * own, and the invocation only reports failures once every message has been tried. Used both as the
+ * {@code handleNewProductAdded} Spring Cloud Function bean and by {@link NewProductAddedHandler}, so the two start-up
+ * paths behave and trace the same way.
+ * <p>
+ * Events delivered directly by SNS start one workflow per product. Events buffered in SQS, see
+ * {@link #applyQueued(SQSEvent)}, start one workflow for every {@code ORDERING_WORKFLOW_BATCH_SIZE} products in the
+ * batch.
+ */
+public class NewProductAddedFunction implements Function<SNSEvent, String> {
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private enum Source {
+        SNS("sns", "aws_sns"),
+        SQS("sqs", "aws_sqs");
+
+        private final String checkpointType;
+        private final String messagingSystem;
+
+        Source(String checkpointType, String messagingSystem) {
+            this.checkpointType = checkpointType;
+            this.messagingSystem = messagingSystem;
+        }
+    }
+
+    private record Message(String messageId, String body) {
+    }
+
+    private record Received(Message message, CloudEventWrapper<NewProductAddedEvent> evtWrapper, Span processSpan) {
+    }
+
+    private final ObjectReader eventReader;
+    private final Logger logger;
+    private final InventoryOrderingService orderingService;
+    private final int batchSize;
+
+    public NewProductAddedFunction(ObjectMapper objectMapper, Logger logger, InventoryOrderingService orderingService) {
+        this(objectMapper, logger, orderingService, batchSize());
+    }
+
+    NewProductAddedFunction(ObjectMapper objectMapper, Logger logger, InventoryOrderingService orderingService,
+                            int batchSize) {
+        this.eventReader = objectMapper.readerFor(new TypeReference<CloudEventWrapper<NewProductAddedEvent>>() {});
+        this.logger = logger;
+        this.orderingService = orderingService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String apply(SNSEvent value) {
+        final Span span = Span.fromContext(Context.current());
+        List<Message> messages = value.getRecords().stream()
+                .map(record -> new Message(record.getSNS().getMessageId(), record.getSNS().getMessage()))
+                .toList();
+
+        Set<String> failed = startWorkflows(messages, Source.SNS, span);
+
+        if (!failed.isEmpty()) {
+            // Failing the invocation lets Lambda retry the batch. Products whose workflow did start are not ordered
+            // twice, because the retry uses the same execution names.
+            var exception = new IllegalStateException(String.format(
+                    "Failed to start the ordering workflow for %d of %d products", failed.size(), messages.size()));
+            recordError(span, exception);
+            throw exception;
+        }
+
+        return "OK";
+    }
+
+    /**
+     * Starts one workflow for each batch of products buffered in SQS, instead of one for each product.
+     *
+     * @return the messages whose workflow could not be started, so SQS delivers them again, and the messages that
+     * could not be read, so SQS moves them to the dead letter queue once they have been received too many times
+     */
+    public SQSBatchResponse applyQueued(SQSEvent value) {
+        final Span span = Span.fromContext(Context.current());
+        List<Message> messages = value.getRecords().stream()
+                .map(record -> new Message(record.getMessageId(), record.getBody()))
+                .toList();
+
+        Set<String> failed = startWorkflows(messages, Source.SQS, span);
+
+        List<SQSBatchResponse.BatchItemFailure> batchItemFailures = new ArrayList<>();
+        for (Message message : messages) {
+            if (failed.contains(message.messageId())) {
+                batchItemFailures.add(SQSBatchResponse.BatchItemFailure.builder().withItemIdentifier(message.messageId()).build());
+            }
+        }
+        return SQSBatchResponse.builder().withBatchItemFailures(batchItemFailures).build();
+    }
+
+    /**
+     * @return the IDs of the messages whose workflow could not be started. A message that cannot be read is logged
+     * and does not stop the rest of the batch. From SQS it is returned as failed too, so it ends up in the dead letter
+     * queue; from SNS it is skipped, as failing the invocation would retry the whole batch without changing it.
+     */
+    private Set<String> startWorkflows(List<Message> messages, Source source, Span span) {
+        List<Received> received = new ArrayList<>(messages.size());
+        List<String> unreadable = new ArrayList<>();
+        for (Message message : messages) {
+            try {
+                CloudEventWrapper<NewProductAddedEvent> evtWrapper = eventReader.readValue(message.body());
+                if (evtWrapper.getData() == null) {
+                    logger.error("Message {} has no product", message.messageId());
+                    unreadable.add(message.messageId());
+                    continue;
+                }
+                received.add(new Received(message, evtWrapper, startProcessSpan(message, evtWrapper, source, messages.size())));
+            } catch (JsonProcessingException exception) {
+                logger.error("An exception occurred!", exception);
+                recordError(span, exception);
+                unreadable.add(message.messageId());
+            }
+        }
+
+        List<CompletableFuture<Void>> starts = source == Source.SQS ? startBatches(received) : startEach(received);
+
+        List<CompletableFuture<Void>> traced = new ArrayList<>(starts.size());
+        for (int i = 0; i < received.size(); i++) {
+            Span processSpan = received.get(i).processSpan();
+            traced.add(starts.get(i).whenComplete((result, exception) -> {
+                if (exception != null) {
+                    Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                            ? exception.getCause() : exception;
+                    logger.error("An exception occurred!", cause);
+                    processSpan.setStatus(StatusCode.ERROR);
+                    processSpan.recordException(cause);
+                }
+                processSpan.end();
+            }));
+        }
+
+        Set<String> failed = new HashSet<>();
+        if (source == Source.SQS) {
+            failed.addAll(unreadable);
+        }
+        for (int i = 0; i < received.size(); i++) {
+            try {
+                traced.get(i).join();
+            } catch (CompletionException | CancellationException exception) {
+                failed.add(received.get(i).message().messageId());
+            }
+        }
+        return failed;
+    }
+
+    private List<CompletableFuture<Void>> startEach(List<Received> received) {
+        List<CompletableFuture<Void>> starts = new ArrayList<>(received.size());
+        for (Received evt : received) {
+            try (Scope scope = evt.processSpan().makeCurrent()) {
+                starts.add(orderingService.handleNewProductAdded(evt.evtWrapper().getData()));
+            } catch (RuntimeException | Error exception) {
+                starts.add(CompletableFuture.failedFuture(exception));
+            }
+        }
+        return starts;
+    }
+
+    private List<CompletableFuture<Void>> startBatches(List<Received> received) {
+        try {
+            return orderingService.handleNewProductsAdded(
+                    received.stream().map(evt -> evt.evtWrapper().getData()).toList(), batchSize);
+        } catch (RuntimeException | Error exception) {
+            return received.stream().map(evt -> CompletableFuture.<Void>failedFuture(exception)).toList();
+        }
+    }
+
+    private Span startProcessSpan(Message message, CloudEventWrapper<NewProductAddedEvent> evtWrapper, Source source,
+                                  int messageCount) {
+        Span processSpan = GlobalOpenTelemetry
+                .getTracer("com.inventory.ordering.FunctionConfiguration")
+                .spanBuilder(String.format("process %s", "inventory.productAdded"))
+                .setParent(Context.current())
+                .startSpan();
+
+        try (Scope scope = processSpan.makeCurrent()) {
+            var carrier = new Carrier(evtWrapper.getDatadog());
+            DataStreamsCheckpointer.get().setConsumeCheckpoint(source.checkpointType, evtWrapper.getType(), carrier);
+
+            processSpan.setAttribute("product.id", evtWrapper.getData().getProductId());
+            processSpan.setAttribute("messaging.message.id", evtWrapper.getId());
+            processSpan.setAttribute("messaging.operation.type", "process");
+            processSpan.setAttribute("messaging.system", source.messagingSystem);
+            processSpan.setAttribute("domain", System.getenv("DOMAIN") == null ? "" : System.getenv("DOMAIN"));
+            processSpan.setAttribute("messaging.message.eventType", "private");
+            processSpan.setAttribute("messaging.message.type", evtWrapper.getType());
+            processSpan.setAttribute("messaging.batch.message_count", messageCount);
+            processSpan.setAttribute("messaging.client.id", System.getenv("DD_SERVICE") == null ? "" : System.getenv("DD_SERVICE"));
+            processSpan.setAttribute("messaging.message.body.size", message.body().getBytes(StandardCharsets.UTF_8).length);
+            processSpan.setAttribute("messaging.operation.name", "process");
+        }
+
+        return processSpan;
+    }
+
+    private static void recordError(Span span, Throwable exception) {
+        if (span.getSpanContext().isValid()) {
+            span.setStatus(StatusCode.ERROR);
+            span.recordException(exception);
+        }
+    }
+
+    private static int batchSize() {
+        String configured = System.getenv("ORDERING_WORKFLOW_BATCH_SIZE");
+        return configured == null || configured.isBlank() ? DEFAULT_BATCH_SIZE : Integer.parseInt(configured);
+    }
+}
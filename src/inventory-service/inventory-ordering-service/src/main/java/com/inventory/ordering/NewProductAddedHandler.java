@@ -0,0 +1,43 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.ordering;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.ordering.adapters.OrderingWorkflowImpl;
+import com.inventory.ordering.config.AwsConfiguration;
+import com.inventory.ordering.config.JsonConfiguration;
+import com.inventory.ordering.config.LoggingConfiguration;
+import com.inventory.ordering.core.InventoryOrderingService;
+
+/**
+ * Lambda entry point for {@code handleNewProductAdded} that does not start a Spring application context. The same
+ * beans the Spring configuration declares are created directly, once per execution environment during the init
+ * phase, and each invocation runs the same {@link NewProductAddedFunction} as the Spring Cloud Function path.
+ * <p>
+ * Use {@code com.inventory.ordering.NewProductAddedHandler::handleRequest} as the function handler. The Spring path
+ * ({@code FunctionInvoker} with {@code MAIN_CLASS=com.inventory.ordering.FunctionConfiguration}) still works from the
+ * same jar. {@link NewProductAddedQueueHandler} is the entry point for events buffered in SQS.
+ */
+public class NewProductAddedHandler implements RequestHandler<SNSEvent, String> {
+    static final NewProductAddedFunction FUNCTION = createFunction();
+
+    private static NewProductAddedFunction createFunction() {
+        ObjectMapper objectMapper = new JsonConfiguration().objectMapper();
+        return new NewProductAddedFunction(
+                objectMapper,
+                new LoggingConfiguration().logger(),
+                new InventoryOrderingService(new OrderingWorkflowImpl(new AwsConfiguration().awsStepFunctions(), objectMapper)));
+    }
+
+    @Override
+    public String handleRequest(SNSEvent event, Context context) {
+        return FUNCTION.apply(event);
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2024 Datadog, Inc.
+ */
+
+package com.inventory.ordering;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+
+/**
+ * Lambda entry point for new product events that SNS delivers to an SQS queue with raw message delivery. The event
+ * source's batching window collects the products added over a few seconds into one invocation, which starts one
+ * ordering workflow per batch of products. Messages whose workflow could not be started, or that could not be read,
+ * are reported back to SQS and delivered again.
+ * <p>
+ * Use {@code com.inventory.ordering.NewProductAddedQueueHandler::handleRequest} as the function handler, with
+ * {@code ReportBatchItemFailures} turned on for the event source.
+ */
+public class NewProductAddedQueueHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
+    @Override
+    public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
+        return NewProductAddedHandler.FUNCTION.applyQueued(event);
+    }
+}
@@ -6,23 +6,130 @@
 
 package com.inventory.ordering.adapters;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.inventory.ordering.core.OrderingWorkflow;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import software.amazon.awssdk.services.sfn.SfnClient;
+import software.amazon.awssdk.services.sfn.SfnAsyncClient;
+import software.amazon.awssdk.services.sfn.model.ExecutionAlreadyExistsException;
 import software.amazon.awssdk.services.sfn.model.StartExecutionRequest;
+import software.amazon.awssdk.services.sfn.model.StartExecutionResponse;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * Starts ordering workflows without blocking on each request. At most {@code ORDERING_WORKFLOW_MAX_CONCURRENT_STARTS}
+ * starts are in flight at once, and callers wait for a slot before the next one is sent.
+ * <p>
+ * Each execution is named after its product, or the set of products in a batch, so a duplicate delivery of the same
+ * event does not start a second workflow: Step Functions returns the running execution, or rejects the start once it
+ * has finished, which is treated as success. The input is written with Jackson, so product IDs are always escaped.
+ */
 @Component
 public class OrderingWorkflowImpl implements OrderingWorkflow {
-    
-    @Autowired
-    SfnClient stepFunctionsClient;
+    private static final int DEFAULT_MAX_CONCURRENT_STARTS = 10;
+    // Execution names are at most 80 characters, made up of the prefix, the readable product ID and a hash.
+    private static final String NAME_PREFIX = "product-";
+    private static final String BATCH_NAME_PREFIX = "products-";
+    private static final int HASH_LENGTH = 16;
+    private static final int MAX_READABLE_LENGTH = 80 - NAME_PREFIX.length() - 1 - HASH_LENGTH;
+    private static final Pattern INVALID_NAME_CHARACTERS = Pattern.compile("[^A-Za-z0-9_-]");
+
+    private final SfnAsyncClient stepFunctionsClient;
+    private final ObjectMapper objectMapper;
+    private final Semaphore startPermits;
+
+    public OrderingWorkflowImpl(SfnAsyncClient stepFunctionsClient, ObjectMapper objectMapper) {
+        this.stepFunctionsClient = stepFunctionsClient;
+        this.objectMapper = objectMapper;
+        this.startPermits = new Semaphore(maxConcurrentStarts());
+    }
 
     @Override
-    public void startOrderingWorkflowFor(String productId) {
-        this.stepFunctionsClient.startExecution(StartExecutionRequest.builder()
-                .stateMachineArn(System.getenv("ORDERING_SERVICE_WORKFLOW_ARN"))
-                .input(String.format("{\"productId\":\"%s\"}", productId))
-                .build());
+    public CompletableFuture<Void> startOrderingWorkflowFor(String productId) {
+        ObjectNode input = objectMapper.createObjectNode().put("productId", productId);
+        return start(executionNameFor(productId), input);
+    }
+
+    @Override
+    public CompletableFuture<Void> startOrderingWorkflowFor(List<String> productIds) {
+        ObjectNode input = objectMapper.createObjectNode();
+        ArrayNode ids = input.putArray("productIds");
+        productIds.forEach(ids::add);
+        return start(executionNameFor(productIds), input);
+    }
+
+    private CompletableFuture<Void> start(String executionName, ObjectNode input) {
+        try {
+            startPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<StartExecutionResponse> start;
+        try {
+            start = this.stepFunctionsClient.startExecution(StartExecutionRequest.builder()
+                    .stateMachineArn(System.getenv("ORDERING_SERVICE_WORKFLOW_ARN"))
+                    .name(executionName)
+                    .input(objectMapper.writeValueAsString(input))
+                    .build());
+        } catch (JsonProcessingException | RuntimeException e) {
+            startPermits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return start.<Void>handle((response, exception) -> {
+            startPermits.release();
+            Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+            if (cause == null || cause instanceof ExecutionAlreadyExistsException) {
+                return null;
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * @return a valid execution name that is the same every time for the same product, with a hash of the full
+     * product ID so IDs that only differ in characters Step Functions does not allow still get different names
+     */
+    private static String executionNameFor(String productId) {
+        String readable = INVALID_NAME_CHARACTERS.matcher(productId).replaceAll("-");
+        if (readable.length() > MAX_READABLE_LENGTH) {
+            readable = readable.substring(0, MAX_READABLE_LENGTH);
+        }
+        return String.format("%s%s-%s", NAME_PREFIX, readable, hash(productId));
+    }
+
+    /**
+     * @return a name that is the same every time for the same set of products, whatever order they arrive in
+     */
+    private static String executionNameFor(List<String> productIds) {
+        List<String> sorted = productIds.stream().sorted().toList();
+        return String.format("%s%d-%s", BATCH_NAME_PREFIX, sorted.size(), hash(String.join("\n", sorted)));
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int maxConcurrentStarts() {
+        String configured = System.getenv("ORDERING_WORKFLOW_MAX_CONCURRENT_STARTS");
+        return configured == null || configured.isBlank() ? DEFAULT_MAX_CONCURRENT_STARTS : Integer.parseInt(configured);
     }
 }
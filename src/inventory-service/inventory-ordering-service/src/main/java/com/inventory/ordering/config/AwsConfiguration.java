@@ -8,12 +8,22 @@ package com.inventory.ordering.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.services.sfn.SfnClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sfn.SfnAsyncClient;
+
+import java.time.Duration;
 
 @Configuration
 public class AwsConfiguration {
     @Bean
-    public SfnClient awsStepFunctions() {
-        return SfnClient.builder().build();
+    public SfnAsyncClient awsStepFunctions() {
+        return SfnAsyncClient.builder()
+                .region(Region.of(System.getenv("AWS_REGION")))
+                .httpClientBuilder(AwsCrtAsyncHttpClient
+                        .builder()
+                        .connectionTimeout(Duration.ofSeconds(3))
+                        .maxConcurrency(100))
+                .build();
     }
 }
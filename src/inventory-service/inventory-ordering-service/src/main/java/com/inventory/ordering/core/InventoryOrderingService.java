@@ -9,6 +9,11 @@ package com.inventory.ordering.core;
 import com.inventory.ordering.core.events.internal.NewProductAddedEvent;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class InventoryOrderingService {
     private final OrderingWorkflow orderingWorkflow;
@@ -17,7 +22,25 @@ public class InventoryOrderingService {
         this.orderingWorkflow = orderingWorkflow;
     }
     
-    public void handleNewProductAdded(NewProductAddedEvent evt) {
-        this.orderingWorkflow.startOrderingWorkflowFor(evt.getProductId());
+    public CompletableFuture<Void> handleNewProductAdded(NewProductAddedEvent evt) {
+        return this.orderingWorkflow.startOrderingWorkflowFor(evt.getProductId());
+    }
+
+    /**
+     * Starts one ordering workflow for every {@code batchSize} distinct products instead of one for each product.
+     *
+     * @return a future for each event, in the same order, that completes once the workflow for its batch has started
+     */
+    public List<CompletableFuture<Void>> handleNewProductsAdded(List<NewProductAddedEvent> evts, int batchSize) {
+        List<String> productIds = evts.stream().map(NewProductAddedEvent::getProductId).distinct().toList();
+        Map<String, CompletableFuture<Void>> starts = new HashMap<>(productIds.size());
+
+        for (int i = 0; i < productIds.size(); i += batchSize) {
+            List<String> batch = productIds.subList(i, Math.min(i + batchSize, productIds.size()));
+            CompletableFuture<Void> start = this.orderingWorkflow.startOrderingWorkflowFor(batch);
+            batch.forEach(productId -> starts.put(productId, start));
+        }
+
+        return evts.stream().map(evt -> starts.get(evt.getProductId())).toList();
     }
 }
@@ -6,6 +6,23 @@
 
 package com.inventory.ordering.core;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface OrderingWorkflow {
-    void startOrderingWorkflowFor(String productId);
+    /**
+     * Starts the ordering workflow for a product. Starting it again for the same product does not start a second
+     * workflow.
+     *
+     * @return completes once Step Functions has accepted the execution, or exceptionally if it could not be started
+     */
+    CompletableFuture<Void> startOrderingWorkflowFor(String productId);
+
+    /**
+     * Starts one ordering workflow for a batch of products. Starting it again for the same products does not start a
+     * second workflow.
+     *
+     * @return completes once Step Functions has accepted the execution, or exceptionally if it could not be started
+     */
+    CompletableFuture<Void> startOrderingWorkflowFor(List<String> productIds);
 }
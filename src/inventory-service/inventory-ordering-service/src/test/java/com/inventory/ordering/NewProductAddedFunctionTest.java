@@ -0,0 +1,129 @@
+package com.inventory.ordering;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.ordering.adapters.FakeSfnAsyncClient;
+import com.inventory.ordering.adapters.OrderingWorkflowImpl;
+import com.inventory.ordering.core.InventoryOrderingService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewProductAddedFunctionTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final FakeSfnAsyncClient stepFunctions = new FakeSfnAsyncClient();
+    private final NewProductAddedFunction function = new NewProductAddedFunction(mapper,
+            LoggerFactory.getLogger(NewProductAddedFunctionTest.class),
+            new InventoryOrderingService(new OrderingWorkflowImpl(stepFunctions, mapper)), 2);
+
+    @Test
+    void every_product_is_started_before_the_failures_are_reported_together() {
+        stepFunctions.respondWith(request -> request.input().contains("product-2") || request.input().contains("product-4")
+                ? CompletableFuture.failedFuture(new IllegalStateException("throttled"))
+                : CompletableFuture.completedFuture(null));
+
+        var exception = assertThrows(IllegalStateException.class,
+                () -> function.apply(snsEvent("product-1", "product-2", "product-3", "product-4")));
+
+        assertEquals("Failed to start the ordering workflow for 2 of 4 products", exception.getMessage());
+        assertEquals(4, stepFunctions.requests().size(), "a failed start must not stop the others");
+    }
+
+    @Test
+    void a_batch_where_every_product_started_succeeds() {
+        assertEquals("OK", function.apply(snsEvent("product-1", "product-2")));
+        assertEquals(2, stepFunctions.requests().size());
+    }
+
+    @Test
+    void an_sns_message_that_cannot_be_read_is_skipped() {
+        var event = snsEvent("product-1");
+        event.getRecords().add(new SNSEvent.SNSRecord().withSns(new SNSEvent.SNS()
+                .withMessageId("malformed")
+                .withMessage("{not json")));
+
+        assertEquals("OK", function.apply(event));
+        assertEquals(1, stepFunctions.requests().size());
+    }
+
+    @Test
+    void queued_products_are_started_in_chunks_of_the_batch_size() throws Exception {
+        var response = function.applyQueued(sqsEvent("product-1", "product-2", "product-3", "product-2"));
+
+        assertTrue(response.getBatchItemFailures().isEmpty());
+        assertEquals(2, stepFunctions.requests().size());
+        assertEquals("[\"product-1\",\"product-2\"]",
+                mapper.readTree(stepFunctions.requests().get(0).input()).get("productIds").toString());
+        assertEquals("[\"product-3\"]",
+                mapper.readTree(stepFunctions.requests().get(1).input()).get("productIds").toString());
+    }
+
+    @Test
+    void every_message_in_a_chunk_that_failed_to_start_is_a_batch_item_failure() {
+        stepFunctions.respondWith(request -> request.input().contains("product-2")
+                ? CompletableFuture.failedFuture(new IllegalStateException("throttled"))
+                : CompletableFuture.completedFuture(null));
+
+        var response = function.applyQueued(sqsEvent("product-1", "product-2", "product-3", "product-2"));
+
+        assertEquals(List.of("message-0", "message-1", "message-3"), failedIds(response));
+    }
+
+    @Test
+    void messages_that_cannot_be_read_are_batch_item_failures() {
+        var event = sqsEvent("product-1");
+        event.getRecords().add(sqsMessage("malformed", "{not json"));
+        event.getRecords().add(sqsMessage("no-product", "{\"id\":\"event\",\"type\":\"inventory.productAdded.v1\"}"));
+
+        var response = function.applyQueued(event);
+
+        assertEquals(List.of("malformed", "no-product"), failedIds(response));
+        assertEquals(1, stepFunctions.requests().size(), "the readable message must still be started");
+    }
+
+    private static String body(String productId) {
+        return String.format("""
+                {"id":"%1$s-event","source":"inventory","type":"inventory.productAdded.v1","data":{"productId":"%1$s"}}
+                """, productId);
+    }
+
+    private static SNSEvent snsEvent(String... productIds) {
+        List<SNSEvent.SNSRecord> records = new ArrayList<>();
+        for (String productId : productIds) {
+            records.add(new SNSEvent.SNSRecord().withSns(new SNSEvent.SNS()
+                    .withMessageId(productId + "-message")
+                    .withMessage(body(productId))));
+        }
+        return new SNSEvent().withRecords(records);
+    }
+
+    private static SQSEvent sqsEvent(String... productIds) {
+        List<SQSEvent.SQSMessage> messages = new ArrayList<>();
+        for (int i = 0; i < productIds.length; i++) {
+            messages.add(sqsMessage("message-" + i, body(productIds[i])));
+        }
+        var event = new SQSEvent();
+        event.setRecords(messages);
+        return event;
+    }
+
+    private static SQSEvent.SQSMessage sqsMessage(String messageId, String body) {
+        var message = new SQSEvent.SQSMessage();
+        message.setMessageId(messageId);
+        message.setBody(body);
+        return message;
+    }
+
+    private static List<String> failedIds(SQSBatchResponse response) {
+        return response.getBatchItemFailures().stream()
+                .map(SQSBatchResponse.BatchItemFailure::getItemIdentifier)
+                .toList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.inventory.ordering.adapters;
+
+import software.amazon.awssdk.services.sfn.SfnAsyncClient;
+import software.amazon.awssdk.services.sfn.model.StartExecutionRequest;
+import software.amazon.awssdk.services.sfn.model.StartExecutionResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Records the executions it is asked to start and answers each one with the future its responder returns, which
+ * starts every execution straight away unless a test says otherwise.
+ */
+public class FakeSfnAsyncClient implements SfnAsyncClient {
+    private final List<StartExecutionRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile Function<StartExecutionRequest, CompletableFuture<StartExecutionResponse>> responder =
+            request -> CompletableFuture.completedFuture(StartExecutionResponse.builder().build());
+
+    public void respondWith(Function<StartExecutionRequest, CompletableFuture<StartExecutionResponse>> responder) {
+        this.responder = responder;
+    }
+
+    public List<StartExecutionRequest> requests() {
+        return requests;
+    }
+
+    @Override
+    public CompletableFuture<StartExecutionResponse> startExecution(StartExecutionRequest request) {
+        requests.add(request);
+        return responder.apply(request);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
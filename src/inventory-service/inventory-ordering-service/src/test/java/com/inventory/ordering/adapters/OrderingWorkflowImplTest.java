@@ -0,0 +1,157 @@
+package com.inventory.ordering.adapters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sfn.model.ExecutionAlreadyExistsException;
+import software.amazon.awssdk.services.sfn.model.StartExecutionResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderingWorkflowImplTest {
+    // ORDERING_WORKFLOW_MAX_CONCURRENT_STARTS is not set in tests, so the default applies.
+    private static final int MAX_CONCURRENT_STARTS = 10;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final FakeSfnAsyncClient stepFunctions = new FakeSfnAsyncClient();
+    private final OrderingWorkflowImpl workflow = new OrderingWorkflowImpl(stepFunctions, mapper);
+
+    @Test
+    void execution_names_only_use_allowed_characters_and_hash_the_full_product_id() throws Exception {
+        workflow.startOrderingWorkflowFor("abc/def").join();
+        workflow.startOrderingWorkflowFor("abc:def").join();
+        workflow.startOrderingWorkflowFor("abc/def").join();
+
+        String first = stepFunctions.requests().get(0).name();
+        String second = stepFunctions.requests().get(1).name();
+        assertTrue(first.matches("product-abc-def-[0-9a-f]{16}"), first);
+        assertTrue(second.matches("product-abc-def-[0-9a-f]{16}"), second);
+        assertNotEquals(first, second, "IDs that only differ in replaced characters must get different names");
+        assertEquals(first, stepFunctions.requests().get(2).name(), "the same product must get the same name");
+        assertEquals("abc/def", mapper.readTree(stepFunctions.requests().get(0).input()).get("productId").asText());
+    }
+
+    @Test
+    void long_product_ids_are_truncated_to_a_valid_execution_name() {
+        String productId = "p".repeat(200);
+
+        workflow.startOrderingWorkflowFor(productId).join();
+        workflow.startOrderingWorkflowFor(productId + "q").join();
+
+        String first = stepFunctions.requests().get(0).name();
+        String second = stepFunctions.requests().get(1).name();
+        assertEquals(80, first.length());
+        assertEquals(80, second.length());
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void product_ids_are_escaped_in_the_input() throws Exception {
+        workflow.startOrderingWorkflowFor("a\"b\\c").join();
+
+        assertEquals("a\"b\\c", mapper.readTree(stepFunctions.requests().get(0).input()).get("productId").asText());
+    }
+
+    @Test
+    void a_batch_gets_the_same_name_whatever_order_its_products_arrive_in() throws Exception {
+        workflow.startOrderingWorkflowFor(List.of("product-2", "product-1")).join();
+        workflow.startOrderingWorkflowFor(List.of("product-1", "product-2")).join();
+        workflow.startOrderingWorkflowFor(List.of("product-1", "product-3")).join();
+
+        String first = stepFunctions.requests().get(0).name();
+        assertTrue(first.matches("products-2-[0-9a-f]{16}"), first);
+        assertEquals(first, stepFunctions.requests().get(1).name());
+        assertNotEquals(first, stepFunctions.requests().get(2).name());
+        assertEquals("[\"product-2\",\"product-1\"]",
+                mapper.readTree(stepFunctions.requests().get(0).input()).get("productIds").toString());
+    }
+
+    @Test
+    void a_start_for_an_execution_that_already_exists_succeeds() {
+        stepFunctions.respondWith(request -> CompletableFuture.failedFuture(
+                ExecutionAlreadyExistsException.builder().message("already exists").build()));
+
+        assertDoesNotThrow(() -> workflow.startOrderingWorkflowFor("product-1").join());
+    }
+
+    @Test
+    void a_failed_start_completes_exceptionally_with_the_cause() {
+        var failure = new IllegalStateException("throttled");
+        stepFunctions.respondWith(request -> CompletableFuture.failedFuture(failure));
+
+        var exception = assertThrows(CompletionException.class,
+                () -> workflow.startOrderingWorkflowFor("product-1").join());
+
+        assertSame(failure, exception.getCause());
+    }
+
+    @Test
+    void a_start_the_client_rejects_up_front_completes_exceptionally() {
+        var failure = new IllegalArgumentException("invalid request");
+        stepFunctions.respondWith(request -> {
+            throw failure;
+        });
+
+        var exception = assertThrows(CompletionException.class,
+                () -> workflow.startOrderingWorkflowFor("product-1").join());
+
+        assertSame(failure, exception.getCause());
+    }
+
+    @Test
+    void the_start_permit_is_released_whichever_way_a_start_ends() {
+        var outcomes = List.of(
+                CompletableFuture.completedFuture(StartExecutionResponse.builder().build()),
+                CompletableFuture.<StartExecutionResponse>failedFuture(
+                        ExecutionAlreadyExistsException.builder().message("already exists").build()),
+                CompletableFuture.<StartExecutionResponse>failedFuture(new IllegalStateException("throttled")));
+
+        for (var outcome : outcomes) {
+            stepFunctions.respondWith(request -> outcome);
+            startMoreThanTheLimit();
+        }
+
+        stepFunctions.respondWith(request -> {
+            throw new IllegalArgumentException("invalid request");
+        });
+        startMoreThanTheLimit();
+    }
+
+    @Test
+    void starts_beyond_the_limit_wait_for_one_in_flight_to_finish() throws Exception {
+        List<CompletableFuture<StartExecutionResponse>> inFlight = new CopyOnWriteArrayList<>();
+        stepFunctions.respondWith(request -> {
+            var response = new CompletableFuture<StartExecutionResponse>();
+            inFlight.add(response);
+            return response;
+        });
+        for (int i = 0; i < MAX_CONCURRENT_STARTS; i++) {
+            workflow.startOrderingWorkflowFor("product-" + i);
+        }
+
+        var waiting = CompletableFuture.supplyAsync(() -> workflow.startOrderingWorkflowFor("product-waiting"));
+        Thread.sleep(200);
+        assertFalse(waiting.isDone(), "the start after the limit must wait for a permit");
+        assertEquals(MAX_CONCURRENT_STARTS, stepFunctions.requests().size());
+
+        inFlight.get(0).complete(StartExecutionResponse.builder().build());
+
+        waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(MAX_CONCURRENT_STARTS + 1, stepFunctions.requests().size());
+        inFlight.forEach(response -> response.complete(StartExecutionResponse.builder().build()));
+    }
+
+    private void startMoreThanTheLimit() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i <= MAX_CONCURRENT_STARTS; i++) {
+                workflow.startOrderingWorkflowFor("product-" + i).exceptionally(exception -> null).join();
+            }
+        }, "a leaked permit would block the start after the limit");
+    }
+}
@@ -0,0 +1,67 @@
+package com.inventory.ordering.core;
+
+import com.inventory.ordering.core.events.internal.NewProductAddedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryOrderingServiceTest {
+    private final RecordingOrderingWorkflow workflow = new RecordingOrderingWorkflow();
+    private final InventoryOrderingService service = new InventoryOrderingService(workflow);
+
+    @Test
+    void a_product_added_more_than_once_is_only_started_once() {
+        var starts = service.handleNewProductsAdded(events("a", "b", "a"), 10);
+
+        assertEquals(List.of(List.of("a", "b")), workflow.batches);
+        assertEquals(3, starts.size());
+        assertSame(starts.get(0), starts.get(2));
+    }
+
+    @Test
+    void distinct_products_are_started_in_chunks_of_the_batch_size() {
+        var starts = service.handleNewProductsAdded(events("a", "b", "c", "d", "e"), 2);
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), workflow.batches);
+        assertSame(starts.get(0), starts.get(1));
+        assertSame(starts.get(2), starts.get(3));
+        assertNotSame(starts.get(1), starts.get(2));
+    }
+
+    @Test
+    void only_the_events_in_a_failed_chunk_fail() {
+        workflow.failBatchContaining = "c";
+
+        var starts = service.handleNewProductsAdded(events("a", "b", "c", "d", "e", "c"), 2);
+
+        assertEquals(List.of(false, false, true, true, false, true),
+                starts.stream().map(CompletableFuture::isCompletedExceptionally).toList());
+    }
+
+    private static List<NewProductAddedEvent> events(String... productIds) {
+        return Stream.of(productIds).map(NewProductAddedEvent::new).toList();
+    }
+
+    private static class RecordingOrderingWorkflow implements OrderingWorkflow {
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private volatile String failBatchContaining;
+
+        @Override
+        public CompletableFuture<Void> startOrderingWorkflowFor(String productId) {
+            return startOrderingWorkflowFor(List.of(productId));
+        }
+
+        @Override
+        public CompletableFuture<Void> startOrderingWorkflowFor(List<String> productIds) {
+            batches.add(List.copyOf(productIds));
+            return failBatchContaining != null && productIds.contains(failBatchContaining)
+                    ? CompletableFuture.failedFuture(new IllegalStateException("throttled"))
+                    : CompletableFuture.completedFuture(null);
+        }
+    }
+}